@@ -0,0 +1,33 @@
+package io.wangxin.result.benchmark;
+
+import io.wangxin.result.IFailCode;
+
+/**
+ * Fail codes used by the benchmarks
+ *
+ * @author Xin Wang
+ */
+public enum BenchmarkFailCode implements IFailCode {
+    USER_NOT_FOUND(1001, "User not found: %s"),
+    USER_PASSWORD_TOO_SHORT(1004, "Password too short, minimum %d characters required"),
+    ORDER_NOT_FOUND(2001, "Order %s of user %s not found"),
+    SYSTEM_OVERLOAD(5002, "System overload, please try again later");
+
+    private final int value;
+    private final String desc;
+
+    BenchmarkFailCode(int value, String desc) {
+        this.value = value;
+        this.desc = desc;
+    }
+
+    @Override
+    public int getValue() {
+        return value;
+    }
+
+    @Override
+    public String getDesc() {
+        return desc;
+    }
+}
@@ -0,0 +1,95 @@
+package io.wangxin.result.benchmark;
+
+import io.wangxin.result.Result;
+import io.wangxin.result.SmartException;
+import io.wangxin.result.StacklessSmartException;
+import io.wangxin.result.utils.ResultUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.CompilerControl;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Business error as a returned Result versus a thrown SmartException.
+ * {@code depth} is the number of frames between the throw and the catch
+ *
+ * @author Xin Wang
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ControlFlowBenchmark {
+
+    @Param({"1", "20"})
+    private int depth;
+
+    @Benchmark
+    public Result returnResult() {
+        return findUser(depth);
+    }
+
+    @Benchmark
+    public Result throwSmartException() {
+        try {
+            throwAt(depth, 0);
+            return ResultUtils.wrapImmutableSuccess();
+        } catch (SmartException e) {
+            return ResultUtils.wrapImmutableFailure(e);
+        }
+    }
+
+    @Benchmark
+    public Result throwStacklessSmartException() {
+        try {
+            throwAt(depth, 1);
+            return ResultUtils.wrapImmutableSuccess();
+        } catch (SmartException e) {
+            return ResultUtils.wrapImmutableFailure(e);
+        }
+    }
+
+    @Benchmark
+    public Result throwPreallocatedSmartException() {
+        try {
+            throwAt(depth, 2);
+            return ResultUtils.wrapImmutableSuccess();
+        } catch (SmartException e) {
+            return ResultUtils.wrapImmutableFailure(e);
+        }
+    }
+
+    @CompilerControl(CompilerControl.Mode.DONT_INLINE)
+    private static Result findUser(int depth) {
+        if (depth > 1) {
+            return findUser(depth - 1);
+        }
+        return ResultUtils.wrapImmutableFailure(BenchmarkFailCode.USER_NOT_FOUND);
+    }
+
+    @CompilerControl(CompilerControl.Mode.DONT_INLINE)
+    private static void throwAt(int depth, int kind) throws SmartException {
+        if (depth > 1) {
+            throwAt(depth - 1, kind);
+            return;
+        }
+        if (kind == 0) {
+            throw new SmartException(BenchmarkFailCode.USER_NOT_FOUND);
+        }
+        if (kind == 1) {
+            throw new StacklessSmartException(BenchmarkFailCode.USER_NOT_FOUND);
+        }
+        throw StacklessSmartException.of(BenchmarkFailCode.USER_NOT_FOUND);
+    }
+}
@@ -0,0 +1,50 @@
+package io.wangxin.result.benchmark;
+
+import io.wangxin.result.utils.MessageTemplate;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link String#format(String, Object...)} versus precompiled {@link MessageTemplate}
+ *
+ * @author Xin Wang
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MessageFormatBenchmark {
+    private final String orderId = "ORDER-001";
+    private final String userId = "123";
+
+    @Benchmark
+    public String stringFormatOneArg() {
+        return String.format(BenchmarkFailCode.USER_NOT_FOUND.getDesc(), userId);
+    }
+
+    @Benchmark
+    public String templateOneArg() {
+        return MessageTemplate.of(BenchmarkFailCode.USER_NOT_FOUND).render(userId);
+    }
+
+    @Benchmark
+    public String stringFormatTwoArgs() {
+        return String.format(BenchmarkFailCode.ORDER_NOT_FOUND.getDesc(), orderId, userId);
+    }
+
+    @Benchmark
+    public String templateTwoArgs() {
+        return MessageTemplate.of(BenchmarkFailCode.ORDER_NOT_FOUND).render(orderId, userId);
+    }
+}
@@ -0,0 +1,166 @@
+package io.wangxin.result.benchmark;
+
+import io.wangxin.result.BooleanResult;
+import io.wangxin.result.DoubleResult;
+import io.wangxin.result.IntResult;
+import io.wangxin.result.LongResult;
+import io.wangxin.result.Result;
+import io.wangxin.result.SmartException;
+import io.wangxin.result.StacklessSmartException;
+import io.wangxin.result.utils.ResultUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of every {@link ResultUtils} factory method
+ *
+ * @author Xin Wang
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResultUtilsBenchmark {
+    private final String data = "data";
+    private final String userId = "123";
+    private final Exception exception = new IllegalStateException("downstream failed");
+    private final SmartException smartException = new SmartException(BenchmarkFailCode.SYSTEM_OVERLOAD);
+    private final CompletionException completionException =
+            new CompletionException(StacklessSmartException.of(BenchmarkFailCode.SYSTEM_OVERLOAD));
+    private int intData = 42;
+    private long longData = 4200000000L;
+    private boolean booleanData = true;
+    private double doubleData = 0.5D;
+
+    @Benchmark
+    public Result wrapSuccessWithData() {
+        return ResultUtils.wrapSuccess(data);
+    }
+
+    @Benchmark
+    public Result wrapSuccessWithoutData() {
+        return ResultUtils.wrapSuccess();
+    }
+
+    @Benchmark
+    public Result wrapImmutableSuccess() {
+        return ResultUtils.wrapImmutableSuccess();
+    }
+
+    @Benchmark
+    public Result wrapFailureCodeAndMessage() {
+        return ResultUtils.wrapFailure(404, "Object Not Found");
+    }
+
+    @Benchmark
+    public Result wrapFailureFailCode() {
+        return ResultUtils.wrapFailure(BenchmarkFailCode.SYSTEM_OVERLOAD);
+    }
+
+    @Benchmark
+    public Result wrapImmutableFailureCodeAndMessage() {
+        return ResultUtils.wrapImmutableFailure(404, "Object Not Found");
+    }
+
+    @Benchmark
+    public Result wrapImmutableFailureFailCode() {
+        return ResultUtils.wrapImmutableFailure(BenchmarkFailCode.SYSTEM_OVERLOAD);
+    }
+
+    @Benchmark
+    public Result wrapFailureFailCodeWithParams() {
+        return ResultUtils.wrapFailure(BenchmarkFailCode.USER_NOT_FOUND, userId);
+    }
+
+    @Benchmark
+    public int wrapLazyFailureCodeOnly() {
+        return ResultUtils.wrapLazyFailure(BenchmarkFailCode.USER_NOT_FOUND, userId).getCode();
+    }
+
+    @Benchmark
+    public Result wrapFailureSmartException() {
+        return ResultUtils.wrapFailure(smartException);
+    }
+
+    @Benchmark
+    public Result wrapImmutableFailureSmartException() {
+        return ResultUtils.wrapImmutableFailure(smartException);
+    }
+
+    @Benchmark
+    public Result wrapExceptionWithException() {
+        return ResultUtils.wrapException(exception);
+    }
+
+    @Benchmark
+    public Result wrapExceptionWithoutException() {
+        return ResultUtils.wrapException();
+    }
+
+    @Benchmark
+    public Result wrapImmutableException() {
+        return ResultUtils.wrapImmutableException();
+    }
+
+    @Benchmark
+    public Result wrapThrowableSmartException() {
+        return ResultUtils.wrapThrowable(completionException);
+    }
+
+    @Benchmark
+    public Result wrapThrowableException() {
+        return ResultUtils.wrapThrowable(exception);
+    }
+
+    @Benchmark
+    public IntResult wrapIntSuccess() {
+        return ResultUtils.wrapIntSuccess(intData);
+    }
+
+    @Benchmark
+    public LongResult wrapLongSuccess() {
+        return ResultUtils.wrapLongSuccess(longData);
+    }
+
+    @Benchmark
+    public BooleanResult wrapBooleanSuccess() {
+        return ResultUtils.wrapBooleanSuccess(booleanData);
+    }
+
+    @Benchmark
+    public DoubleResult wrapDoubleSuccess() {
+        return ResultUtils.wrapDoubleSuccess(doubleData);
+    }
+
+    @Benchmark
+    public IntResult wrapIntFailure() {
+        return ResultUtils.wrapIntFailure(BenchmarkFailCode.SYSTEM_OVERLOAD);
+    }
+
+    @Benchmark
+    public LongResult wrapLongFailure() {
+        return ResultUtils.wrapLongFailure(BenchmarkFailCode.SYSTEM_OVERLOAD);
+    }
+
+    @Benchmark
+    public BooleanResult wrapBooleanFailure() {
+        return ResultUtils.wrapBooleanFailure(BenchmarkFailCode.SYSTEM_OVERLOAD);
+    }
+
+    @Benchmark
+    public DoubleResult wrapDoubleFailure() {
+        return ResultUtils.wrapDoubleFailure(BenchmarkFailCode.SYSTEM_OVERLOAD);
+    }
+}
@@ -0,0 +1,132 @@
+package io.wangxin.result.benchmark;
+
+import io.wangxin.result.Result;
+import io.wangxin.result.codec.ResultBinaryCodec;
+import io.wangxin.result.codec.ResultJsonWriter;
+import io.wangxin.result.utils.ResultUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialization of {@link Result}
+ *
+ * @author Xin Wang
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializationBenchmark {
+    private Result<String> success;
+    private Result failure;
+    private byte[] successBytes;
+    private byte[] failureBytes;
+    private final ResultJsonWriter<Object> jsonWriter = ResultJsonWriter.scalar();
+    private final ByteBuffer jsonBuffer = ByteBuffer.allocate(512);
+    private final ResultBinaryCodec<String> binaryCodec = new ResultBinaryCodec<String>(ResultBinaryCodec.STRING_DATA)
+            .register(BenchmarkFailCode.class);
+    private final ByteBuffer binaryBuffer = ByteBuffer.allocate(512);
+    private ByteBuffer registeredFailureFrame;
+
+    @Setup
+    public void setUp() throws IOException {
+        success = ResultUtils.wrapSuccess("data");
+        failure = ResultUtils.wrapFailure(BenchmarkFailCode.USER_NOT_FOUND, "123");
+        successBytes = javaSerialize(success);
+        failureBytes = javaSerialize(failure);
+        registeredFailureFrame = ByteBuffer.allocate(16);
+        binaryCodec.encode(ResultUtils.wrapImmutableFailure(BenchmarkFailCode.SYSTEM_OVERLOAD), registeredFailureFrame);
+        registeredFailureFrame.flip();
+    }
+
+    @Benchmark
+    public byte[] javaSerializeSuccess() throws IOException {
+        return javaSerialize(success);
+    }
+
+    @Benchmark
+    public byte[] javaSerializeFailure() throws IOException {
+        return javaSerialize(failure);
+    }
+
+    @Benchmark
+    public Object javaDeserializeSuccess() throws IOException, ClassNotFoundException {
+        return javaDeserialize(successBytes);
+    }
+
+    @Benchmark
+    public Object javaDeserializeFailure() throws IOException, ClassNotFoundException {
+        return javaDeserialize(failureBytes);
+    }
+
+    @Benchmark
+    public ByteBuffer jsonWriteSuccess() {
+        jsonBuffer.clear();
+        jsonWriter.write(success, jsonBuffer);
+        return jsonBuffer;
+    }
+
+    @Benchmark
+    public ByteBuffer jsonWriteFailure() {
+        jsonBuffer.clear();
+        jsonWriter.write(failure, jsonBuffer);
+        return jsonBuffer;
+    }
+
+    @Benchmark
+    public Object binaryRoundTripSuccess() {
+        binaryBuffer.clear();
+        binaryCodec.encode(success, binaryBuffer);
+        binaryBuffer.flip();
+        return binaryCodec.decode(binaryBuffer);
+    }
+
+    @Benchmark
+    public Object binaryRoundTripFailure() {
+        binaryBuffer.clear();
+        binaryCodec.encode(failure, binaryBuffer);
+        binaryBuffer.flip();
+        return binaryCodec.decode(binaryBuffer);
+    }
+
+    @Benchmark
+    public Object binaryDecodeRegisteredFailure() {
+        registeredFailureFrame.rewind();
+        return binaryCodec.decode(registeredFailureFrame);
+    }
+
+    private static byte[] javaSerialize(Object value) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        ObjectOutputStream out = new ObjectOutputStream(bytes);
+        out.writeObject(value);
+        out.close();
+        return bytes.toByteArray();
+    }
+
+    private static Object javaDeserialize(byte[] bytes) throws IOException, ClassNotFoundException {
+        ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes));
+        try {
+            return in.readObject();
+        } finally {
+            in.close();
+        }
+    }
+}
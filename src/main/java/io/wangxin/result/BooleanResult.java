@@ -0,0 +1,95 @@
+package io.wangxin.result;
+
+import io.wangxin.result.utils.FailureResults;
+
+/**
+ * Result whose data is a primitive {@code boolean}, avoiding the boxing of {@code Result<Boolean>}
+ *
+ * @author Xin Wang
+ */
+public final class BooleanResult extends PrimitiveResult {
+    private static final long serialVersionUID = -2290387164571190634L;
+    private static final BooleanResult TRUE = new BooleanResult(SUCCESS_CODE, "", true);
+    private static final BooleanResult FALSE = new BooleanResult(SUCCESS_CODE, "", false);
+
+    /**
+     * return value
+     */
+    private final boolean data;
+
+    private BooleanResult(int code, String message, boolean data) {
+        super(code, message);
+        this.data = data;
+    }
+
+    /***
+     * success result, both values are shared instances
+     * @param data return data
+     * @return status and data
+     */
+    public static BooleanResult success(boolean data) {
+        return data ? TRUE : FALSE;
+    }
+
+    /***
+     * failure result, data is false
+     * @param code error code
+     * @param message error message
+     * @return status and data
+     */
+    public static BooleanResult failure(int code, String message) {
+        return new BooleanResult(code, message, false);
+    }
+
+    /***
+     * failure result, data is false
+     * @param failCode error code
+     * @return status and data, shared for enum fail codes
+     */
+    public static BooleanResult failure(IFailCode failCode) {
+        return FailureResults.ofBoolean(failCode);
+    }
+
+    public boolean getData() {
+        return data;
+    }
+
+    @Override
+    public Result<Boolean> toResult() {
+        if (!isSuccess()) {
+            return new ImmutableResult<Boolean>(getCode(), getMessage());
+        }
+        return ImmutableResult.success(data);
+    }
+
+    /**
+     * Keep the shared instances unique after deserialization
+     *
+     * @return replacement object
+     */
+    private Object readResolve() {
+        return isSuccess() && "".equals(getMessage()) ? success(data) : this;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof BooleanResult)) {
+            return false;
+        }
+        BooleanResult other = (BooleanResult) o;
+        return data == other.data && sameStatus(other);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * statusHash() + (data ? 1231 : 1237);
+    }
+
+    @Override
+    public String toString() {
+        return "BooleanResult{code=" + getCode() + ", message=" + getMessage() + ", data=" + data + "}";
+    }
+}
@@ -0,0 +1,67 @@
+package io.wangxin.result;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Failure result of a batch of calls that keeps every failure, not only the first one.
+ * <p>
+ * Code, message and fail code are those of the first failure in input order, so callers that
+ * only check the code see the same result as for a single failure. {@link #getFailures()} and
+ * {@link #getFailedIndexes()} list all of them with the input positions they were produced for.
+ *
+ * @param <T> return data
+ * @author Xin Wang
+ */
+public class CompositeFailureResult<T> extends ImmutableResult<T> {
+    private static final long serialVersionUID = 6114782960381405270L;
+
+    private final int[] failedIndexes;
+    private final Result<?>[] failures;
+
+    /**
+     * @param failedIndexes input positions of the failures, ascending
+     * @param failures      failures, at least one
+     */
+    public CompositeFailureResult(int[] failedIndexes, Result<?>[] failures) {
+        super(first(failures).getCode(), failures[0].getMessage(), null, failCodeOf(failures[0]));
+        if (failedIndexes.length != failures.length) {
+            throw new IllegalArgumentException("failedIndexes and failures must have the same length");
+        }
+        this.failedIndexes = failedIndexes.clone();
+        this.failures = failures.clone();
+    }
+
+    /**
+     * @return number of failures
+     */
+    public int getFailureCount() {
+        return failures.length;
+    }
+
+    /**
+     * @return failures in input order
+     */
+    public List<Result<?>> getFailures() {
+        return Collections.unmodifiableList(Arrays.asList(failures));
+    }
+
+    /**
+     * @return input positions of the failures, ascending
+     */
+    public int[] getFailedIndexes() {
+        return failedIndexes.clone();
+    }
+
+    private static Result<?> first(Result<?>[] failures) {
+        if (failures == null || failures.length == 0 || failures[0] == null) {
+            throw new IllegalArgumentException("failures must not be empty");
+        }
+        return failures[0];
+    }
+
+    private static IFailCode failCodeOf(Result<?> result) {
+        return result instanceof ImmutableResult ? ((ImmutableResult<?>) result).getFailCode() : null;
+    }
+}
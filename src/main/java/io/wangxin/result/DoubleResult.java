@@ -0,0 +1,103 @@
+package io.wangxin.result;
+
+import io.wangxin.result.utils.FailureResults;
+
+/**
+ * Result whose data is a primitive {@code double}, avoiding the boxing of {@code Result<Double>}
+ *
+ * @author Xin Wang
+ */
+public final class DoubleResult extends PrimitiveResult {
+    private static final long serialVersionUID = 8812730412769903241L;
+    private static final DoubleResult ZERO = new DoubleResult(SUCCESS_CODE, "", 0.0D);
+    private static final DoubleResult ONE = new DoubleResult(SUCCESS_CODE, "", 1.0D);
+
+    /**
+     * return value
+     */
+    private final double data;
+
+    private DoubleResult(int code, String message, double data) {
+        super(code, message);
+        this.data = data;
+    }
+
+    /***
+     * success result, cached for 0.0 and 1.0
+     * @param data return data
+     * @return status and data
+     */
+    public static DoubleResult success(double data) {
+        long bits = Double.doubleToRawLongBits(data);
+        if (bits == 0L) {
+            return ZERO;
+        }
+        if (data == 1.0D) {
+            return ONE;
+        }
+        return new DoubleResult(SUCCESS_CODE, "", data);
+    }
+
+    /***
+     * failure result, data is 0.0
+     * @param code error code
+     * @param message error message
+     * @return status and data
+     */
+    public static DoubleResult failure(int code, String message) {
+        return new DoubleResult(code, message, 0.0D);
+    }
+
+    /***
+     * failure result, data is 0.0
+     * @param failCode error code
+     * @return status and data, shared for enum fail codes
+     */
+    public static DoubleResult failure(IFailCode failCode) {
+        return FailureResults.ofDouble(failCode);
+    }
+
+    public double getData() {
+        return data;
+    }
+
+    @Override
+    public Result<Double> toResult() {
+        if (!isSuccess()) {
+            return new ImmutableResult<Double>(getCode(), getMessage());
+        }
+        return ImmutableResult.success(data);
+    }
+
+    /**
+     * Keep the shared instances unique after deserialization
+     *
+     * @return replacement object
+     */
+    private Object readResolve() {
+        return isSuccess() && "".equals(getMessage()) && (Double.doubleToRawLongBits(data) == 0L || data == 1.0D) ? success(data) : this;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof DoubleResult)) {
+            return false;
+        }
+        DoubleResult other = (DoubleResult) o;
+        return Double.doubleToLongBits(data) == Double.doubleToLongBits(other.data) && sameStatus(other);
+    }
+
+    @Override
+    public int hashCode() {
+        long bits = Double.doubleToLongBits(data);
+        return 31 * statusHash() + (int) (bits ^ (bits >>> 32));
+    }
+
+    @Override
+    public String toString() {
+        return "DoubleResult{code=" + getCode() + ", message=" + getMessage() + ", data=" + data + "}";
+    }
+}
@@ -0,0 +1,207 @@
+package io.wangxin.result;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Maps an int code back to its {@link IFailCode} in constant time.
+ * <p>
+ * Register fail code enums at startup; a code registered twice by different fail codes is rejected.
+ * Each registration builds a new immutable lookup table: a dense array indexed by
+ * {@code code - minCode} when codes are close together, otherwise an open-addressing
+ * int-keyed table with linear probing. Lookups read the current table without locking
+ * or boxing the code.
+ *
+ * @author Xin Wang
+ */
+public class FailCodeRegistry {
+    /**
+     * a dense table may have at most this many slots per registered code
+     */
+    private static final int MAX_DENSE_SLOTS_PER_CODE = 4;
+    /**
+     * dense tables up to this size are always accepted
+     */
+    private static final int MIN_DENSE_SLOTS = 64;
+
+    private static final FailCodeRegistry DEFAULT = new FailCodeRegistry();
+
+    private volatile Table table = new DenseTable(0, new IFailCode[0], Collections.<IFailCode>emptyList());
+
+    /**
+     * @return the process wide registry
+     */
+    public static FailCodeRegistry getDefault() {
+        return DEFAULT;
+    }
+
+    /***
+     * register fail codes
+     * @param failCodes error codes
+     * @return this registry
+     * @throws IllegalArgumentException if a code is already registered by another fail code
+     */
+    public synchronized FailCodeRegistry register(IFailCode... failCodes) {
+        List<IFailCode> all = new ArrayList<IFailCode>(table.failCodes);
+        Table current = table;
+        List<IFailCode> added = new ArrayList<IFailCode>(failCodes.length);
+        for (IFailCode failCode : failCodes) {
+            IFailCode existing = current.get(failCode.getValue());
+            if (existing == null) {
+                for (IFailCode pending : added) {
+                    if (pending.getValue() == failCode.getValue()) {
+                        existing = pending;
+                    }
+                }
+            }
+            if (existing == failCode) {
+                continue;
+            }
+            if (existing != null) {
+                throw new IllegalArgumentException("Duplicate fail code " + failCode.getValue() + ": "
+                        + describe(existing) + " and " + describe(failCode));
+            }
+            added.add(failCode);
+        }
+        if (added.isEmpty()) {
+            return this;
+        }
+        all.addAll(added);
+        table = build(all);
+        return this;
+    }
+
+    /***
+     * register every constant of a fail code enum
+     * @param type enum class
+     * @return this registry
+     * @throws IllegalArgumentException if a code is already registered by another fail code
+     */
+    public <E extends Enum<E> & IFailCode> FailCodeRegistry register(Class<E> type) {
+        return register(type.getEnumConstants());
+    }
+
+    /***
+     * fail code of a code
+     * @param code error code
+     * @return fail code, null if not registered
+     */
+    public IFailCode get(int code) {
+        return table.get(code);
+    }
+
+    public boolean contains(int code) {
+        return table.get(code) != null;
+    }
+
+    /**
+     * @return number of registered fail codes
+     */
+    public int size() {
+        return table.failCodes.size();
+    }
+
+    /**
+     * @return registered fail codes in registration order
+     */
+    public List<IFailCode> getFailCodes() {
+        return table.failCodes;
+    }
+
+    private static String describe(IFailCode failCode) {
+        if (failCode instanceof Enum) {
+            return ((Enum<?>) failCode).getDeclaringClass().getName() + "." + ((Enum<?>) failCode).name();
+        }
+        return failCode.getDesc();
+    }
+
+    private static Table build(List<IFailCode> failCodes) {
+        List<IFailCode> snapshot = Collections.unmodifiableList(failCodes);
+        int min = Integer.MAX_VALUE;
+        int max = Integer.MIN_VALUE;
+        for (IFailCode failCode : failCodes) {
+            min = Math.min(min, failCode.getValue());
+            max = Math.max(max, failCode.getValue());
+        }
+        long range = (long) max - min + 1;
+        if (range <= Math.max(MIN_DENSE_SLOTS, (long) failCodes.size() * MAX_DENSE_SLOTS_PER_CODE)) {
+            IFailCode[] slots = new IFailCode[(int) range];
+            for (IFailCode failCode : failCodes) {
+                slots[failCode.getValue() - min] = failCode;
+            }
+            return new DenseTable(min, slots, snapshot);
+        }
+        int capacity = Integer.highestOneBit(failCodes.size() * 2 - 1) << 1;
+        int[] keys = new int[capacity];
+        IFailCode[] values = new IFailCode[capacity];
+        for (IFailCode failCode : failCodes) {
+            int code = failCode.getValue();
+            int slot = HashTable.hash(code) & (capacity - 1);
+            while (values[slot] != null) {
+                slot = (slot + 1) & (capacity - 1);
+            }
+            keys[slot] = code;
+            values[slot] = failCode;
+        }
+        return new HashTable(keys, values, snapshot);
+    }
+
+    private abstract static class Table {
+        final List<IFailCode> failCodes;
+
+        Table(List<IFailCode> failCodes) {
+            this.failCodes = failCodes;
+        }
+
+        abstract IFailCode get(int code);
+    }
+
+    private static final class DenseTable extends Table {
+        private final int min;
+        private final IFailCode[] slots;
+
+        DenseTable(int min, IFailCode[] slots, List<IFailCode> failCodes) {
+            super(failCodes);
+            this.min = min;
+            this.slots = slots;
+        }
+
+        @Override
+        IFailCode get(int code) {
+            long index = (long) code - min;
+            return index >= 0 && index < slots.length ? slots[(int) index] : null;
+        }
+    }
+
+    private static final class HashTable extends Table {
+        private final int[] keys;
+        private final IFailCode[] values;
+        private final int mask;
+
+        HashTable(int[] keys, IFailCode[] values, List<IFailCode> failCodes) {
+            super(failCodes);
+            this.keys = keys;
+            this.values = values;
+            this.mask = keys.length - 1;
+        }
+
+        static int hash(int code) {
+            int h = code * 0x9e3779b9;
+            return h ^ (h >>> 16);
+        }
+
+        @Override
+        IFailCode get(int code) {
+            int slot = hash(code) & mask;
+            IFailCode value;
+            while ((value = values[slot]) != null) {
+                if (keys[slot] == code) {
+                    return value;
+                }
+                slot = (slot + 1) & mask;
+            }
+            return null;
+        }
+    }
+}
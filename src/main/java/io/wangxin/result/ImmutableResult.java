@@ -0,0 +1,178 @@
+package io.wangxin.result;
+
+/**
+ * Read-only {@link Result} whose state is fixed at construction time.
+ * <p>
+ * The state is kept in final fields of this class, so an instance can be handed to other
+ * threads without synchronization once its constructor returns. This lets the library share
+ * one success instance and one cached instance per failure code instead of allocating
+ * a new result on every call. All setters throw {@link UnsupportedOperationException}.
+ * The fields have their own names and the getters are overridden, the fields inherited from
+ * {@link Result} stay unused, so nothing is shadowed.
+ * Unlike {@link Result}, which compares by identity, immutable results are equal when
+ * code, message and data are equal, so they can be used as hash keys.
+ * Use {@link Result} where a Java-bean serializer needs to populate the object.
+ *
+ * @param <T> return data
+ * @author Xin Wang
+ */
+public class ImmutableResult<T> extends Result<T> {
+    private static final long serialVersionUID = 2870146254893371645L;
+    private static final int SUCCESS_CODE = 0;
+    private static final ImmutableResult SUCCESS = new ImmutableResult(SUCCESS_CODE, "");
+    /**
+     * return value
+     **/
+    private final T fixedData;
+    /**
+     * error code
+     */
+    private final int fixedCode;
+    /**
+     * error message
+     */
+    private final String fixedMessage;
+    /**
+     * the fail code this result was created from, null if unknown
+     */
+    private final transient IFailCode failCode;
+
+    public ImmutableResult(int code, String message) {
+        this(code, message, null);
+    }
+
+    public ImmutableResult(int code, String message, T data) {
+        this(code, message, data, null);
+    }
+
+    /**
+     * Failure of a fail code, data is null
+     *
+     * @param failCode error code
+     */
+    public ImmutableResult(IFailCode failCode) {
+        this(failCode.getValue(), failCode.getDesc(), null, failCode);
+    }
+
+    protected ImmutableResult(int code, String message, T data, IFailCode failCode) {
+        this.fixedCode = code;
+        this.fixedMessage = message;
+        this.fixedData = data;
+        this.failCode = failCode;
+    }
+
+    /***
+     * shared success result without data
+     * @param <T> return data
+     * @return status and data
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> ImmutableResult<T> success() {
+        return SUCCESS;
+    }
+
+    /***
+     * success result
+     * @param data return data
+     * @param <T> return data
+     * @return status and data, the shared instance if data is null
+     */
+    public static <T> ImmutableResult<T> success(T data) {
+        if (data == null) {
+            return success();
+        }
+        return new ImmutableResult<T>(SUCCESS_CODE, "", data);
+    }
+
+    /***
+     * failure result, data is null
+     * @param code error code
+     * @param message error message
+     * @param <T> return data
+     * @return status and data
+     */
+    public static <T> ImmutableResult<T> failure(int code, String message) {
+        return new ImmutableResult<T>(code, message);
+    }
+
+    /***
+     * immutable copy of a result
+     * @param result any result
+     * @param <T> return data
+     * @return the argument itself if it is already immutable
+     */
+    public static <T> ImmutableResult<T> copyOf(Result<T> result) {
+        if (result instanceof ImmutableResult) {
+            return (ImmutableResult<T>) result;
+        }
+        if (result.isSuccess() && result.getData() == null && "".equals(result.getMessage())) {
+            return success();
+        }
+        return new ImmutableResult<T>(result.getCode(), result.getMessage(), result.getData());
+    }
+
+    /**
+     * @return the fail code this result was created from, or null
+     */
+    public IFailCode getFailCode() {
+        return failCode;
+    }
+
+    @Override
+    public T getData() {
+        return fixedData;
+    }
+
+    @Override
+    public int getCode() {
+        return fixedCode;
+    }
+
+    @Override
+    public String getMessage() {
+        return fixedMessage;
+    }
+
+    @Override
+    public void setCode(int code) {
+        throw new UnsupportedOperationException("ImmutableResult can not be modified");
+    }
+
+    @Override
+    public void setData(T data) {
+        throw new UnsupportedOperationException("ImmutableResult can not be modified");
+    }
+
+    @Override
+    public void setMessage(String message) {
+        throw new UnsupportedOperationException("ImmutableResult can not be modified");
+    }
+
+    /**
+     * Immutable results are equal when code, message and data are equal
+     *
+     * @param o other object
+     * @return true if o is an immutable result with the same values
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof ImmutableResult)) {
+            return false;
+        }
+        ImmutableResult<?> other = (ImmutableResult<?>) o;
+        return getCode() == other.getCode()
+                && (getMessage() == null ? other.getMessage() == null : getMessage().equals(other.getMessage()))
+                && (getData() == null ? other.getData() == null : getData().equals(other.getData()));
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = getCode();
+        hash = 31 * hash + (getMessage() == null ? 0 : getMessage().hashCode());
+        hash = 31 * hash + (getData() == null ? 0 : getData().hashCode());
+        return hash;
+    }
+}
@@ -0,0 +1,105 @@
+package io.wangxin.result;
+
+import io.wangxin.result.utils.FailureResults;
+
+/**
+ * Result whose data is a primitive {@code int}, avoiding the boxing of {@code Result<Integer>}
+ *
+ * @author Xin Wang
+ */
+public final class IntResult extends PrimitiveResult {
+    private static final long serialVersionUID = -6830425148720385311L;
+    private static final int CACHE_LOW = -1;
+    private static final int CACHE_HIGH = 127;
+    private static final IntResult[] CACHE = new IntResult[CACHE_HIGH - CACHE_LOW + 1];
+
+    static {
+        for (int i = 0; i < CACHE.length; i++) {
+            CACHE[i] = new IntResult(SUCCESS_CODE, "", i + CACHE_LOW);
+        }
+    }
+
+    /**
+     * return value
+     */
+    private final int data;
+
+    private IntResult(int code, String message, int data) {
+        super(code, message);
+        this.data = data;
+    }
+
+    /***
+     * success result, cached for values from -1 to 127
+     * @param data return data
+     * @return status and data
+     */
+    public static IntResult success(int data) {
+        if (data >= CACHE_LOW && data <= CACHE_HIGH) {
+            return CACHE[data - CACHE_LOW];
+        }
+        return new IntResult(SUCCESS_CODE, "", data);
+    }
+
+    /***
+     * failure result, data is 0
+     * @param code error code
+     * @param message error message
+     * @return status and data
+     */
+    public static IntResult failure(int code, String message) {
+        return new IntResult(code, message, 0);
+    }
+
+    /***
+     * failure result, data is 0
+     * @param failCode error code
+     * @return status and data, shared for enum fail codes
+     */
+    public static IntResult failure(IFailCode failCode) {
+        return FailureResults.ofInt(failCode);
+    }
+
+    public int getData() {
+        return data;
+    }
+
+    @Override
+    public Result<Integer> toResult() {
+        if (!isSuccess()) {
+            return new ImmutableResult<Integer>(getCode(), getMessage());
+        }
+        return ImmutableResult.success(data);
+    }
+
+    /**
+     * Keep the shared instances unique after deserialization
+     *
+     * @return replacement object
+     */
+    private Object readResolve() {
+        return isSuccess() && "".equals(getMessage()) && data >= CACHE_LOW && data <= CACHE_HIGH ? success(data) : this;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof IntResult)) {
+            return false;
+        }
+        IntResult other = (IntResult) o;
+        return data == other.data && sameStatus(other);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * statusHash() + data;
+    }
+
+    @Override
+    public String toString() {
+        return "IntResult{code=" + getCode() + ", message=" + getMessage() + ", data=" + data + "}";
+    }
+}
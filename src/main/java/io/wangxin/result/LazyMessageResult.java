@@ -0,0 +1,65 @@
+package io.wangxin.result;
+
+import io.wangxin.result.utils.MessageTemplate;
+
+/**
+ * Failure result that keeps the fail code and message arguments and renders the
+ * message only on the first {@link #getMessage()} call.
+ * <p>
+ * Callers that only check {@link #isSuccess()} or {@link #getCode()} never pay for formatting.
+ * The arguments are checked against the pattern at construction, so a bad pattern or a missing
+ * argument fails where the result is created rather than where the message is first read.
+ * Rendering is idempotent, so concurrent first calls may both render but always
+ * publish the same text through a volatile field.
+ *
+ * @param <T> return data
+ * @author Xin Wang
+ */
+public class LazyMessageResult<T> extends ImmutableResult<T> {
+    private static final long serialVersionUID = -3304873129640723018L;
+
+    private final transient Object[] msgValues;
+    /**
+     * rendered message, null until first read
+     */
+    private transient volatile String renderedMessage;
+
+    public LazyMessageResult(IFailCode failCode, Object... msgValues) {
+        super(failCode.getValue(), null, null, failCode);
+        this.msgValues = msgValues == null ? null : msgValues.clone();
+        if (this.msgValues != null && this.msgValues.length > 0) {
+            MessageTemplate.of(failCode).checkArguments(this.msgValues);
+        }
+    }
+
+    @Override
+    public String getMessage() {
+        String rendered = renderedMessage;
+        if (rendered == null) {
+            if (msgValues == null || msgValues.length == 0) {
+                rendered = getFailCode().getDesc();
+            } else {
+                rendered = MessageTemplate.of(getFailCode()).render(msgValues);
+            }
+            renderedMessage = rendered;
+        }
+        return rendered;
+    }
+
+    /**
+     * @return true if the message has been rendered
+     */
+    public boolean isMessageRendered() {
+        return renderedMessage != null;
+    }
+
+    /**
+     * Serialize as a plain {@link ImmutableResult} with the rendered message
+     *
+     * @return replacement object
+     */
+    @Override
+    protected Object writeReplace() {
+        return new ImmutableResult<T>(getCode(), getMessage(), getData());
+    }
+}
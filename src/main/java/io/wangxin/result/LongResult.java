@@ -0,0 +1,105 @@
+package io.wangxin.result;
+
+import io.wangxin.result.utils.FailureResults;
+
+/**
+ * Result whose data is a primitive {@code long}, avoiding the boxing of {@code Result<Long>}
+ *
+ * @author Xin Wang
+ */
+public final class LongResult extends PrimitiveResult {
+    private static final long serialVersionUID = 4751203948823401527L;
+    private static final int CACHE_LOW = -1;
+    private static final int CACHE_HIGH = 127;
+    private static final LongResult[] CACHE = new LongResult[CACHE_HIGH - CACHE_LOW + 1];
+
+    static {
+        for (int i = 0; i < CACHE.length; i++) {
+            CACHE[i] = new LongResult(SUCCESS_CODE, "", i + CACHE_LOW);
+        }
+    }
+
+    /**
+     * return value
+     */
+    private final long data;
+
+    private LongResult(int code, String message, long data) {
+        super(code, message);
+        this.data = data;
+    }
+
+    /***
+     * success result, cached for values from -1 to 127
+     * @param data return data
+     * @return status and data
+     */
+    public static LongResult success(long data) {
+        if (data >= CACHE_LOW && data <= CACHE_HIGH) {
+            return CACHE[(int) data - CACHE_LOW];
+        }
+        return new LongResult(SUCCESS_CODE, "", data);
+    }
+
+    /***
+     * failure result, data is 0
+     * @param code error code
+     * @param message error message
+     * @return status and data
+     */
+    public static LongResult failure(int code, String message) {
+        return new LongResult(code, message, 0L);
+    }
+
+    /***
+     * failure result, data is 0
+     * @param failCode error code
+     * @return status and data, shared for enum fail codes
+     */
+    public static LongResult failure(IFailCode failCode) {
+        return FailureResults.ofLong(failCode);
+    }
+
+    public long getData() {
+        return data;
+    }
+
+    @Override
+    public Result<Long> toResult() {
+        if (!isSuccess()) {
+            return new ImmutableResult<Long>(getCode(), getMessage());
+        }
+        return ImmutableResult.success(data);
+    }
+
+    /**
+     * Keep the shared instances unique after deserialization
+     *
+     * @return replacement object
+     */
+    private Object readResolve() {
+        return isSuccess() && "".equals(getMessage()) && data >= CACHE_LOW && data <= CACHE_HIGH ? success(data) : this;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof LongResult)) {
+            return false;
+        }
+        LongResult other = (LongResult) o;
+        return data == other.data && sameStatus(other);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * statusHash() + (int) (data ^ (data >>> 32));
+    }
+
+    @Override
+    public String toString() {
+        return "LongResult{code=" + getCode() + ", message=" + getMessage() + ", data=" + data + "}";
+    }
+}
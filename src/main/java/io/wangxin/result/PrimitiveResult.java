@@ -0,0 +1,54 @@
+package io.wangxin.result;
+
+import java.io.Serializable;
+
+/**
+ * Common part of the primitive-specialized results {@link IntResult}, {@link LongResult},
+ * {@link BooleanResult} and {@link DoubleResult}, which carry their data unboxed.
+ * <p>
+ * Code and message follow {@link Result}: code 0 is success. Instances are immutable.
+ *
+ * @author Xin Wang
+ */
+public abstract class PrimitiveResult implements Serializable {
+    private static final long serialVersionUID = 6139847023458213095L;
+    static final int SUCCESS_CODE = 0;
+    /**
+     * error code
+     */
+    private final int code;
+    /**
+     * error message
+     */
+    private final String message;
+
+    PrimitiveResult(int code, String message) {
+        this.code = code;
+        this.message = message;
+    }
+
+    public boolean isSuccess() {
+        return code == SUCCESS_CODE;
+    }
+
+    public int getCode() {
+        return code;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    /**
+     * @return the data boxed into a {@link Result}
+     */
+    public abstract Result<?> toResult();
+
+    boolean sameStatus(PrimitiveResult other) {
+        return code == other.code && (message == null ? other.message == null : message.equals(other.message));
+    }
+
+    int statusHash() {
+        return 31 * code + (message == null ? 0 : message.hashCode());
+    }
+}
@@ -1,6 +1,7 @@
 package io.wangxin.result;
 
 
+import java.io.ObjectStreamException;
 import java.io.Serializable;
 
 /**
@@ -39,7 +40,7 @@ public class Result<T> implements Serializable, Cloneable {
     }
 
     public boolean isSuccess() {
-        return this.code == SUCCESS_CODE;
+        return getCode() == SUCCESS_CODE;
     }
 
     public void setCode(int code) {
@@ -67,4 +68,23 @@ public class Result<T> implements Serializable, Cloneable {
         this.message = message;
     }
 
+    /**
+     * Serialize {@link Result} and {@link ImmutableResult} in a compact form, subclasses keep the default form
+     *
+     * @return replacement object
+     * @throws ObjectStreamException never
+     */
+    protected Object writeReplace() throws ObjectStreamException {
+        Class<?> type = getClass();
+        if (type == Result.class || type == ImmutableResult.class) {
+            return new SerializedResult(this);
+        }
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        return "Result{code=" + getCode() + ", message=" + getMessage() + ", data=" + getData() + "}";
+    }
+
 }
@@ -0,0 +1,272 @@
+package io.wangxin.result;
+
+import io.wangxin.result.utils.FailureResults;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Columnar container for the results of a bulk operation, used instead of {@code List<Result<T>>}.
+ * <p>
+ * Data is kept in one array, codes in an {@code int[]} and messages as indexes into a
+ * table of distinct messages. The code and message columns are only allocated once the
+ * first failure is added, so an all-success batch costs one reference per item.
+ * Success and failure counts are maintained on insertion.
+ * <p>
+ * A batch is not thread-safe; fill it on one thread and publish it afterwards.
+ *
+ * @param <T> return data
+ * @author Xin Wang
+ */
+public class ResultBatch<T> implements Serializable {
+    private static final long serialVersionUID = 5018296613904482776L;
+    private static final int SUCCESS_CODE = 0;
+    private static final int DEFAULT_CAPACITY = 16;
+    /**
+     * message index of a null message
+     */
+    private static final int NULL_MESSAGE = -1;
+    /**
+     * message index of the success message ""
+     */
+    private static final int EMPTY_MESSAGE = 0;
+
+    private Object[] data;
+    /**
+     * error code per item, null while every item is a success
+     */
+    private int[] codes;
+    /**
+     * index into messageTable per item, null while every item is a success
+     */
+    private int[] messageIndexes;
+    private List<String> messageTable;
+    private Map<String, Integer> messageLookup;
+    private int size;
+    private int failureCount;
+
+    public ResultBatch() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public ResultBatch(int initialCapacity) {
+        this.data = new Object[Math.max(initialCapacity, 1)];
+    }
+
+    /***
+     * batch of a list of results
+     * @param results results to copy
+     * @param <T> return data
+     * @return batch with the same items in the same order
+     */
+    public static <T> ResultBatch<T> fromList(List<? extends Result<T>> results) {
+        ResultBatch<T> batch = new ResultBatch<T>(results.size());
+        for (Result<T> result : results) {
+            batch.add(result);
+        }
+        return batch;
+    }
+
+    /***
+     * append a success item
+     * @param item return data
+     * @return this batch
+     */
+    public ResultBatch<T> addSuccess(T item) {
+        ensureCapacity(size + 1);
+        data[size] = item;
+        if (codes != null) {
+            codes[size] = SUCCESS_CODE;
+            messageIndexes[size] = EMPTY_MESSAGE;
+        }
+        size++;
+        return this;
+    }
+
+    /***
+     * append a failure item, data is null
+     * @param code error code
+     * @param message error message
+     * @return this batch
+     */
+    public ResultBatch<T> addFailure(int code, String message) {
+        return append(code, message, null);
+    }
+
+    /***
+     * append a failure item, data is null
+     * @param failCode error code
+     * @return this batch
+     */
+    public ResultBatch<T> addFailure(IFailCode failCode) {
+        return append(failCode.getValue(), failCode.getDesc(), null);
+    }
+
+    /***
+     * append a result
+     * @param result result to copy
+     * @return this batch
+     */
+    public ResultBatch<T> add(Result<T> result) {
+        if (result.isSuccess() && "".equals(result.getMessage())) {
+            return addSuccess(result.getData());
+        }
+        return append(result.getCode(), result.getMessage(), result.getData());
+    }
+
+    private ResultBatch<T> append(int code, String message, T item) {
+        ensureCapacity(size + 1);
+        if (codes == null) {
+            initStatusColumns();
+        }
+        data[size] = item;
+        codes[size] = code;
+        messageIndexes[size] = indexOf(message);
+        if (code != SUCCESS_CODE) {
+            failureCount++;
+        }
+        size++;
+        return this;
+    }
+
+    private void initStatusColumns() {
+        codes = new int[data.length];
+        messageIndexes = new int[data.length];
+        messageTable = new ArrayList<String>();
+        messageLookup = new HashMap<String, Integer>();
+        messageTable.add("");
+        messageLookup.put("", EMPTY_MESSAGE);
+    }
+
+    private int indexOf(String message) {
+        if (message == null) {
+            return NULL_MESSAGE;
+        }
+        Integer index = messageLookup.get(message);
+        if (index == null) {
+            index = messageTable.size();
+            messageTable.add(message);
+            messageLookup.put(message, index);
+        }
+        return index;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= data.length) {
+            return;
+        }
+        int newCapacity = Math.max(capacity, data.length + (data.length >> 1));
+        data = Arrays.copyOf(data, newCapacity);
+        if (codes != null) {
+            codes = Arrays.copyOf(codes, newCapacity);
+            messageIndexes = Arrays.copyOf(messageIndexes, newCapacity);
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int successCount() {
+        return size - failureCount;
+    }
+
+    public int failureCount() {
+        return failureCount;
+    }
+
+    /**
+     * @return true if the batch has no failure item
+     */
+    public boolean isAllSuccess() {
+        return failureCount == 0;
+    }
+
+    public boolean isSuccess(int index) {
+        return getCode(index) == SUCCESS_CODE;
+    }
+
+    public int getCode(int index) {
+        checkIndex(index);
+        return codes == null ? SUCCESS_CODE : codes[index];
+    }
+
+    public String getMessage(int index) {
+        checkIndex(index);
+        if (codes == null) {
+            return "";
+        }
+        int messageIndex = messageIndexes[index];
+        return messageIndex == NULL_MESSAGE ? null : messageTable.get(messageIndex);
+    }
+
+    @SuppressWarnings("unchecked")
+    public T getData(int index) {
+        checkIndex(index);
+        return (T) data[index];
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+    }
+
+    /***
+     * visit every item in order without creating Result objects
+     * @param visitor item callback
+     */
+    @SuppressWarnings("unchecked")
+    public void forEach(Visitor<? super T> visitor) {
+        for (int i = 0; i < size; i++) {
+            if (codes == null) {
+                visitor.visit(i, SUCCESS_CODE, "", (T) data[i]);
+            } else {
+                int messageIndex = messageIndexes[i];
+                String message = messageIndex == NULL_MESSAGE ? null : messageTable.get(messageIndex);
+                visitor.visit(i, codes[i], message, (T) data[i]);
+            }
+        }
+    }
+
+    /***
+     * materialize the batch, failures without data are shared instances
+     * @return one immutable result per item
+     */
+    @SuppressWarnings("unchecked")
+    public List<Result<T>> toList() {
+        List<Result<T>> results = new ArrayList<Result<T>>(size);
+        for (int i = 0; i < size; i++) {
+            T item = (T) data[i];
+            int code = getCode(i);
+            String message = getMessage(i);
+            if (code == SUCCESS_CODE && "".equals(message)) {
+                results.add(ImmutableResult.success(item));
+            } else if (item == null) {
+                results.add(FailureResults.<T>of(code, message));
+            } else {
+                results.add(new ImmutableResult<T>(code, message, item));
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Callback of {@link #forEach(Visitor)}
+     *
+     * @param <T> return data
+     */
+    public interface Visitor<T> {
+        /**
+         * @param index   item index
+         * @param code    error code, 0 for success
+         * @param message error message
+         * @param data    return data
+         */
+        void visit(int index, int code, String message, T data);
+    }
+}
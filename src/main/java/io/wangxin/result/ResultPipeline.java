@@ -0,0 +1,182 @@
+package io.wangxin.result;
+
+import io.wangxin.result.utils.FailureResults;
+
+import java.util.Arrays;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Chain of transformations of a {@link Result}, run in one pass.
+ * <p>
+ * A pipeline only records its steps; {@link #apply(Result)} runs them over the data of a result
+ * without creating a result per step. A failure skips the remaining data steps and is returned,
+ * unless a {@code mapFailure} step replaces it; it is the same failure instance unless it carries
+ * data, which is dropped by {@link FailureResults#retype(Result)}. A success allocates at most
+ * one result at the end, and none if the steps did not change the data. Pipelines are immutable,
+ * so one built once can be kept in a constant and applied from any thread.
+ * Exceptions thrown by a step are not caught.
+ *
+ * @param <I> data of the input result
+ * @param <O> data of the output result
+ * @author Xin Wang
+ */
+public final class ResultPipeline<I, O> implements Function<Result<I>, Result<O>> {
+    private static final byte MAP = 0;
+    private static final byte FLAT_MAP = 1;
+    private static final byte FILTER = 2;
+    private static final byte MAP_FAILURE = 3;
+
+    private static final ResultPipeline EMPTY = new ResultPipeline(new byte[0], new Object[0], new IFailCode[0]);
+
+    private final byte[] kinds;
+    private final Object[] functions;
+    /**
+     * fail codes of the filter steps, null for other steps
+     */
+    private final IFailCode[] failCodes;
+
+    private ResultPipeline(byte[] kinds, Object[] functions, IFailCode[] failCodes) {
+        this.kinds = kinds;
+        this.functions = functions;
+        this.failCodes = failCodes;
+    }
+
+    /***
+     * @param <T> data of the input result
+     * @return pipeline without steps, it returns its input unchanged
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> ResultPipeline<T, T> start() {
+        return (ResultPipeline<T, T>) EMPTY;
+    }
+
+    /***
+     * transform the data of a success
+     * @param mapper data transformation
+     * @param <R> new data
+     * @return pipeline with the step appended
+     */
+    public <R> ResultPipeline<I, R> map(Function<? super O, ? extends R> mapper) {
+        return append(MAP, mapper, null);
+    }
+
+    /***
+     * continue with another result-returning call on the data of a success
+     * @param mapper next call
+     * @param <R> new data
+     * @return pipeline with the step appended
+     */
+    public <R> ResultPipeline<I, R> flatMap(Function<? super O, ? extends Result<R>> mapper) {
+        return append(FLAT_MAP, mapper, null);
+    }
+
+    /***
+     * fail with the shared result of a fail code if the data of a success does not match
+     * @param predicate condition on the data
+     * @param failCode failure if the condition does not hold
+     * @return pipeline with the step appended
+     */
+    public ResultPipeline<I, O> filter(Predicate<? super O> predicate, IFailCode failCode) {
+        if (failCode == null) {
+            throw new IllegalArgumentException("failCode must not be null");
+        }
+        return append(FILTER, predicate, failCode);
+    }
+
+    /***
+     * replace a failure, e.g. translate its code, or recover with a success that
+     * the following steps continue with
+     * @param mapper failure transformation
+     * @return pipeline with the step appended
+     */
+    public ResultPipeline<I, O> mapFailure(Function<? super Result<O>, ? extends Result<O>> mapper) {
+        return append(MAP_FAILURE, mapper, null);
+    }
+
+    /**
+     * @return number of steps
+     */
+    public int size() {
+        return kinds.length;
+    }
+
+    /***
+     * run the steps over a result
+     * @param input input result
+     * @return the input if no step changed it, the failure that stopped the pipeline without its data,
+     * or a success of the transformed data
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public Result<O> apply(Result<I> input) {
+        // last result object, its data is the current value while materialized is true
+        Result<?> current = input;
+        Object value = input.getData();
+        boolean success = input.isSuccess();
+        boolean materialized = true;
+        for (int i = 0; i < kinds.length; i++) {
+            switch (kinds[i]) {
+                case MAP:
+                    if (success) {
+                        value = ((Function<Object, Object>) functions[i]).apply(value);
+                        materialized = false;
+                    }
+                    break;
+                case FLAT_MAP:
+                    if (success) {
+                        current = checkNotNull(((Function<Object, Result<?>>) functions[i]).apply(value));
+                        success = current.isSuccess();
+                        value = current.getData();
+                        materialized = true;
+                    }
+                    break;
+                case FILTER:
+                    if (success && !((Predicate<Object>) functions[i]).test(value)) {
+                        current = FailureResults.of(failCodes[i]);
+                        success = false;
+                        materialized = true;
+                    }
+                    break;
+                case MAP_FAILURE:
+                    if (!success) {
+                        current = checkNotNull(((Function<Result<?>, Result<?>>) functions[i])
+                                .apply(FailureResults.retype(current)));
+                        success = current.isSuccess();
+                        value = current.getData();
+                        materialized = true;
+                    }
+                    break;
+            }
+        }
+        if (!success) {
+            return FailureResults.retype(current);
+        }
+        if (materialized) {
+            return (Result<O>) current;
+        }
+        return ImmutableResult.success((O) value);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <R> ResultPipeline<I, R> append(byte kind, Object function, IFailCode failCode) {
+        if (function == null) {
+            throw new IllegalArgumentException("function must not be null");
+        }
+        int size = kinds.length;
+        byte[] newKinds = Arrays.copyOf(kinds, size + 1);
+        Object[] newFunctions = Arrays.copyOf(functions, size + 1);
+        IFailCode[] newFailCodes = Arrays.copyOf(failCodes, size + 1);
+        newKinds[size] = kind;
+        newFunctions[size] = function;
+        newFailCodes[size] = failCode;
+        return new ResultPipeline(newKinds, newFunctions, newFailCodes);
+    }
+
+    private static Result<?> checkNotNull(Result<?> result) {
+        if (result == null) {
+            throw new NullPointerException("Result must not be null");
+        }
+        return result;
+    }
+}
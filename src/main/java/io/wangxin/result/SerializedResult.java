@@ -0,0 +1,121 @@
+package io.wangxin.result;
+
+import io.wangxin.result.utils.FailureResults;
+
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.io.ObjectStreamException;
+
+/**
+ * Serialized form of {@link Result} and {@link ImmutableResult}, written through {@code writeReplace}.
+ * <p>
+ * Writes one flag byte, then either a reference to the enum fail code the result was created
+ * from or the code and message, then the data. No field names or Result class descriptors
+ * are written. Immutable failures of an enum fail code resolve to the shared cached instance.
+ *
+ * @author Xin Wang
+ */
+final class SerializedResult implements Externalizable {
+    private static final long serialVersionUID = 1L;
+    private static final int IMMUTABLE = 1;
+    private static final int FAIL_CODE = 2;
+    private static final int NULL_MESSAGE = 4;
+    private static final int LONG_MESSAGE = 8;
+    private static final int DATA = 16;
+    /**
+     * longest message that always fits the 65535 byte limit of writeUTF
+     */
+    private static final int MAX_UTF_LENGTH = 65535 / 3;
+
+    private int flags;
+    private int code;
+    private String message;
+    private IFailCode failCode;
+    private Object data;
+
+    /**
+     * For deserialization only
+     */
+    public SerializedResult() {
+    }
+
+    SerializedResult(Result<?> result) {
+        this.code = result.getCode();
+        this.message = result.getMessage();
+        this.data = result.getData();
+        if (result instanceof ImmutableResult) {
+            flags |= IMMUTABLE;
+            IFailCode source = ((ImmutableResult<?>) result).getFailCode();
+            if (source instanceof Enum && source.getValue() == code && source.getDesc().equals(message)) {
+                this.failCode = source;
+                flags |= FAIL_CODE;
+            }
+        }
+        if (message == null) {
+            flags |= NULL_MESSAGE;
+        } else if (message.length() > MAX_UTF_LENGTH) {
+            flags |= LONG_MESSAGE;
+        }
+        if (data != null) {
+            flags |= DATA;
+        }
+    }
+
+    @Override
+    public void writeExternal(ObjectOutput out) throws IOException {
+        out.writeByte(flags);
+        if ((flags & FAIL_CODE) != 0) {
+            out.writeObject(failCode);
+        } else {
+            out.writeInt(code);
+            if ((flags & LONG_MESSAGE) != 0) {
+                out.writeObject(message);
+            } else if ((flags & NULL_MESSAGE) == 0) {
+                out.writeUTF(message);
+            }
+        }
+        if ((flags & DATA) != 0) {
+            out.writeObject(data);
+        }
+    }
+
+    @Override
+    public void readExternal(ObjectInput in) throws IOException, ClassNotFoundException {
+        flags = in.readByte();
+        if ((flags & FAIL_CODE) != 0) {
+            failCode = (IFailCode) in.readObject();
+            code = failCode.getValue();
+            message = failCode.getDesc();
+        } else {
+            code = in.readInt();
+            if ((flags & LONG_MESSAGE) != 0) {
+                message = (String) in.readObject();
+            } else if ((flags & NULL_MESSAGE) == 0) {
+                message = in.readUTF();
+            }
+        }
+        if ((flags & DATA) != 0) {
+            data = in.readObject();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Object readResolve() throws ObjectStreamException {
+        if ((flags & IMMUTABLE) == 0) {
+            Result<Object> result = new Result<Object>(code, message);
+            result.setData(data);
+            return result;
+        }
+        if (data == null) {
+            if (failCode != null) {
+                return FailureResults.of(failCode);
+            }
+            if (code == 0 && "".equals(message)) {
+                return ImmutableResult.success();
+            }
+        }
+        return new ImmutableResult<Object>(code, message, data);
+    }
+}
@@ -0,0 +1,98 @@
+package io.wangxin.result;
+
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.io.ObjectStreamException;
+
+/**
+ * Serialized form of {@link SmartException} and {@link StacklessSmartException}, written through
+ * {@code writeReplace}.
+ * <p>
+ * Writes the enum fail code reference or code and desc, plus the cause, but no stack trace.
+ * The exception read back has an empty stack trace; a stackless exception of an enum fail code
+ * resolves to the preallocated instance.
+ *
+ * @author Xin Wang
+ */
+final class SerializedSmartException implements Externalizable {
+    private static final long serialVersionUID = 1L;
+    private static final int STACKLESS = 1;
+    private static final int FAIL_CODE = 2;
+    private static final int NULL_DESC = 4;
+    private static final int CAUSE = 8;
+
+    private int flags;
+    private int code;
+    private String desc;
+    private IFailCode failCode;
+    private Throwable cause;
+
+    /**
+     * For deserialization only
+     */
+    public SerializedSmartException() {
+    }
+
+    SerializedSmartException(SmartException exception) {
+        this.code = exception.getCode();
+        this.desc = exception.getDesc();
+        this.cause = exception.getCause();
+        if (exception instanceof StacklessSmartException) {
+            flags |= STACKLESS;
+        }
+        if (exception.getFailCode() instanceof Enum) {
+            this.failCode = exception.getFailCode();
+            flags |= FAIL_CODE;
+        }
+        if (desc == null) {
+            flags |= NULL_DESC;
+        }
+        if (cause != null) {
+            flags |= CAUSE;
+        }
+    }
+
+    @Override
+    public void writeExternal(ObjectOutput out) throws IOException {
+        out.writeByte(flags);
+        if ((flags & FAIL_CODE) != 0) {
+            out.writeObject(failCode);
+        } else {
+            out.writeInt(code);
+            if ((flags & NULL_DESC) == 0) {
+                out.writeObject(desc);
+            }
+        }
+        if ((flags & CAUSE) != 0) {
+            out.writeObject(cause);
+        }
+    }
+
+    @Override
+    public void readExternal(ObjectInput in) throws IOException, ClassNotFoundException {
+        flags = in.readByte();
+        if ((flags & FAIL_CODE) != 0) {
+            failCode = (IFailCode) in.readObject();
+        } else {
+            code = in.readInt();
+            if ((flags & NULL_DESC) == 0) {
+                desc = (String) in.readObject();
+            }
+        }
+        if ((flags & CAUSE) != 0) {
+            cause = (Throwable) in.readObject();
+        }
+    }
+
+    private Object readResolve() throws ObjectStreamException {
+        if ((flags & STACKLESS) != 0) {
+            if (cause == null && failCode instanceof Enum) {
+                return StacklessSmartException.of(failCode);
+            }
+            return new StacklessSmartException(failCode, code, desc, cause);
+        }
+        return new SmartException(failCode, code, desc, cause, true);
+    }
+}
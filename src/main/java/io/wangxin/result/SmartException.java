@@ -1,14 +1,26 @@
 package io.wangxin.result;
 
 
+import io.wangxin.result.utils.MessageTemplate;
+
+import java.io.ObjectStreamException;
+
 /**
  * common Exception with  @see IFailCode
  *
  * @author Xin Wang
  */
 public class SmartException extends Exception {
+    /**
+     * computed value of the original class, so exceptions serialized before the compact form still read
+     */
+    private static final long serialVersionUID = 4632164875978223156L;
     private int code;
     private String desc;
+    /**
+     * the fail code this exception was created from, null once code or desc no longer match it
+     */
+    private transient IFailCode failCode;
 
     public SmartException(int code, String desc) {
         this.code = code;
@@ -18,6 +30,57 @@ public class SmartException extends Exception {
     public SmartException(IFailCode failCodeEnum) {
         this.code = failCodeEnum.getValue();
         this.desc = failCodeEnum.getDesc();
+        this.failCode = failCodeEnum;
+    }
+
+    /**
+     * Use when the error message has variables
+     *
+     * @param failCodeEnum error code
+     * @param msgValues    dynamic parameters of error message
+     */
+    public SmartException(IFailCode failCodeEnum, String... msgValues) {
+        this.code = failCodeEnum.getValue();
+        if (msgValues == null || msgValues.length == 0) {
+            this.desc = failCodeEnum.getDesc();
+            this.failCode = failCodeEnum;
+        } else {
+            this.desc = MessageTemplate.of(failCodeEnum).render((Object[]) msgValues);
+        }
+    }
+
+    /**
+     * Constructor for subclasses that skip stack trace capture
+     *
+     * @param failCodeEnum       error code
+     * @param writableStackTrace false to skip {@link #fillInStackTrace()} and suppression
+     */
+    protected SmartException(IFailCode failCodeEnum, boolean writableStackTrace) {
+        super(null, null, writableStackTrace, writableStackTrace);
+        this.code = failCodeEnum.getValue();
+        this.desc = failCodeEnum.getDesc();
+        this.failCode = failCodeEnum;
+    }
+
+    /**
+     * Constructor of deserialized exceptions, which have no stack trace
+     *
+     * @param failCodeEnum      error code, null if code and desc are given
+     * @param code              error code
+     * @param desc              error description
+     * @param cause             cause, may be null
+     * @param enableSuppression whether suppressed exceptions are recorded
+     */
+    SmartException(IFailCode failCodeEnum, int code, String desc, Throwable cause, boolean enableSuppression) {
+        super(null, cause, enableSuppression, false);
+        if (failCodeEnum != null) {
+            this.code = failCodeEnum.getValue();
+            this.desc = failCodeEnum.getDesc();
+            this.failCode = failCodeEnum;
+        } else {
+            this.code = code;
+            this.desc = desc;
+        }
     }
 
     public int getCode() {
@@ -26,6 +89,7 @@ public class SmartException extends Exception {
 
     public void setCode(int code) {
         this.code = code;
+        this.failCode = null;
     }
 
     public String getDesc() {
@@ -34,5 +98,59 @@ public class SmartException extends Exception {
 
     public void setDesc(String desc) {
         this.desc = desc;
+        this.failCode = null;
+    }
+
+    /**
+     * @return the fail code whose value and desc this exception still carries, or null
+     */
+    public IFailCode getFailCode() {
+        return failCode;
+    }
+
+    /**
+     * Serialize {@link SmartException} and {@link StacklessSmartException} without stack trace,
+     * subclasses keep the default form
+     *
+     * @return replacement object
+     * @throws ObjectStreamException never
+     */
+    protected Object writeReplace() throws ObjectStreamException {
+        Class<?> type = getClass();
+        if (type == SmartException.class || type == StacklessSmartException.class) {
+            return new SerializedSmartException(this);
+        }
+        return this;
+    }
+
+    /**
+     * Exceptions are equal when they have the same class, code and desc, the stack trace and
+     * cause are not compared. An exception must not be modified while it is an element of
+     * a hash set or the key of a hash map.
+     *
+     * @param o other object
+     * @return true if o is an exception of the same class with the same values
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || o.getClass() != getClass()) {
+            return false;
+        }
+        SmartException other = (SmartException) o;
+        return getCode() == other.getCode()
+                && (getDesc() == null ? other.getDesc() == null : getDesc().equals(other.getDesc()));
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * getCode() + (getDesc() == null ? 0 : getDesc().hashCode());
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getName() + ": [" + getCode() + "] " + getDesc();
     }
 }
@@ -0,0 +1,65 @@
+package io.wangxin.result;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * {@link SmartException} without stack trace, for business errors used as control flow.
+ * <p>
+ * Creating one costs no more than a plain object, and {@link #of(IFailCode)} returns a
+ * preallocated instance per enum fail code so throwing allocates nothing at all.
+ * Because instances may be shared, code and desc can not be modified. Shared instances are
+ * published through an atomic table, so other threads always see them complete.
+ *
+ * @author Xin Wang
+ */
+public class StacklessSmartException extends SmartException {
+    private static final long serialVersionUID = 1362071016902633216L;
+
+    private static final ClassValue<AtomicReferenceArray<StacklessSmartException>> ENUM_TABLES =
+            new ClassValue<AtomicReferenceArray<StacklessSmartException>>() {
+                @Override
+                protected AtomicReferenceArray<StacklessSmartException> computeValue(Class<?> type) {
+                    return new AtomicReferenceArray<StacklessSmartException>(type.getEnumConstants().length);
+                }
+            };
+
+    public StacklessSmartException(IFailCode failCodeEnum) {
+        super(failCodeEnum, false);
+    }
+
+    StacklessSmartException(IFailCode failCodeEnum, int code, String desc, Throwable cause) {
+        super(failCodeEnum, code, desc, cause, false);
+    }
+
+    /***
+     * preallocated exception of a fail code
+     * @param failCode error code
+     * @return shared exception for enum fail codes, a new one otherwise
+     */
+    public static StacklessSmartException of(IFailCode failCode) {
+        if (!(failCode instanceof Enum)) {
+            return new StacklessSmartException(failCode);
+        }
+        Enum<?> constant = (Enum<?>) failCode;
+        AtomicReferenceArray<StacklessSmartException> table = ENUM_TABLES.get(constant.getDeclaringClass());
+        int ordinal = constant.ordinal();
+        StacklessSmartException exception = table.get(ordinal);
+        if (exception == null) {
+            exception = new StacklessSmartException(failCode);
+            if (!table.compareAndSet(ordinal, null, exception)) {
+                exception = table.get(ordinal);
+            }
+        }
+        return exception;
+    }
+
+    @Override
+    public void setCode(int code) {
+        throw new UnsupportedOperationException("StacklessSmartException can not be modified");
+    }
+
+    @Override
+    public void setDesc(String desc) {
+        throw new UnsupportedOperationException("StacklessSmartException can not be modified");
+    }
+}
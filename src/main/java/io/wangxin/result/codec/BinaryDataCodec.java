@@ -0,0 +1,28 @@
+package io.wangxin.result.codec;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Reads and writes the {@code data} value of a result, plugged into {@link ResultBinaryCodec}
+ *
+ * @param <T> return data
+ * @author Xin Wang
+ */
+public interface BinaryDataCodec<T> {
+
+    /**
+     * Write the data, never called with null
+     *
+     * @param data return data
+     * @param out  target buffer
+     */
+    void encode(T data, ByteBuffer out);
+
+    /**
+     * Read data written by {@link #encode(Object, ByteBuffer)}
+     *
+     * @param in source buffer, positioned at the data
+     * @return return data
+     */
+    T decode(ByteBuffer in);
+}
@@ -0,0 +1,18 @@
+package io.wangxin.result.codec;
+
+/**
+ * Writes the {@code data} value of a result as JSON, plugged into {@link ResultJsonWriter}
+ *
+ * @param <T> return data
+ * @author Xin Wang
+ */
+public interface JsonDataEncoder<T> {
+
+    /**
+     * Write one complete JSON value, data is never null
+     *
+     * @param data return data
+     * @param out  output to append to
+     */
+    void encode(T data, JsonOutput out);
+}
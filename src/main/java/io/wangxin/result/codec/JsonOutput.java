@@ -0,0 +1,244 @@
+package io.wangxin.result.codec;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+
+/**
+ * Growable UTF-8 byte buffer that {@link ResultJsonWriter} and {@link JsonDataEncoder}s write JSON into.
+ * <p>
+ * Instances are reused by the writing thread, so an encoder must not keep a reference to one.
+ *
+ * @author Xin Wang
+ */
+public final class JsonOutput {
+    static final Charset UTF_8 = Charset.forName("UTF-8");
+    private static final byte[] NULL = {'n', 'u', 'l', 'l'};
+    private static final byte[] TRUE = {'t', 'r', 'u', 'e'};
+    private static final byte[] FALSE = {'f', 'a', 'l', 's', 'e'};
+    private static final byte[] HEX = {'0', '1', '2', '3', '4', '5', '6', '7', '8', '9', 'a', 'b', 'c', 'd', 'e', 'f'};
+    private static final byte[] MIN_INT = String.valueOf(Integer.MIN_VALUE).getBytes(UTF_8);
+    private static final byte[] MIN_LONG = String.valueOf(Long.MIN_VALUE).getBytes(UTF_8);
+
+    private byte[] bytes;
+    private int size;
+    /**
+     * chunk buffer for writing to a {@link Writer}, allocated on first use
+     */
+    private char[] chars;
+    /**
+     * true while a {@link ResultJsonWriter} call is encoding into this buffer
+     */
+    boolean inUse;
+
+    JsonOutput(int initialCapacity) {
+        this.bytes = new byte[initialCapacity];
+    }
+
+    /**
+     * @return encoded length
+     */
+    public int size() {
+        return size;
+    }
+
+    byte[] bytes() {
+        return bytes;
+    }
+
+    void reset() {
+        size = 0;
+    }
+
+    void writeTo(OutputStream out) throws IOException {
+        out.write(bytes, 0, size);
+    }
+
+    void writeTo(ByteBuffer out) {
+        out.put(bytes, 0, size);
+    }
+
+    void writeTo(Writer out) throws IOException {
+        for (int i = 0; i < size; i++) {
+            if (bytes[i] < 0) {
+                out.write(new String(bytes, 0, size, UTF_8));
+                return;
+            }
+        }
+        if (chars == null) {
+            chars = new char[Math.min(bytes.length, 1024)];
+        }
+        for (int offset = 0; offset < size; offset += chars.length) {
+            int length = Math.min(chars.length, size - offset);
+            for (int i = 0; i < length; i++) {
+                chars[i] = (char) bytes[offset + i];
+            }
+            out.write(chars, 0, length);
+        }
+    }
+
+    private void ensure(int extra) {
+        if (size + extra > bytes.length) {
+            bytes = Arrays.copyOf(bytes, Math.max(size + extra, bytes.length << 1));
+        }
+    }
+
+    /***
+     * append pre-encoded bytes as they are
+     * @param raw UTF-8 bytes
+     * @return this output
+     */
+    public JsonOutput writeRaw(byte[] raw) {
+        ensure(raw.length);
+        System.arraycopy(raw, 0, bytes, size, raw.length);
+        size += raw.length;
+        return this;
+    }
+
+    /***
+     * append one ASCII character, e.g. a bracket or comma
+     * @param c ASCII character
+     * @return this output
+     */
+    public JsonOutput writeAscii(char c) {
+        ensure(1);
+        bytes[size++] = (byte) c;
+        return this;
+    }
+
+    public JsonOutput writeNull() {
+        return writeRaw(NULL);
+    }
+
+    public JsonOutput writeBoolean(boolean value) {
+        return writeRaw(value ? TRUE : FALSE);
+    }
+
+    public JsonOutput writeInt(int value) {
+        if (value == Integer.MIN_VALUE) {
+            return writeRaw(MIN_INT);
+        }
+        return writeLong(value);
+    }
+
+    public JsonOutput writeLong(long value) {
+        if (value == Long.MIN_VALUE) {
+            return writeRaw(MIN_LONG);
+        }
+        ensure(20);
+        if (value < 0) {
+            bytes[size++] = '-';
+            value = -value;
+        }
+        int start = size;
+        do {
+            bytes[size++] = (byte) ('0' + (int) (value % 10));
+            value /= 10;
+        } while (value != 0);
+        for (int i = start, j = size - 1; i < j; i++, j--) {
+            byte tmp = bytes[i];
+            bytes[i] = bytes[j];
+            bytes[j] = tmp;
+        }
+        return this;
+    }
+
+    /***
+     * append a double, NaN and infinities are written as null
+     * @param value number
+     * @return this output
+     */
+    public JsonOutput writeDouble(double value) {
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            return writeNull();
+        }
+        String text = Double.toString(value);
+        ensure(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            bytes[size++] = (byte) text.charAt(i);
+        }
+        return this;
+    }
+
+    /***
+     * append a quoted and escaped JSON string, null is written as null
+     * @param value string
+     * @return this output
+     */
+    public JsonOutput writeString(String value) {
+        if (value == null) {
+            return writeNull();
+        }
+        int length = value.length();
+        ensure(length + 2);
+        bytes[size++] = '"';
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c >= 0x20 && c < 0x80 && c != '"' && c != '\\') {
+                ensure(1);
+                bytes[size++] = (byte) c;
+            } else if (c < 0x80) {
+                writeEscaped(c);
+            } else if (c < 0x800) {
+                ensure(2);
+                bytes[size++] = (byte) (0xc0 | (c >> 6));
+                bytes[size++] = (byte) (0x80 | (c & 0x3f));
+            } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                ensure(4);
+                bytes[size++] = (byte) (0xf0 | (codePoint >> 18));
+                bytes[size++] = (byte) (0x80 | ((codePoint >> 12) & 0x3f));
+                bytes[size++] = (byte) (0x80 | ((codePoint >> 6) & 0x3f));
+                bytes[size++] = (byte) (0x80 | (codePoint & 0x3f));
+            } else if (Character.isSurrogate(c)) {
+                ensure(1);
+                bytes[size++] = '?';
+            } else {
+                ensure(3);
+                bytes[size++] = (byte) (0xe0 | (c >> 12));
+                bytes[size++] = (byte) (0x80 | ((c >> 6) & 0x3f));
+                bytes[size++] = (byte) (0x80 | (c & 0x3f));
+            }
+        }
+        ensure(1);
+        bytes[size++] = '"';
+        return this;
+    }
+
+    private void writeEscaped(char c) {
+        ensure(6);
+        bytes[size++] = '\\';
+        switch (c) {
+            case '"':
+                bytes[size++] = '"';
+                break;
+            case '\\':
+                bytes[size++] = '\\';
+                break;
+            case '\n':
+                bytes[size++] = 'n';
+                break;
+            case '\r':
+                bytes[size++] = 'r';
+                break;
+            case '\t':
+                bytes[size++] = 't';
+                break;
+            case '\b':
+                bytes[size++] = 'b';
+                break;
+            case '\f':
+                bytes[size++] = 'f';
+                break;
+            default:
+                bytes[size++] = 'u';
+                bytes[size++] = '0';
+                bytes[size++] = '0';
+                bytes[size++] = HEX[c >> 4];
+                bytes[size++] = HEX[c & 0xf];
+        }
+    }
+}
@@ -0,0 +1,216 @@
+package io.wangxin.result.codec;
+
+import io.wangxin.result.FailCodeRegistry;
+import io.wangxin.result.IFailCode;
+import io.wangxin.result.ImmutableResult;
+import io.wangxin.result.Result;
+import io.wangxin.result.utils.FailureResults;
+
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+
+/**
+ * Compact binary codec of {@link Result} for service-to-service calls.
+ * <p>
+ * Frame layout: one tag byte, the code as a zigzag varint, the message, then the data
+ * written by a pluggable {@link BinaryDataCodec}. A message that equals the description of a
+ * registered {@link IFailCode} is not sent at all, the code identifies it and the receiver
+ * restores it from its own {@link FailCodeRegistry}, so both sides must register the same fail codes.
+ * A success without data takes 2 bytes. Encoding and decoding work directly on the
+ * {@link ByteBuffer}, decoded failures of registered codes are the shared cached results.
+ * <p>
+ * Register fail codes at startup; encoding and decoding are thread-safe.
+ *
+ * @param <T> return data
+ * @author Xin Wang
+ */
+public class ResultBinaryCodec<T> {
+    private static final int MESSAGE_EMPTY = 0;
+    private static final int MESSAGE_NULL = 1;
+    private static final int MESSAGE_REGISTERED = 2;
+    private static final int MESSAGE_INLINE = 3;
+    private static final int MESSAGE_MASK = 3;
+    private static final int FLAG_DATA = 4;
+
+    /**
+     * data codec of String data
+     */
+    public static final BinaryDataCodec<String> STRING_DATA = new BinaryDataCodec<String>() {
+        @Override
+        public void encode(String data, ByteBuffer out) {
+            WireFormat.writeString(out, data);
+        }
+
+        @Override
+        public String decode(ByteBuffer in) {
+            return WireFormat.readString(in);
+        }
+    };
+
+    /**
+     * data codec of Long data
+     */
+    public static final BinaryDataCodec<Long> LONG_DATA = new BinaryDataCodec<Long>() {
+        @Override
+        public void encode(Long data, ByteBuffer out) {
+            WireFormat.writeVarLong(out, data);
+        }
+
+        @Override
+        public Long decode(ByteBuffer in) {
+            return WireFormat.readVarLong(in);
+        }
+    };
+
+    private final BinaryDataCodec<T> dataCodec;
+    private final FailCodeRegistry registry;
+
+    /**
+     * @param dataCodec codec of the data, null if results never carry data
+     */
+    public ResultBinaryCodec(BinaryDataCodec<T> dataCodec) {
+        this(dataCodec, new FailCodeRegistry());
+    }
+
+    /**
+     * @param dataCodec codec of the data, null if results never carry data
+     * @param registry  fail codes whose messages are sent by code only
+     */
+    public ResultBinaryCodec(BinaryDataCodec<T> dataCodec, FailCodeRegistry registry) {
+        this.dataCodec = dataCodec;
+        this.registry = registry;
+    }
+
+    /***
+     * register fail codes whose messages are sent by code only
+     * @param failCodes error codes
+     * @return this codec
+     * @throws IllegalArgumentException if a code is already registered by another fail code
+     */
+    public ResultBinaryCodec<T> register(IFailCode... failCodes) {
+        registry.register(failCodes);
+        return this;
+    }
+
+    /***
+     * register every constant of a fail code enum
+     * @param type enum class
+     * @return this codec
+     */
+    public <E extends Enum<E> & IFailCode> ResultBinaryCodec<T> register(Class<E> type) {
+        registry.register(type);
+        return this;
+    }
+
+    /***
+     * write a result at the buffer position
+     * @param result result to write
+     * @param out target buffer
+     * @throws BufferOverflowException if the buffer is too small, the position is restored then
+     */
+    public void encode(Result<? extends T> result, ByteBuffer out) {
+        int start = out.position();
+        try {
+            int code = result.getCode();
+            String message = result.getMessage();
+            T data = result.getData();
+            int tag;
+            if (message == null) {
+                tag = MESSAGE_NULL;
+            } else if (message.isEmpty()) {
+                tag = MESSAGE_EMPTY;
+            } else if (isRegistered(code, message)) {
+                tag = MESSAGE_REGISTERED;
+            } else {
+                tag = MESSAGE_INLINE;
+            }
+            if (data != null) {
+                if (dataCodec == null) {
+                    throw new IllegalStateException("No BinaryDataCodec for " + data.getClass().getName());
+                }
+                tag |= FLAG_DATA;
+            }
+            out.put((byte) tag);
+            WireFormat.writeVarInt(out, code);
+            if (tag == MESSAGE_INLINE || tag == (MESSAGE_INLINE | FLAG_DATA)) {
+                WireFormat.writeString(out, message);
+            }
+            if (data != null) {
+                dataCodec.encode(data, out);
+            }
+        } catch (BufferOverflowException e) {
+            out.position(start);
+            throw e;
+        }
+    }
+
+    /***
+     * read one result at the buffer position
+     * @param in source buffer
+     * @return immutable status and data
+     * @throws IllegalArgumentException if the frame is truncated, malformed or uses an unregistered
+     * fail code, the position is restored then
+     */
+    public ImmutableResult<T> decode(ByteBuffer in) {
+        int start = in.position();
+        try {
+            return decodeFrame(in, start);
+        } catch (BufferUnderflowException e) {
+            in.position(start);
+            throw new IllegalArgumentException("Truncated frame at offset " + start);
+        } catch (IllegalArgumentException e) {
+            in.position(start);
+            throw e;
+        }
+    }
+
+    private ImmutableResult<T> decodeFrame(ByteBuffer in, int start) {
+        if (in.remaining() < 2) {
+            throw new IllegalArgumentException("Truncated frame at offset " + start + ", "
+                    + in.remaining() + " bytes remaining");
+        }
+        int tag = in.get();
+        if ((tag & ~(MESSAGE_MASK | FLAG_DATA)) != 0) {
+            throw new IllegalArgumentException("Invalid tag " + tag + " at offset " + start);
+        }
+        int code = WireFormat.readVarInt(in);
+        IFailCode failCode = null;
+        String message;
+        switch (tag & MESSAGE_MASK) {
+            case MESSAGE_EMPTY:
+                message = "";
+                break;
+            case MESSAGE_NULL:
+                message = null;
+                break;
+            case MESSAGE_REGISTERED:
+                failCode = registry.get(code);
+                if (failCode == null) {
+                    throw new IllegalArgumentException("Unregistered fail code " + code + " at offset " + start);
+                }
+                message = failCode.getDesc();
+                break;
+            default:
+                message = WireFormat.readString(in);
+        }
+        if ((tag & FLAG_DATA) == 0) {
+            if (failCode != null) {
+                return FailureResults.of(failCode);
+            }
+            if (code == 0 && message != null && message.isEmpty()) {
+                return ImmutableResult.success();
+            }
+            return new ImmutableResult<T>(code, message);
+        }
+        if (dataCodec == null) {
+            throw new IllegalArgumentException("Frame at offset " + start + " carries data but no BinaryDataCodec is set");
+        }
+        return new ImmutableResult<T>(code, message, dataCodec.decode(in));
+    }
+
+    private boolean isRegistered(int code, String message) {
+        IFailCode failCode = registry.get(code);
+        return failCode != null && message.equals(failCode.getDesc());
+    }
+}
@@ -0,0 +1,254 @@
+package io.wangxin.result.codec;
+
+import io.wangxin.result.IFailCode;
+import io.wangxin.result.ImmutableResult;
+import io.wangxin.result.Result;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Streaming JSON encoder for {@link Result} that does not use reflection.
+ * <p>
+ * Writes {@code {"code":..,"message":..,"data":..}}. Everything before the data value is
+ * pre-encoded once: as a constant for success results, and per fail code for the shared
+ * {@link ImmutableResult} failures returned by {@code ResultUtils.wrapImmutableFailure(IFailCode)}, whose
+ * message is the unchanged desc of their fail code. Failures with other messages are encoded on
+ * every call, so per-call messages never churn the table.
+ * The data value is written by a pluggable {@link JsonDataEncoder}. Encoding happens in a
+ * per-thread buffer, so writing a response allocates nothing beyond what the encoder does.
+ * <p>
+ * Instances are immutable and thread-safe.
+ *
+ * @param <T> return data
+ * @author Xin Wang
+ */
+public class ResultJsonWriter<T> {
+    /**
+     * slots of the pre-encoded failure table, must be a power of two
+     */
+    private static final int HEAD_SLOTS = 512;
+    /**
+     * buffers larger than this are not kept by the writing thread
+     */
+    private static final int MAX_BUFFER_SIZE = 8192;
+
+    private static final byte[] CODE = "{\"code\":".getBytes(JsonOutput.UTF_8);
+    private static final byte[] MESSAGE = ",\"message\":".getBytes(JsonOutput.UTF_8);
+    private static final byte[] DATA = ",\"data\":".getBytes(JsonOutput.UTF_8);
+    private static final byte[] SUCCESS_HEAD = "{\"code\":0,\"message\":\"\",\"data\":".getBytes(JsonOutput.UTF_8);
+
+    private static final Head[] HEAD_TABLE = new Head[HEAD_SLOTS];
+
+    private static final ThreadLocal<JsonOutput> BUFFER = new ThreadLocal<JsonOutput>() {
+        @Override
+        protected JsonOutput initialValue() {
+            return new JsonOutput(256);
+        }
+    };
+
+    /**
+     * encoder for null, String, Character, Boolean and Number data
+     */
+    private static final JsonDataEncoder<Object> SCALAR_ENCODER = new JsonDataEncoder<Object>() {
+        @Override
+        public void encode(Object data, JsonOutput out) {
+            if (data instanceof String) {
+                out.writeString((String) data);
+            } else if (data instanceof Integer || data instanceof Long || data instanceof Short || data instanceof Byte) {
+                out.writeLong(((Number) data).longValue());
+            } else if (data instanceof Double || data instanceof Float) {
+                out.writeDouble(((Number) data).doubleValue());
+            } else if (data instanceof Boolean) {
+                out.writeBoolean((Boolean) data);
+            } else if (data instanceof Number || data instanceof Character) {
+                out.writeString(data.toString());
+            } else {
+                throw new IllegalArgumentException("No JsonDataEncoder for " + data.getClass().getName());
+            }
+        }
+    };
+
+    private final JsonDataEncoder<? super T> dataEncoder;
+
+    public ResultJsonWriter(JsonDataEncoder<? super T> dataEncoder) {
+        this.dataEncoder = dataEncoder;
+    }
+
+    /***
+     * writer for results whose data is null, a String, Character, Boolean or Number
+     * @param <T> return data
+     * @return writer
+     */
+    public static <T> ResultJsonWriter<T> scalar() {
+        return new ResultJsonWriter<T>(SCALAR_ENCODER);
+    }
+
+    /***
+     * encoder used by {@link #scalar()}, for composing custom encoders
+     * @return encoder
+     */
+    public static JsonDataEncoder<Object> scalarEncoder() {
+        return SCALAR_ENCODER;
+    }
+
+    public void write(Result<? extends T> result, OutputStream out) throws IOException {
+        JsonOutput buffer = acquire();
+        try {
+            encode(result, buffer);
+            buffer.writeTo(out);
+        } finally {
+            release(buffer);
+        }
+    }
+
+    public void write(Result<? extends T> result, Writer out) throws IOException {
+        JsonOutput buffer = acquire();
+        try {
+            encode(result, buffer);
+            buffer.writeTo(out);
+        } finally {
+            release(buffer);
+        }
+    }
+
+    /***
+     * write into a buffer
+     * @param result result to write
+     * @param out target buffer
+     * @throws java.nio.BufferOverflowException if the buffer is too small, nothing is written then
+     */
+    public void write(Result<? extends T> result, ByteBuffer out) {
+        JsonOutput buffer = acquire();
+        try {
+            encode(result, buffer);
+            buffer.writeTo(out);
+        } finally {
+            release(buffer);
+        }
+    }
+
+    public byte[] toBytes(Result<? extends T> result) {
+        JsonOutput buffer = acquire();
+        try {
+            encode(result, buffer);
+            return Arrays.copyOf(buffer.bytes(), buffer.size());
+        } finally {
+            release(buffer);
+        }
+    }
+
+    public String toJson(Result<? extends T> result) {
+        JsonOutput buffer = acquire();
+        try {
+            encode(result, buffer);
+            return new String(buffer.bytes(), 0, buffer.size(), JsonOutput.UTF_8);
+        } finally {
+            release(buffer);
+        }
+    }
+
+    private void encode(Result<? extends T> result, JsonOutput out) {
+        writeHead(result, out);
+        T data = result.getData();
+        if (data == null) {
+            out.writeNull();
+        } else {
+            dataEncoder.encode(data, out);
+        }
+        out.writeAscii('}');
+    }
+
+    /**
+     * @return the thread's buffer, or a fresh one when an encoder writes a nested result
+     */
+    private static JsonOutput acquire() {
+        JsonOutput buffer = BUFFER.get();
+        if (buffer.inUse) {
+            buffer = new JsonOutput(256);
+        }
+        buffer.reset();
+        buffer.inUse = true;
+        return buffer;
+    }
+
+    private static void release(JsonOutput buffer) {
+        buffer.inUse = false;
+        if (buffer.bytes().length > MAX_BUFFER_SIZE && BUFFER.get() == buffer) {
+            BUFFER.remove();
+        }
+    }
+
+    private static void writeHead(Result<?> result, JsonOutput out) {
+        int code = result.getCode();
+        String message = result.getMessage();
+        if (code == 0 && "".equals(message)) {
+            out.writeRaw(SUCCESS_HEAD);
+            return;
+        }
+        if (!isFailCodeResult(result, message)) {
+            out.writeRaw(CODE).writeInt(code).writeRaw(MESSAGE).writeString(message).writeRaw(DATA);
+            return;
+        }
+        int hash = 31 * code + (message == null ? 0 : message.hashCode());
+        int slot = (hash ^ (hash >>> 16)) & (HEAD_SLOTS - 1);
+        Head head = HEAD_TABLE[slot];
+        if (head == null || !head.matches(code, message)) {
+            head = new Head(code, message);
+            HEAD_TABLE[slot] = head;
+        }
+        out.writeRaw(head.bytes);
+    }
+
+    /**
+     * @return slots of the pre-encoded failure table in use
+     */
+    static int cachedHeadCount() {
+        int count = 0;
+        for (Head head : HEAD_TABLE) {
+            if (head != null) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /***
+     * whether the head of a result is the same on every call
+     * @param result result being written
+     * @param message its message
+     * @return true for results of a fail code carrying the desc of the fail code itself
+     */
+    private static boolean isFailCodeResult(Result<?> result, String message) {
+        if (!(result instanceof ImmutableResult)) {
+            return false;
+        }
+        IFailCode failCode = ((ImmutableResult<?>) result).getFailCode();
+        // the same string instance, so rendered and per-call messages never match
+        return failCode != null && message != null && message == failCode.getDesc();
+    }
+
+    /**
+     * Pre-encoded {@code {"code":..,"message":..,"data":} of a failure
+     */
+    private static final class Head {
+        private final int code;
+        private final String message;
+        private final byte[] bytes;
+
+        Head(int code, String message) {
+            this.code = code;
+            this.message = message;
+            JsonOutput out = new JsonOutput(64);
+            out.writeRaw(CODE).writeInt(code).writeRaw(MESSAGE).writeString(message).writeRaw(DATA);
+            this.bytes = Arrays.copyOf(out.bytes(), out.size());
+        }
+
+        boolean matches(int code, String message) {
+            return this.code == code && (this.message == message || (this.message != null && this.message.equals(message)));
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package io.wangxin.result.codec;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+
+/**
+ * Primitive encodings shared by {@link ResultBinaryCodec} and {@link BinaryDataCodec}s:
+ * zigzag varints and length-prefixed UTF-8 strings, read and written directly on a {@link ByteBuffer}
+ *
+ * @author Xin Wang
+ */
+public final class WireFormat {
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private WireFormat() {
+    }
+
+    /***
+     * write a signed int as a zigzag varint, 1 byte for -64..63
+     * @param out target buffer
+     * @param value number
+     */
+    public static void writeVarInt(ByteBuffer out, int value) {
+        int bits = (value << 1) ^ (value >> 31);
+        while ((bits & ~0x7f) != 0) {
+            out.put((byte) ((bits & 0x7f) | 0x80));
+            bits >>>= 7;
+        }
+        out.put((byte) bits);
+    }
+
+    public static int readVarInt(ByteBuffer in) {
+        int bits = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            byte b = in.get();
+            bits |= (b & 0x7f) << shift;
+            if (b >= 0) {
+                return (bits >>> 1) ^ -(bits & 1);
+            }
+        }
+        throw new IllegalArgumentException("Malformed varint");
+    }
+
+    /***
+     * write a signed long as a zigzag varint
+     * @param out target buffer
+     * @param value number
+     */
+    public static void writeVarLong(ByteBuffer out, long value) {
+        long bits = (value << 1) ^ (value >> 63);
+        while ((bits & ~0x7fL) != 0) {
+            out.put((byte) ((bits & 0x7f) | 0x80));
+            bits >>>= 7;
+        }
+        out.put((byte) bits);
+    }
+
+    public static long readVarLong(ByteBuffer in) {
+        long bits = 0;
+        for (int shift = 0; shift < 70; shift += 7) {
+            byte b = in.get();
+            bits |= (long) (b & 0x7f) << shift;
+            if (b >= 0) {
+                return (bits >>> 1) ^ -(bits & 1);
+            }
+        }
+        throw new IllegalArgumentException("Malformed varint");
+    }
+
+    /***
+     * write a string as varint byte length and UTF-8 bytes, encoded straight into the buffer.
+     * Use {@link #writeVarInt(ByteBuffer, int)} with -1 before it when null must be written
+     * @param out target buffer
+     * @param value string, not null
+     */
+    public static void writeString(ByteBuffer out, String value) {
+        int length = value.length();
+        int utf8Length = 0;
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                utf8Length++;
+            } else if (c < 0x800) {
+                utf8Length += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1))) {
+                utf8Length += 4;
+                i++;
+            } else if (Character.isSurrogate(c)) {
+                utf8Length++;
+            } else {
+                utf8Length += 3;
+            }
+        }
+        writeVarInt(out, utf8Length);
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                out.put((byte) c);
+            } else if (c < 0x800) {
+                out.put((byte) (0xc0 | (c >> 6)));
+                out.put((byte) (0x80 | (c & 0x3f)));
+            } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                out.put((byte) (0xf0 | (codePoint >> 18)));
+                out.put((byte) (0x80 | ((codePoint >> 12) & 0x3f)));
+                out.put((byte) (0x80 | ((codePoint >> 6) & 0x3f)));
+                out.put((byte) (0x80 | (codePoint & 0x3f)));
+            } else if (Character.isSurrogate(c)) {
+                out.put((byte) '?');
+            } else {
+                out.put((byte) (0xe0 | (c >> 12)));
+                out.put((byte) (0x80 | ((c >> 6) & 0x3f)));
+                out.put((byte) (0x80 | (c & 0x3f)));
+            }
+        }
+    }
+
+    /***
+     * read a string written by {@link #writeString(ByteBuffer, String)}.
+     * Heap buffers are decoded in place, direct buffers through one temporary array
+     * @param in source buffer
+     * @return string
+     */
+    public static String readString(ByteBuffer in) {
+        int length = readVarInt(in);
+        if (length < 0 || length > in.remaining()) {
+            throw new IllegalArgumentException("Invalid string length " + length);
+        }
+        String value;
+        if (in.hasArray()) {
+            value = new String(in.array(), in.arrayOffset() + in.position(), length, UTF_8);
+            in.position(in.position() + length);
+        } else {
+            byte[] bytes = new byte[length];
+            in.get(bytes);
+            value = new String(bytes, UTF_8);
+        }
+        return value;
+    }
+}
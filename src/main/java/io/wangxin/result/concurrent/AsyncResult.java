@@ -0,0 +1,307 @@
+package io.wangxin.result.concurrent;
+
+import io.wangxin.result.ImmutableResult;
+import io.wangxin.result.Result;
+import io.wangxin.result.utils.FailureResults;
+import io.wangxin.result.utils.ResultUtils;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * A {@link Result} that completes later, backed by a {@link CompletableFuture}.
+ * <p>
+ * The underlying future always completes normally with a result: exceptions thrown by the source
+ * future or by a callback are converted with {@link ResultUtils#wrapImmutableThrowable(Throwable)}, so
+ * business exceptions keep their code and other exceptions are logged once and become the system
+ * exception result. Failures short-circuit the combinators without exceptions, and are passed on
+ * as {@link FailureResults#retype(Result)} types them: the same instance unless it carries data.
+ * Callbacks run on the thread that completes the previous stage; nothing
+ * here blocks except {@link #join()}.
+ *
+ * @param <T> return data
+ * @author Xin Wang
+ */
+public final class AsyncResult<T> {
+    private final CompletableFuture<Result<T>> future;
+
+    private AsyncResult(CompletableFuture<Result<T>> future) {
+        this.future = future;
+    }
+
+    /***
+     * adapt a future, exceptional completion and null results become failures
+     * @param future source future
+     * @param <T> return data
+     * @return async result
+     */
+    public static <T> AsyncResult<T> of(CompletableFuture<? extends Result<T>> future) {
+        return new AsyncResult<T>(future.handle(new BiFunction<Result<T>, Throwable, Result<T>>() {
+            @Override
+            public Result<T> apply(Result<T> result, Throwable e) {
+                return e == null ? checkNotNull(result) : AsyncResult.<T>fromThrowable(e);
+            }
+        }));
+    }
+
+    /***
+     * @param result completed result
+     * @param <T> return data
+     * @return async result that is already done
+     */
+    public static <T> AsyncResult<T> completed(Result<T> result) {
+        return new AsyncResult<T>(CompletableFuture.completedFuture(checkNotNull(result)));
+    }
+
+    /***
+     * run a call on an executor
+     * @param supplier call returning a result
+     * @param executor executor to run it
+     * @param <T> return data
+     * @return async result of the call
+     */
+    public static <T> AsyncResult<T> supplyAsync(final Supplier<? extends Result<T>> supplier, Executor executor) {
+        return new AsyncResult<T>(CompletableFuture.supplyAsync(new Supplier<Result<T>>() {
+            @Override
+            public Result<T> get() {
+                try {
+                    return checkNotNull(supplier.get());
+                } catch (RuntimeException e) {
+                    return fromThrowable(e);
+                }
+            }
+        }, executor));
+    }
+
+    /***
+     * transform the data of a success, failures are passed on unchanged
+     * @param mapper data transformation
+     * @param <U> new return data
+     * @return async result of the transformed data
+     */
+    public <U> AsyncResult<U> map(final Function<? super T, ? extends U> mapper) {
+        return new AsyncResult<U>(future.thenApply(new Function<Result<T>, Result<U>>() {
+            @Override
+            public Result<U> apply(Result<T> result) {
+                if (!result.isSuccess()) {
+                    return FailureResults.retype(result);
+                }
+                try {
+                    return ImmutableResult.<U>success(mapper.apply(result.getData()));
+                } catch (RuntimeException e) {
+                    return fromThrowable(e);
+                }
+            }
+        }));
+    }
+
+    /***
+     * chain another asynchronous call on the data of a success, failures are passed on unchanged
+     * @param mapper next call
+     * @param <U> new return data
+     * @return async result of the next call
+     */
+    public <U> AsyncResult<U> flatMap(final Function<? super T, AsyncResult<U>> mapper) {
+        return new AsyncResult<U>(future.thenCompose(new Function<Result<T>, CompletableFuture<Result<U>>>() {
+            @Override
+            public CompletableFuture<Result<U>> apply(Result<T> result) {
+                if (!result.isSuccess()) {
+                    return CompletableFuture.completedFuture(FailureResults.<U>retype(result));
+                }
+                try {
+                    return mapper.apply(result.getData()).future;
+                } catch (RuntimeException e) {
+                    return CompletableFuture.completedFuture(AsyncResult.<U>fromThrowable(e));
+                }
+            }
+        }));
+    }
+
+    /***
+     * replace a failure, successes are passed on unchanged
+     * @param fallback result for a failure
+     * @return async result
+     */
+    public AsyncResult<T> recover(final Function<? super Result<T>, ? extends Result<T>> fallback) {
+        return new AsyncResult<T>(future.thenApply(new Function<Result<T>, Result<T>>() {
+            @Override
+            public Result<T> apply(Result<T> result) {
+                if (result.isSuccess()) {
+                    return result;
+                }
+                try {
+                    return checkNotNull(fallback.apply(result));
+                } catch (RuntimeException e) {
+                    return fromThrowable(e);
+                }
+            }
+        }));
+    }
+
+    /***
+     * combine with another async result. Completes with the first failure as soon as either fails,
+     * without waiting for the other one
+     * @param other other async result
+     * @param combiner combines the data of both successes
+     * @param <U> data of the other result
+     * @param <R> combined data
+     * @return async result of the combined data
+     */
+    public <U, R> AsyncResult<R> zip(AsyncResult<U> other, final BiFunction<? super T, ? super U, ? extends R> combiner) {
+        final CompletableFuture<Result<R>> zipped = new CompletableFuture<Result<R>>();
+        this.future.whenComplete(shortCircuit(zipped));
+        other.future.whenComplete(shortCircuit(zipped));
+        this.future.thenAcceptBoth(other.future, new BiConsumer<Result<T>, Result<U>>() {
+            @Override
+            public void accept(Result<T> first, Result<U> second) {
+                if (first.isSuccess() && second.isSuccess()) {
+                    Result<R> combined;
+                    try {
+                        combined = ImmutableResult.<R>success(combiner.apply(first.getData(), second.getData()));
+                    } catch (RuntimeException e) {
+                        combined = fromThrowable(e);
+                    }
+                    zipped.complete(combined);
+                }
+            }
+        });
+        return new AsyncResult<R>(zipped);
+    }
+
+    /***
+     * wait for all successes, or complete with the first failure as soon as one fails
+     * @param results async results
+     * @param <T> return data
+     * @return async result of the data in the order of results
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> AsyncResult<List<T>> allOf(List<? extends AsyncResult<? extends T>> results) {
+        final int size = results.size();
+        if (size == 0) {
+            return completed(ImmutableResult.success(Collections.<T>emptyList()));
+        }
+        final CompletableFuture<Result<List<T>>> all = new CompletableFuture<Result<List<T>>>();
+        final Object[] values = new Object[size];
+        final AtomicInteger remaining = new AtomicInteger(size);
+        for (int i = 0; i < size; i++) {
+            final int index = i;
+            AsyncResult<? extends T> result = results.get(i);
+            result.future.whenComplete(new BiConsumer<Result<? extends T>, Throwable>() {
+                @Override
+                public void accept(Result<? extends T> result, Throwable e) {
+                    if (e != null) {
+                        all.completeExceptionally(e);
+                    } else if (!result.isSuccess()) {
+                        all.complete(FailureResults.<List<T>>retype(result));
+                    } else {
+                        values[index] = result.getData();
+                        // the decrement publishes the value to the thread that completes the list
+                        if (remaining.decrementAndGet() == 0) {
+                            all.complete(ImmutableResult.success((List<T>) (List<?>) Arrays.asList(values)));
+                        }
+                    }
+                }
+            });
+        }
+        return new AsyncResult<List<T>>(all);
+    }
+
+    /***
+     * complete with the first success, or with the first failure once all failed
+     * @param results async results
+     * @param <T> return data
+     * @return async result of the first success
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> AsyncResult<T> anyOf(List<? extends AsyncResult<? extends T>> results) {
+        final int size = results.size();
+        if (size == 0) {
+            throw new IllegalArgumentException("results must not be empty");
+        }
+        final CompletableFuture<Result<T>> any = new CompletableFuture<Result<T>>();
+        final AtomicReference<Result<T>> firstFailure = new AtomicReference<Result<T>>();
+        final AtomicInteger remaining = new AtomicInteger(size);
+        for (AsyncResult<? extends T> result : results) {
+            result.future.whenComplete(new BiConsumer<Result<? extends T>, Throwable>() {
+                @Override
+                public void accept(Result<? extends T> result, Throwable e) {
+                    if (e != null) {
+                        any.completeExceptionally(e);
+                    } else if (result.isSuccess()) {
+                        any.complete((Result<T>) result);
+                    } else {
+                        firstFailure.compareAndSet(null, FailureResults.<T>retype(result));
+                        if (remaining.decrementAndGet() == 0) {
+                            any.complete(firstFailure.get());
+                        }
+                    }
+                }
+            });
+        }
+        return new AsyncResult<T>(any);
+    }
+
+    /***
+     * wait for the result, blocks the calling thread
+     * @return result
+     */
+    public Result<T> join() {
+        return future.join();
+    }
+
+    /***
+     * @param valueIfAbsent returned if not done yet
+     * @return result if done, otherwise valueIfAbsent
+     */
+    public Result<T> getNow(Result<T> valueIfAbsent) {
+        return future.getNow(valueIfAbsent);
+    }
+
+    /**
+     * @return true once the result is available
+     */
+    public boolean isDone() {
+        return future.isDone();
+    }
+
+    /***
+     * @return a future of the result, completing it does not affect this async result
+     */
+    public CompletableFuture<Result<T>> toCompletableFuture() {
+        return future.thenApply(Function.<Result<T>>identity());
+    }
+
+    private static <T, R> BiConsumer<Result<T>, Throwable> shortCircuit(final CompletableFuture<Result<R>> target) {
+        return new BiConsumer<Result<T>, Throwable>() {
+            @Override
+            public void accept(Result<T> result, Throwable e) {
+                if (e != null) {
+                    target.completeExceptionally(e);
+                } else if (!result.isSuccess()) {
+                    target.complete(FailureResults.<R>retype(result));
+                }
+            }
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> Result<T> fromThrowable(Throwable e) {
+        return ResultUtils.wrapImmutableThrowable(e);
+    }
+
+    private static <T> Result<T> checkNotNull(Result<T> result) {
+        if (result == null) {
+            return fromThrowable(new NullPointerException("Result must not be null"));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,228 @@
+package io.wangxin.result.concurrent;
+
+import io.wangxin.result.ImmutableResult;
+import io.wangxin.result.Result;
+import io.wangxin.result.utils.FailureResults;
+import io.wangxin.result.utils.ResultUtils;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs calls concurrently and fails as soon as one of them fails.
+ * <p>
+ * The first failure result completes the fan-out and cancels the other calls, interrupting the
+ * ones that are running, so no thread keeps working for a result that is already known. Exceptions
+ * are converted with {@link ResultUtils#wrapImmutableThrowable(Throwable)}; calls that end after
+ * the fan-out completed are ignored, including the exceptions caused by their cancellation.
+ * <p>
+ * Calls run on virtual threads when the JVM has them (Java 21 and later, looked up by reflection
+ * so this class still runs on Java 8), otherwise on an executor supplied by the caller.
+ *
+ * @author Xin Wang
+ */
+public final class FanOut {
+
+    private FanOut() {
+    }
+
+    /***
+     * @return true if {@link #invokeAll(Collection)} can run calls on virtual threads
+     */
+    public static boolean isVirtualThreadsSupported() {
+        return VirtualThreads.EXECUTOR != null;
+    }
+
+    /***
+     * run calls on virtual threads, one thread per call
+     * @param calls calls returning results
+     * @param <T> return data
+     * @return the data of all calls in order, or the first failure
+     * @throws UnsupportedOperationException if the JVM has no virtual threads, use
+     * {@link #invokeAll(Collection, Executor)} there
+     */
+    public static <T> Result<List<T>> invokeAll(Collection<? extends Callable<? extends Result<T>>> calls) {
+        ExecutorService executor = VirtualThreads.EXECUTOR;
+        if (executor == null) {
+            throw new UnsupportedOperationException("Virtual threads are not supported by this JVM, supply an executor");
+        }
+        return invokeAll(calls, executor);
+    }
+
+    /***
+     * run calls on an executor, blocks until all succeeded or the first one failed.
+     * The executor may run calls on the calling thread, cancelling them never leaves that thread
+     * interrupted. A caller interrupted while waiting gets the system failure, nothing is logged
+     * and its interrupt flag stays set
+     * @param calls calls returning results
+     * @param executor executor to run the calls
+     * @param <T> return data
+     * @return the data of all calls in order, or the first failure
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> Result<List<T>> invokeAll(Collection<? extends Callable<? extends Result<T>>> calls,
+                                                Executor executor) {
+        int size = calls.size();
+        if (size == 0) {
+            return ImmutableResult.success(Collections.<T>emptyList());
+        }
+        Group<T> group = new Group<T>(size);
+        Member<T>[] members = new Member[size];
+        int index = 0;
+        for (Callable<? extends Result<T>> call : calls) {
+            members[index] = new Member<T>(group, index, call);
+            group.tasks[index] = new FutureTask<Void>(members[index], null);
+            index++;
+        }
+        try {
+            for (int i = 0; i < size && !group.done.isDone(); i++) {
+                boolean interrupted = Thread.currentThread().isInterrupted();
+                executor.execute(group.tasks[i]);
+                if (members[i].ranOnCaller && !interrupted && group.tasks[i].isCancelled()) {
+                    // the executor ran the call on this thread and another call's failure cancelled it
+                    Thread.interrupted();
+                }
+            }
+            return group.done.get();
+        } catch (InterruptedException e) {
+            // the caller stopped waiting, which is not a failure of the calls
+            Thread.currentThread().interrupt();
+            return ResultUtils.wrapImmutableException();
+        } catch (ExecutionException e) {
+            return ResultUtils.wrapImmutableThrowable(e);
+        } catch (RuntimeException e) {
+            // e.g. the executor rejected a call
+            return ResultUtils.wrapImmutableThrowable(e);
+        } finally {
+            // calls that end after the caller stopped waiting are ignored like after a failure
+            group.done.cancel(false);
+            group.cancelAll();
+        }
+    }
+
+    /**
+     * State shared by the calls of one fan-out
+     */
+    private static final class Group<T> {
+        private final Thread caller = Thread.currentThread();
+        private final FutureTask<Void>[] tasks;
+        private final Object[] values;
+        private final AtomicInteger remaining;
+        private final CompletableFuture<Result<List<T>>> done = new CompletableFuture<Result<List<T>>>();
+
+        @SuppressWarnings("unchecked")
+        Group(int size) {
+            this.tasks = new FutureTask[size];
+            this.values = new Object[size];
+            this.remaining = new AtomicInteger(size);
+        }
+
+        @SuppressWarnings("unchecked")
+        void complete(int index, Result<? extends T> result) {
+            if (!result.isSuccess()) {
+                if (done.complete(FailureResults.<List<T>>retype(result))) {
+                    cancelOthers(index);
+                }
+                return;
+            }
+            values[index] = result.getData();
+            // the decrement publishes the value to the thread that completes the list
+            if (remaining.decrementAndGet() == 0) {
+                done.complete(ImmutableResult.success((List<T>) (List<?>) Arrays.asList(values)));
+            }
+        }
+
+        void cancelAll() {
+            cancelOthers(-1);
+        }
+
+        /**
+         * Cancel every call but the one completing the fan-out, which would interrupt its own thread,
+         * the caller's thread if the executor runs calls on the calling thread
+         *
+         * @param index index of the completing call, -1 for none
+         */
+        void cancelOthers(int index) {
+            for (int i = 0; i < tasks.length; i++) {
+                if (i != index && tasks[i] != null) {
+                    tasks[i].cancel(true);
+                }
+            }
+        }
+    }
+
+    /**
+     * One call of a fan-out
+     */
+    private static final class Member<T> implements Runnable {
+        private final Group<T> group;
+        private final int index;
+        private final Callable<? extends Result<T>> call;
+        /**
+         * true if the call ran on the thread that started the fan-out, only written by that thread
+         */
+        private boolean ranOnCaller;
+
+        Member(Group<T> group, int index, Callable<? extends Result<T>> call) {
+            this.group = group;
+            this.index = index;
+            this.call = call;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public void run() {
+            if (group.done.isDone()) {
+                return;
+            }
+            if (Thread.currentThread() == group.caller) {
+                ranOnCaller = true;
+            }
+            Result<? extends T> result;
+            try {
+                result = call.call();
+                if (result == null) {
+                    throw new NullPointerException("Result must not be null");
+                }
+            } catch (Exception e) {
+                if (group.done.isDone()) {
+                    return;
+                }
+                result = ResultUtils.wrapImmutableThrowable(e);
+            } catch (Error e) {
+                // rethrown to the caller by wrapThrowable
+                if (group.done.completeExceptionally(e)) {
+                    group.cancelOthers(index);
+                }
+                throw e;
+            }
+            group.complete(index, result);
+        }
+    }
+
+    /**
+     * Shared virtual-thread-per-task executor, null before Java 21
+     */
+    private static final class VirtualThreads {
+        private static final ExecutorService EXECUTOR = create();
+
+        private static ExecutorService create() {
+            try {
+                Method factory = java.util.concurrent.Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+                return (ExecutorService) factory.invoke(null);
+            } catch (Exception e) {
+                return null;
+            }
+        }
+    }
+}
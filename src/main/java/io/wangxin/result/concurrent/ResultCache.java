@@ -0,0 +1,272 @@
+package io.wangxin.result.concurrent;
+
+import io.wangxin.result.IFailCode;
+import io.wangxin.result.ImmutableResult;
+import io.wangxin.result.Result;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * Caches the results of a result-returning lookup per key, including failures.
+ * <p>
+ * Successes and failures have their own time to live, and single failure codes can override
+ * it, e.g. a short time for "not found" so hot missing keys stop reaching the database.
+ * {@link IFailCode#SYSTEM_EXCEPTION_CODE} is never cached, and a time to live of 0 disables
+ * caching of that outcome. Entries live in a {@link ConcurrentHashMap}; above the maximum size,
+ * a clock hand that resumes where the previous eviction stopped removes expired entries and entries
+ * not read since the hand last passed them (second chance), so hot keys survive and each insert
+ * costs amortized constant time. One thread evicts at a time, others do not wait for it.
+ * Concurrent misses of one key each call the loader; wrap the loader with {@link SingleFlight}
+ * to coalesce them.
+ * <p>
+ * Cached results are stored as {@link ImmutableResult#copyOf(Result)}, so a caller cannot change
+ * the entry seen by other callers; setters of a returned result throw
+ * {@link UnsupportedOperationException}. Results that are not cached are returned as loaded.
+ *
+ * @param <K> key type
+ * @param <V> return data
+ * @author Xin Wang
+ */
+public class ResultCache<K, V> implements Function<K, Result<V>> {
+    private final Function<? super K, ? extends Result<V>> loader;
+    private final int maxSize;
+    private final long successTtlNanos;
+    private final long failureTtlNanos;
+    private final ConcurrentHashMap<Integer, Long> failureTtlsByCode = new ConcurrentHashMap<Integer, Long>();
+    private final ConcurrentHashMap<K, Entry<V>> entries = new ConcurrentHashMap<K, Entry<V>>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder failureHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    private final ReentrantLock evictionLock = new ReentrantLock();
+    /**
+     * clock hand, the position of the next eviction candidate, guarded by evictionLock
+     */
+    private Iterator<Map.Entry<K, Entry<V>>> hand;
+
+    /**
+     * @param loader     lookup to cache
+     * @param maxSize    entries kept at most
+     * @param successTtl time to live of successes, 0 to not cache them
+     * @param failureTtl time to live of failures, 0 to not cache them
+     * @param unit       unit of the times to live
+     */
+    public ResultCache(Function<? super K, ? extends Result<V>> loader, int maxSize,
+                       long successTtl, long failureTtl, TimeUnit unit) {
+        if (loader == null) {
+            throw new IllegalArgumentException("loader must not be null");
+        }
+        if (maxSize <= 0 || successTtl < 0 || failureTtl < 0) {
+            throw new IllegalArgumentException("maxSize must be positive, times to live not negative");
+        }
+        this.loader = loader;
+        this.maxSize = maxSize;
+        this.successTtlNanos = unit.toNanos(successTtl);
+        this.failureTtlNanos = unit.toNanos(failureTtl);
+    }
+
+    /***
+     * override the time to live of one failure code
+     * @param code error code
+     * @param ttl time to live, 0 to not cache this code
+     * @param unit unit of ttl
+     * @return this
+     */
+    public ResultCache<K, V> failureTtl(int code, long ttl, TimeUnit unit) {
+        if (ttl < 0) {
+            throw new IllegalArgumentException("ttl must not be negative");
+        }
+        failureTtlsByCode.put(code, unit.toNanos(ttl));
+        return this;
+    }
+
+    /***
+     * override the time to live of one failure code
+     * @param failCode error code
+     * @param ttl time to live, 0 to not cache this code
+     * @param unit unit of ttl
+     * @return this
+     */
+    public ResultCache<K, V> failureTtl(IFailCode failCode, long ttl, TimeUnit unit) {
+        return failureTtl(failCode.getValue(), ttl, unit);
+    }
+
+    /***
+     * cached result of a key, loaded on a miss
+     * @param key key
+     * @return result, read-only if it was cached
+     */
+    @Override
+    public Result<V> apply(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry != null) {
+            if (System.nanoTime() - entry.expiresAt < 0) {
+                hits.increment();
+                if (!entry.result.isSuccess()) {
+                    failureHits.increment();
+                }
+                if (!entry.accessed) {
+                    // avoid a shared write on every hit of a hot key
+                    entry.accessed = true;
+                }
+                return entry.result;
+            }
+            entries.remove(key, entry);
+        }
+        misses.increment();
+        Result<V> result = loader.apply(key);
+        if (result == null) {
+            throw new NullPointerException("Result must not be null");
+        }
+        long ttl = ttlNanos(result);
+        if (ttl > 0) {
+            result = ImmutableResult.copyOf(result);
+            entries.put(key, new Entry<V>(result, System.nanoTime() + ttl));
+            if (entries.size() > maxSize) {
+                evict();
+            }
+        }
+        return result;
+    }
+
+    /***
+     * drop the cached result of a key
+     * @param key key
+     */
+    public void invalidate(K key) {
+        entries.remove(key);
+    }
+
+    /***
+     * drop all cached results
+     */
+    public void invalidateAll() {
+        entries.clear();
+    }
+
+    /**
+     * @return cached entries, including expired ones not removed yet
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * @return counts since the cache was created
+     */
+    public Stats getStats() {
+        return new Stats(hits.sum(), failureHits.sum(), misses.sum(), evictions.sum());
+    }
+
+    private long ttlNanos(Result<V> result) {
+        if (result.isSuccess()) {
+            return successTtlNanos;
+        }
+        if (result.getCode() == IFailCode.SYSTEM_EXCEPTION_CODE) {
+            return 0L;
+        }
+        Long ttl = failureTtlsByCode.isEmpty() ? null : failureTtlsByCode.get(result.getCode());
+        return ttl == null ? failureTtlNanos : ttl;
+    }
+
+    private void evict() {
+        if (!evictionLock.tryLock()) {
+            // the evicting thread keeps going until the size is back below the maximum
+            return;
+        }
+        try {
+            long now = System.nanoTime();
+            // two turns at most: the first one may only clear the accessed flags
+            long steps = 2L * entries.size() + 1;
+            while (entries.size() > maxSize && steps-- > 0) {
+                if (hand == null || !hand.hasNext()) {
+                    hand = entries.entrySet().iterator();
+                    if (!hand.hasNext()) {
+                        return;
+                    }
+                }
+                Map.Entry<K, Entry<V>> candidate = hand.next();
+                Entry<V> entry = candidate.getValue();
+                if (now - entry.expiresAt < 0 && entry.accessed) {
+                    entry.accessed = false;
+                } else if (entries.remove(candidate.getKey(), entry)) {
+                    evictions.increment();
+                }
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    private static final class Entry<V> {
+        private final Result<V> result;
+        private final long expiresAt;
+        /**
+         * read since the clock hand last passed the entry
+         */
+        private volatile boolean accessed;
+
+        Entry(Result<V> result, long expiresAt) {
+            this.result = result;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    /**
+     * Counts of a cache at one point in time
+     */
+    public static final class Stats {
+        private final long hitCount;
+        private final long failureHitCount;
+        private final long missCount;
+        private final long evictionCount;
+
+        Stats(long hitCount, long failureHitCount, long missCount, long evictionCount) {
+            this.hitCount = hitCount;
+            this.failureHitCount = failureHitCount;
+            this.missCount = missCount;
+            this.evictionCount = evictionCount;
+        }
+
+        public long getHitCount() {
+            return hitCount;
+        }
+
+        /**
+         * @return hits that returned a cached failure, included in {@link #getHitCount()}
+         */
+        public long getFailureHitCount() {
+            return failureHitCount;
+        }
+
+        public long getMissCount() {
+            return missCount;
+        }
+
+        public long getEvictionCount() {
+            return evictionCount;
+        }
+
+        /**
+         * @return hits per lookup, 0 without lookups
+         */
+        public double getHitRate() {
+            long total = hitCount + missCount;
+            return total == 0 ? 0.0 : (double) hitCount / total;
+        }
+
+        @Override
+        public String toString() {
+            return "Stats{hits=" + hitCount + ", failureHits=" + failureHitCount
+                    + ", misses=" + missCount + ", evictions=" + evictionCount + '}';
+        }
+    }
+}
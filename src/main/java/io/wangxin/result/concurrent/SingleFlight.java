@@ -0,0 +1,159 @@
+package io.wangxin.result.concurrent;
+
+import io.wangxin.result.ImmutableResult;
+import io.wangxin.result.Result;
+import io.wangxin.result.utils.FailureResults;
+import io.wangxin.result.utils.ResultUtils;
+
+import java.util.HashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import static io.wangxin.result.IFailCode.SYSTEM_EXCEPTION_CODE;
+import static io.wangxin.result.IFailCode.SYSTEM_EXCEPTION_MSG;
+
+/**
+ * Coalesces concurrent calls per key: while a call of a key is running, other callers of that key
+ * wait for it and receive the same result instead of running the call again.
+ * <p>
+ * The shared result is {@link ImmutableResult#copyOf(Result)} of the call's result, so one caller
+ * cannot change the result every other caller sees; its setters throw
+ * {@link UnsupportedOperationException}.
+ * <p>
+ * The first caller runs the call on its own thread. An exception it throws is converted once with
+ * {@link ResultUtils#wrapImmutableThrowable(Throwable)}, so it is logged once and every waiting
+ * caller gets the same failure; an error it throws is rethrown to it, and the waiting callers get
+ * the system failure. A waiting caller that is interrupted returns the system failure with its
+ * interrupt flag set, while the call keeps running for the others. The table of running calls is
+ * split into stripes by key hash, each a small map guarded by its own lock that is only held to
+ * look up, add or remove a call, never while a call runs, so unrelated keys do not contend. Nothing
+ * is cached: a call that starts after the previous one of the key completed runs again.
+ *
+ * @param <K> key type
+ * @param <V> return data
+ * @author Xin Wang
+ */
+public class SingleFlight<K, V> {
+    private final HashMap<K, CompletableFuture<Result<V>>>[] stripes;
+    private final int mask;
+    private final LongAdder shared = new LongAdder();
+
+    /**
+     * Four stripes per available processor
+     */
+    public SingleFlight() {
+        this(4 * Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param stripes number of stripes, rounded up to a power of two
+     */
+    @SuppressWarnings("unchecked")
+    public SingleFlight(int stripes) {
+        if (stripes <= 0 || stripes > (1 << 16)) {
+            throw new IllegalArgumentException("stripes must be between 1 and 65536: " + stripes);
+        }
+        int size = stripes == 1 ? 1 : Integer.highestOneBit(stripes - 1) << 1;
+        this.stripes = new HashMap[size];
+        for (int i = 0; i < size; i++) {
+            this.stripes[i] = new HashMap<K, CompletableFuture<Result<V>>>();
+        }
+        this.mask = size - 1;
+    }
+
+    /***
+     * run a call, or wait for the running call of the same key
+     * @param key key of the call
+     * @param call result-returning call
+     * @return read-only result of the call, shared by all concurrent callers of the key
+     */
+    public Result<V> execute(K key, Supplier<? extends Result<V>> call) {
+        HashMap<K, CompletableFuture<Result<V>>> stripe = stripeOf(key);
+        CompletableFuture<Result<V>> running;
+        CompletableFuture<Result<V>> created = null;
+        synchronized (stripe) {
+            running = stripe.get(key);
+            if (running == null) {
+                created = new CompletableFuture<Result<V>>();
+                stripe.put(key, created);
+            }
+        }
+        if (created == null) {
+            shared.increment();
+            return await(running);
+        }
+        Result<V> result = null;
+        Throwable failure = null;
+        try {
+            try {
+                result = call.get();
+                if (result == null) {
+                    throw new NullPointerException("Result must not be null");
+                }
+            } catch (Exception e) {
+                result = ResultUtils.wrapImmutableThrowable(e);
+            }
+            result = ImmutableResult.copyOf(result);
+            return result;
+        } catch (Throwable e) {
+            failure = e;
+            throw e;
+        } finally {
+            // waiters must never be left waiting, whatever the call threw
+            if (failure == null) {
+                created.complete(result);
+            } else {
+                created.completeExceptionally(failure);
+            }
+            synchronized (stripe) {
+                stripe.remove(key);
+            }
+        }
+    }
+
+    /**
+     * @return keys with a running call
+     */
+    public int inFlight() {
+        int count = 0;
+        for (HashMap<K, CompletableFuture<Result<V>>> stripe : stripes) {
+            synchronized (stripe) {
+                count += stripe.size();
+            }
+        }
+        return count;
+    }
+
+    /**
+     * @return callers that received the result of another caller's call
+     */
+    public long getSharedCount() {
+        return shared.sum();
+    }
+
+    private HashMap<K, CompletableFuture<Result<V>>> stripeOf(K key) {
+        int h = key.hashCode() * 0x9e3779b9;
+        return stripes[(h ^ (h >>> 16)) & mask];
+    }
+
+    /***
+     * wait for the call of another caller. Its exceptions were converted and logged by that caller, and
+     * its errors rethrown to it, so a waiter gets the system failure without logging it again; as it
+     * does when it is interrupted, with the interrupt flag kept
+     * @param running call of another caller
+     * @param <V> return data
+     * @return result of the call, or the system failure
+     */
+    private static <V> Result<V> await(CompletableFuture<Result<V>> running) {
+        try {
+            return running.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return FailureResults.of(SYSTEM_EXCEPTION_CODE, SYSTEM_EXCEPTION_MSG);
+        } catch (ExecutionException e) {
+            return FailureResults.of(SYSTEM_EXCEPTION_CODE, SYSTEM_EXCEPTION_MSG);
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package io.wangxin.result.resilience;
+
+import io.wangxin.result.IFailCode;
+import io.wangxin.result.Result;
+import io.wangxin.result.utils.FailureResults;
+import io.wangxin.result.utils.ResultUtils;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Limits concurrent calls to a limit that follows the observed latency, and rejects calls above it
+ * at once with the shared failure result of an overload fail code instead of letting them queue.
+ * <p>
+ * The limit is adjusted after calls with a gradient of two latencies: an exponential average over
+ * about the last 600 samples, which moves slowly and serves as the baseline, and the latency of the
+ * call itself. The average includes queueing under sustained load, so it is a baseline rather than
+ * the latency without load; it is pulled down quickly when latency drops well below it. While the
+ * two agree, the limit grows by about the square root of itself, so it probes for more capacity;
+ * once calls get slower than {@code 1.5 *} the average the gradient drops below 1 and shrinks the
+ * limit. Changes are smoothed, and the limit only changes while at least half of it is in use, so
+ * a lightly loaded service keeps its limit. Counting calls in flight is lock-free, and so is the
+ * limit update: a sample that arrives while another one is being applied is dropped, so under
+ * contention a subset of the calls adjusts the limit and no caller ever waits for it.
+ * Exceptions thrown by calls are converted with {@link ResultUtils#wrapImmutableThrowable(Throwable)}.
+ *
+ * @author Xin Wang
+ */
+public class AdaptiveConcurrencyLimiter {
+    /**
+     * latency may exceed the long-term average by this factor before the limit shrinks
+     */
+    private static final double TOLERANCE = 1.5;
+    /**
+     * weight of a new limit against the current one
+     */
+    private static final double SMOOTHING = 0.2;
+    /**
+     * samples the long-term latency average spans
+     */
+    private static final int LONG_WINDOW = 600;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final Result<?> overloadResult;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LongAdder rejected = new LongAdder();
+    private volatile int limit;
+    /**
+     * held while a sample is applied, guards the fields below
+     */
+    private final AtomicBoolean updating = new AtomicBoolean();
+    private double estimatedLimit;
+    private double longRttNanos;
+
+    /**
+     * @param initialLimit     concurrent calls allowed before the first samples
+     * @param minLimit         lowest limit
+     * @param maxLimit         highest limit
+     * @param overloadFailCode fail code of the result returned for rejected calls
+     */
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, IFailCode overloadFailCode) {
+        if (minLimit <= 0 || initialLimit < minLimit || maxLimit < initialLimit) {
+            throw new IllegalArgumentException("0 < minLimit <= initialLimit <= maxLimit");
+        }
+        if (overloadFailCode == null) {
+            throw new IllegalArgumentException("overloadFailCode must not be null");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.overloadResult = FailureResults.of(overloadFailCode);
+        this.limit = initialLimit;
+        this.estimatedLimit = initialLimit;
+    }
+
+    /***
+     * run a call if the limit allows it
+     * @param call result-returning call
+     * @param <T> return data
+     * @return result of the call, or the shared overload result if it was rejected
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Result<T> execute(Supplier<? extends Result<T>> call) {
+        int current;
+        do {
+            current = inFlight.get();
+            if (current >= limit) {
+                rejected.increment();
+                return (Result<T>) overloadResult;
+            }
+        } while (!inFlight.compareAndSet(current, current + 1));
+        long start = System.nanoTime();
+        try {
+            Result<T> result = call.get();
+            if (result == null) {
+                throw new NullPointerException("Result must not be null");
+            }
+            return result;
+        } catch (RuntimeException e) {
+            return ResultUtils.wrapImmutableThrowable(e);
+        } finally {
+            inFlight.decrementAndGet();
+            onSample(System.nanoTime() - start, current + 1);
+        }
+    }
+
+    /**
+     * @return current limit
+     */
+    public int getLimit() {
+        return limit;
+    }
+
+    /**
+     * @return calls running now
+     */
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * @return calls rejected because the limit was reached
+     */
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    /***
+     * adjust the limit to the latency of a call, unless another sample is being applied
+     * @param rttNanos latency of the call
+     * @param inFlightAtStart calls in flight when it started, including itself
+     */
+    void onSample(long rttNanos, int inFlightAtStart) {
+        if (!updating.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            update(rttNanos, inFlightAtStart);
+        } finally {
+            updating.set(false);
+        }
+    }
+
+    private void update(long rttNanos, int inFlightAtStart) {
+        double rtt = Math.max(1, rttNanos);
+        if (longRttNanos == 0) {
+            longRttNanos = rtt;
+        } else {
+            longRttNanos += (rtt - longRttNanos) / LONG_WINDOW;
+            if (longRttNanos / rtt > 2) {
+                // latency dropped a lot, e.g. after a slow phase, let the average catch up
+                longRttNanos *= 0.95;
+            }
+        }
+        if (inFlightAtStart * 2 < estimatedLimit) {
+            // the samples say nothing about the limit while most of it is unused
+            return;
+        }
+        double gradient = Math.max(0.5, Math.min(1.0, TOLERANCE * longRttNanos / rtt));
+        double queueSize = Math.sqrt(estimatedLimit);
+        double newLimit = estimatedLimit * gradient + queueSize;
+        newLimit = estimatedLimit * (1 - SMOOTHING) + newLimit * SMOOTHING;
+        estimatedLimit = Math.max(minLimit, Math.min(maxLimit, newLimit));
+        limit = (int) estimatedLimit;
+    }
+}
@@ -0,0 +1,272 @@
+package io.wangxin.result.resilience;
+
+import io.wangxin.result.IFailCode;
+import io.wangxin.result.Result;
+import io.wangxin.result.utils.FailureResults;
+import io.wangxin.result.utils.ResultUtils;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Stops calling a dependency while most of its recent results are failures.
+ * <p>
+ * Outcomes of the last {@code windowSize} calls are kept in a lock-free ring buffer with running
+ * counts. Only results matched by the failure predicate count as failures, e.g. unavailable or
+ * timeout codes of the dependency, so business failures such as "not found" never open the
+ * breaker. When the failure rate of at least {@code minimumCalls} calls reaches the threshold the
+ * breaker opens, and calls return the shared failure result of the open fail code at once without
+ * running. After the open duration a limited number of probe calls run (half-open): if they all
+ * succeed the breaker closes with an empty window, a probe failure opens it again. Each state change
+ * replaces the current period with one compare-and-set, and outcomes of calls admitted in an
+ * earlier period are ignored.
+ * Exceptions thrown by calls are converted with {@link ResultUtils#wrapImmutableThrowable(Throwable)};
+ * errors are rethrown and count as failures.
+ *
+ * @author Xin Wang
+ */
+public class CircuitBreaker {
+
+    /**
+     * States of a circuit breaker
+     */
+    public enum State {
+        /**
+         * calls run and their outcomes are recorded
+         */
+        CLOSED,
+        /**
+         * calls are rejected
+         */
+        OPEN,
+        /**
+         * a limited number of probe calls run
+         */
+        HALF_OPEN
+    }
+
+    private final int windowSize;
+    private final double failureRateThreshold;
+    private final int minimumCalls;
+    private final long openNanos;
+    private final int probes;
+    private final Predicate<? super Result<?>> failurePredicate;
+    private final Result<?> openResult;
+
+    /**
+     * current period, replaced as a whole on every state change
+     */
+    private final AtomicReference<Period> period;
+    private final LongAdder rejected = new LongAdder();
+
+    /**
+     * @param windowSize           calls whose outcomes are kept
+     * @param failureRateThreshold failure rate between 0 and 1 that opens the breaker
+     * @param minimumCalls         calls in the window before the rate is evaluated
+     * @param openDuration         time to reject calls before probing
+     * @param unit                 unit of openDuration
+     * @param probes               probe calls in half-open state
+     * @param failurePredicate     results that count as failures of the dependency
+     * @param openFailCode         fail code of the result returned while open
+     */
+    public CircuitBreaker(int windowSize, double failureRateThreshold, int minimumCalls,
+                          long openDuration, TimeUnit unit, int probes,
+                          Predicate<? super Result<?>> failurePredicate, IFailCode openFailCode) {
+        if (windowSize <= 0 || minimumCalls <= 0 || minimumCalls > windowSize || probes <= 0 || openDuration < 0) {
+            throw new IllegalArgumentException("0 < minimumCalls <= windowSize, probes positive, openDuration not negative");
+        }
+        if (!(failureRateThreshold > 0 && failureRateThreshold <= 1)) {
+            throw new IllegalArgumentException("failureRateThreshold must be in (0, 1]: " + failureRateThreshold);
+        }
+        if (failurePredicate == null || openFailCode == null) {
+            throw new IllegalArgumentException("failurePredicate and openFailCode must not be null");
+        }
+        this.windowSize = windowSize;
+        this.failureRateThreshold = failureRateThreshold;
+        this.minimumCalls = minimumCalls;
+        this.openNanos = unit.toNanos(openDuration);
+        this.probes = probes;
+        this.failurePredicate = failurePredicate;
+        this.openResult = FailureResults.of(openFailCode);
+        this.period = new AtomicReference<Period>(new Period(State.CLOSED, new Window(windowSize), 0L));
+    }
+
+    /***
+     * run a call unless the breaker is open
+     * @param call result-returning call
+     * @param <T> return data
+     * @return result of the call, or the shared open result if it was rejected
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Result<T> execute(Supplier<? extends Result<T>> call) {
+        Period permit = acquire();
+        if (permit == null) {
+            rejected.increment();
+            return (Result<T>) openResult;
+        }
+        Result<T> result = null;
+        try {
+            try {
+                result = call.get();
+                if (result == null) {
+                    throw new NullPointerException("Result must not be null");
+                }
+            } catch (RuntimeException e) {
+                result = ResultUtils.wrapImmutableThrowable(e);
+            }
+            return result;
+        } finally {
+            // an error thrown by the call counts as a failure, so a probe always returns its permit
+            boolean failure = result == null || !result.isSuccess() && failurePredicate.test(result);
+            if (permit.state == State.HALF_OPEN) {
+                onProbe(permit, failure);
+            } else {
+                onCall(permit, failure);
+            }
+        }
+    }
+
+    /**
+     * @return current state
+     */
+    public State getState() {
+        return period.get().state;
+    }
+
+    /**
+     * @return failure rate of the current window, 0 while it is empty
+     */
+    public double getFailureRate() {
+        Window current = period.get().window;
+        int calls = current.calls.get();
+        return calls == 0 ? 0.0 : (double) current.failures.get() / calls;
+    }
+
+    /**
+     * @return calls rejected while open
+     */
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    /***
+     * @return the period the call runs in, null if it is rejected
+     */
+    private Period acquire() {
+        Period current = period.get();
+        if (current.state == State.CLOSED) {
+            return current;
+        }
+        if (current.state == State.OPEN) {
+            if (System.nanoTime() - current.openedAt < openNanos) {
+                return null;
+            }
+            period.compareAndSet(current, new Period(State.HALF_OPEN, current.window, current.openedAt));
+            current = period.get();
+            if (current.state != State.HALF_OPEN) {
+                return current.state == State.CLOSED ? current : null;
+            }
+        }
+        while (true) {
+            int started = current.probesStarted.get();
+            if (started >= probes) {
+                return null;
+            }
+            if (current.probesStarted.compareAndSet(started, started + 1)) {
+                return current;
+            }
+        }
+    }
+
+    private void onProbe(Period permit, boolean failure) {
+        if (failure) {
+            open(permit);
+        } else if (permit.probesSucceeded.incrementAndGet() >= probes) {
+            period.compareAndSet(permit, new Period(State.CLOSED, new Window(windowSize), 0L));
+        }
+    }
+
+    private void onCall(Period permit, boolean failure) {
+        if (period.get() != permit) {
+            // the call started in an earlier period, its outcome says nothing about the current one
+            return;
+        }
+        Window current = permit.window;
+        current.record(failure);
+        int calls = current.calls.get();
+        if (failure && calls >= minimumCalls
+                && current.failures.get() >= failureRateThreshold * calls) {
+            open(permit);
+        }
+    }
+
+    /***
+     * open the breaker if the period is still the current one
+     * @param from period the outcome was recorded in
+     */
+    private void open(Period from) {
+        period.compareAndSet(from, new Period(State.OPEN, from.window, System.nanoTime()));
+    }
+
+    /**
+     * One closed, open or half-open period of a breaker. Calls carry the period they were admitted in,
+     * so outcomes of calls from an earlier period are ignored, and the counters of a period start
+     * at 0 because a new period is a new object.
+     */
+    private static final class Period {
+        private final State state;
+        /**
+         * outcomes of the closed period, kept while open and half-open for the failure rate
+         */
+        private final Window window;
+        private final long openedAt;
+        /**
+         * probe permits handed out and probes succeeded, half-open only
+         */
+        private final AtomicInteger probesStarted = new AtomicInteger();
+        private final AtomicInteger probesSucceeded = new AtomicInteger();
+
+        Period(State state, Window window, long openedAt) {
+            this.state = state;
+            this.window = window;
+            this.openedAt = openedAt;
+        }
+    }
+
+    /**
+     * Outcomes of the last calls in a ring buffer, with running counts
+     */
+    private static final class Window {
+        private static final int EMPTY = 0;
+        private static final int SUCCESS = 1;
+        private static final int FAILURE = 2;
+
+        private final AtomicIntegerArray outcomes;
+        private final AtomicLong cursor = new AtomicLong();
+        private final AtomicInteger calls = new AtomicInteger();
+        private final AtomicInteger failures = new AtomicInteger();
+
+        Window(int size) {
+            this.outcomes = new AtomicIntegerArray(size);
+        }
+
+        void record(boolean failure) {
+            int outcome = failure ? FAILURE : SUCCESS;
+            int slot = (int) (cursor.getAndIncrement() % outcomes.length());
+            int previous = outcomes.getAndSet(slot, outcome);
+            if (previous == EMPTY) {
+                calls.incrementAndGet();
+            }
+            int delta = (failure ? 1 : 0) - (previous == FAILURE ? 1 : 0);
+            if (delta != 0) {
+                failures.addAndGet(delta);
+            }
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package io.wangxin.result.resilience;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A point in time by which a call and everything it calls must finish, on the
+ * {@link System#nanoTime()} clock.
+ * <p>
+ * While a {@link DeadlineExecutor} runs a call its deadline is the current deadline of the thread,
+ * and nested calls through a deadline executor use the earlier of their own deadline and the
+ * current one, so an inner timeout can shorten the remaining time but never extend it. Deadlines
+ * are immutable and may be passed to other threads explicitly.
+ *
+ * @author Xin Wang
+ */
+public final class Deadline {
+    /**
+     * longest duration, so that differences of deadlines cannot overflow
+     */
+    private static final long MAX_NANOS = TimeUnit.DAYS.toNanos(365L * 100);
+
+    private static final ThreadLocal<Deadline> CURRENT = new ThreadLocal<Deadline>();
+
+    private final long deadlineNanos;
+
+    private Deadline(long deadlineNanos) {
+        this.deadlineNanos = deadlineNanos;
+    }
+
+    /***
+     * deadline after a duration from now
+     * @param duration duration, not negative
+     * @param unit unit of duration
+     * @return deadline
+     */
+    public static Deadline after(long duration, TimeUnit unit) {
+        if (duration < 0) {
+            throw new IllegalArgumentException("duration must not be negative: " + duration);
+        }
+        return new Deadline(System.nanoTime() + Math.min(unit.toNanos(duration), MAX_NANOS));
+    }
+
+    /**
+     * @return deadline of the call running on this thread, null if there is none
+     */
+    public static Deadline current() {
+        return CURRENT.get();
+    }
+
+    /***
+     * make a deadline the current one of this thread
+     * @param deadline deadline, null for none
+     * @return previous current deadline, to be restored with {@link #restore(Deadline)}
+     */
+    static Deadline attach(Deadline deadline) {
+        Deadline previous = CURRENT.get();
+        CURRENT.set(deadline);
+        return previous;
+    }
+
+    /***
+     * restore the current deadline replaced by {@link #attach(Deadline)}
+     * @param previous previous current deadline
+     */
+    static void restore(Deadline previous) {
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+
+    /***
+     * the earlier of two deadlines
+     * @param other other deadline, may be null
+     * @return this or other
+     */
+    public Deadline minimum(Deadline other) {
+        return other == null || deadlineNanos - other.deadlineNanos <= 0 ? this : other;
+    }
+
+    /***
+     * time left until the deadline
+     * @param unit unit of the result
+     * @return remaining time, 0 once expired
+     */
+    public long timeRemaining(TimeUnit unit) {
+        return unit.convert(Math.max(0, deadlineNanos - System.nanoTime()), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * @return true once the deadline has passed
+     */
+    public boolean isExpired() {
+        return deadlineNanos - System.nanoTime() <= 0;
+    }
+
+    @Override
+    public String toString() {
+        return "Deadline{remainingNanos=" + (deadlineNanos - System.nanoTime()) + '}';
+    }
+}
@@ -0,0 +1,234 @@
+package io.wangxin.result.resilience;
+
+import io.wangxin.result.IFailCode;
+import io.wangxin.result.Result;
+import io.wangxin.result.concurrent.AsyncResult;
+import io.wangxin.result.utils.FailureResults;
+import io.wangxin.result.utils.ResultUtils;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+
+/**
+ * Runs result-returning calls under a {@link Deadline}, and returns the shared failure result of a
+ * timeout fail code when the deadline passes.
+ * <p>
+ * All deadlines of an executor are tracked by one {@link HashedWheelTimer}, so a deadline costs one
+ * small timeout object with O(1) insert and cancel instead of a scheduled future per call, and
+ * hundreds of thousands of them can be pending at once. A call runs with its deadline as the
+ * current deadline of the thread; nested calls through any deadline executor inherit it, and a call
+ * whose deadline already passed returns the timeout result without running.
+ * <ul>
+ * <li>{@link #within(AsyncResult, Deadline)} completes with the timeout result at the deadline if
+ * the async result has not completed by then.</li>
+ * <li>{@link #execute(Deadline, Supplier)} runs a call on the calling thread and returns the timeout
+ * result if it finishes after the deadline. With {@code interruptOnTimeout} the timer interrupts
+ * the thread at the deadline, so blocking calls return early; the interrupt is cleared again before
+ * {@code execute} returns, unless the thread had already been interrupted by someone else when the
+ * deadline passed. Do not enable it for calls using interruptible channels, which are closed by an
+ * interrupt.</li>
+ * </ul>
+ * Exceptions thrown by calls are converted with {@link ResultUtils#wrapImmutableThrowable(Throwable)}.
+ *
+ * @author Xin Wang
+ */
+public class DeadlineExecutor {
+    private final HashedWheelTimer timer;
+    private final Result<?> timeoutResult;
+    private final boolean interruptOnTimeout;
+    private final LongAdder timeouts = new LongAdder();
+
+    /**
+     * @param timer              timer tracking the deadlines, may be shared by executors
+     * @param timeoutFailCode    fail code of the result returned when a deadline passes
+     * @param interruptOnTimeout interrupt calls run by {@link #execute(Deadline, Supplier)} at the deadline
+     */
+    public DeadlineExecutor(HashedWheelTimer timer, IFailCode timeoutFailCode, boolean interruptOnTimeout) {
+        if (timer == null || timeoutFailCode == null) {
+            throw new IllegalArgumentException("timer and timeoutFailCode must not be null");
+        }
+        this.timer = timer;
+        this.timeoutResult = FailureResults.of(timeoutFailCode);
+        this.interruptOnTimeout = interruptOnTimeout;
+    }
+
+    /***
+     * run a call on this thread with a timeout
+     * @param timeout timeout, shortened by the current deadline
+     * @param unit unit of timeout
+     * @param call result-returning call
+     * @param <T> return data
+     * @return result of the call, or the shared timeout result
+     */
+    public <T> Result<T> execute(long timeout, TimeUnit unit, Supplier<? extends Result<T>> call) {
+        return execute(Deadline.after(timeout, unit), call);
+    }
+
+    /***
+     * run a call on this thread under a deadline
+     * @param deadline deadline, shortened by the current deadline
+     * @param call result-returning call
+     * @param <T> return data
+     * @return result of the call, or the shared timeout result
+     */
+    public <T> Result<T> execute(Deadline deadline, Supplier<? extends Result<T>> call) {
+        Deadline effective = deadline.minimum(Deadline.current());
+        if (effective.isExpired()) {
+            return timedOut();
+        }
+        Interrupter interrupter = null;
+        HashedWheelTimer.Timeout timeout = null;
+        if (interruptOnTimeout) {
+            interrupter = new Interrupter(Thread.currentThread());
+            timeout = timer.newTimeout(interrupter, effective.timeRemaining(TimeUnit.NANOSECONDS), TimeUnit.NANOSECONDS);
+        }
+        Deadline previous = Deadline.attach(effective);
+        Result<T> result;
+        boolean interrupted = false;
+        try {
+            result = call.get();
+            if (result == null) {
+                throw new NullPointerException("Result must not be null");
+            }
+        } catch (RuntimeException e) {
+            result = ResultUtils.wrapImmutableThrowable(e);
+        } finally {
+            Deadline.restore(previous);
+            // also when the call threw an error, so the timer never interrupts the thread afterwards
+            if (timeout != null) {
+                timeout.cancel();
+                interrupted = interrupter.finish();
+            }
+        }
+        return interrupted || effective.isExpired() ? this.<T>timedOut() : result;
+    }
+
+    /***
+     * limit an async result to a deadline
+     * @param result async result
+     * @param deadline deadline
+     * @param <T> return data
+     * @return async result completing with the result, or with the shared timeout result at the deadline
+     */
+    public <T> AsyncResult<T> within(AsyncResult<T> result, Deadline deadline) {
+        if (deadline.isExpired() && !result.isDone()) {
+            return AsyncResult.completed(this.<T>timedOut());
+        }
+        final CompletableFuture<Result<T>> future = new CompletableFuture<Result<T>>();
+        final HashedWheelTimer.Timeout timeout = timer.newTimeout(new Runnable() {
+            @Override
+            public void run() {
+                // count before completing, so whoever sees the timeout result also sees the count
+                timeouts.increment();
+                if (!future.complete(DeadlineExecutor.this.<T>timeoutResult())) {
+                    timeouts.decrement();
+                }
+            }
+        }, deadline.timeRemaining(TimeUnit.NANOSECONDS), TimeUnit.NANOSECONDS);
+        result.toCompletableFuture().whenComplete(new BiConsumer<Result<T>, Throwable>() {
+            @Override
+            public void accept(Result<T> value, Throwable e) {
+                timeout.cancel();
+                future.complete(value);
+            }
+        });
+        return AsyncResult.of(future);
+    }
+
+    /***
+     * run a call on an executor under a deadline, which is the current deadline while it runs
+     * @param call result-returning call
+     * @param executor executor to run it
+     * @param deadline deadline, shortened by the current deadline of the calling thread
+     * @param <T> return data
+     * @return async result of the call, or the shared timeout result at the deadline
+     */
+    public <T> AsyncResult<T> supplyAsync(final Supplier<? extends Result<T>> call, Executor executor, Deadline deadline) {
+        final Deadline effective = deadline.minimum(Deadline.current());
+        AsyncResult<T> result = AsyncResult.supplyAsync(new Supplier<Result<T>>() {
+            @Override
+            public Result<T> get() {
+                if (effective.isExpired()) {
+                    return timeoutResult();
+                }
+                Deadline previous = Deadline.attach(effective);
+                try {
+                    return call.get();
+                } finally {
+                    Deadline.restore(previous);
+                }
+            }
+        }, executor);
+        return within(result, effective);
+    }
+
+    /**
+     * @return calls that returned the timeout result
+     */
+    public long getTimeoutCount() {
+        return timeouts.sum();
+    }
+
+    private <T> Result<T> timedOut() {
+        timeouts.increment();
+        return timeoutResult();
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> Result<T> timeoutResult() {
+        return (Result<T>) timeoutResult;
+    }
+
+    /**
+     * Interrupts the calling thread at the deadline unless the call finished before
+     */
+    private static final class Interrupter implements Runnable {
+        private static final int RUNNING = 0;
+        private static final int INTERRUPTING = 1;
+        private static final int INTERRUPTED = 2;
+        private static final int FINISHED = 3;
+
+        private final Thread thread;
+        private final AtomicInteger state = new AtomicInteger(RUNNING);
+        /**
+         * the thread was interrupted by someone else before the deadline, written before INTERRUPTED
+         */
+        private boolean interruptedBefore;
+
+        Interrupter(Thread thread) {
+            this.thread = thread;
+        }
+
+        @Override
+        public void run() {
+            if (state.compareAndSet(RUNNING, INTERRUPTING)) {
+                interruptedBefore = thread.isInterrupted();
+                thread.interrupt();
+                state.set(INTERRUPTED);
+            }
+        }
+
+        /***
+         * called by the thread after the call, no interrupt is delivered after it returns
+         * @return true if the thread was interrupted for the deadline, the interrupt is cleared unless
+         * it was already pending before
+         */
+        boolean finish() {
+            if (state.compareAndSet(RUNNING, FINISHED)) {
+                return false;
+            }
+            while (state.get() == INTERRUPTING) {
+                Thread.yield();
+            }
+            if (!interruptedBefore) {
+                Thread.interrupted();
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,308 @@
+package io.wangxin.result.resilience;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs short tasks after a delay on one thread, for large numbers of timeouts that are mostly
+ * cancelled before they fire.
+ * <p>
+ * Time is divided into ticks, and a wheel of buckets holds the timeouts by the tick they expire in,
+ * with a round counter for delays longer than one turn of the wheel. Scheduling and cancelling only
+ * add the timeout to a lock-free queue, O(1) for the caller; the timer thread moves new timeouts
+ * into their bucket, unlinks cancelled ones from their bucket, and on every tick only looks at one
+ * bucket. Timeouts fire up to one tick late. Tasks run on the timer thread and must not block.
+ *
+ * @author Xin Wang
+ */
+public class HashedWheelTimer implements Closeable {
+    private static Logger logger = LoggerFactory.getLogger(HashedWheelTimer.class);
+
+    /**
+     * new timeouts moved into buckets per tick at most, so a burst cannot stall expiry
+     */
+    private static final int MAX_TRANSFERS_PER_TICK = 100000;
+    /**
+     * longest delay, so that deadlines cannot overflow, as in {@link Deadline}
+     */
+    private static final long MAX_NANOS = TimeUnit.DAYS.toNanos(365L * 100);
+
+    private final long tickNanos;
+    private final Bucket[] wheel;
+    private final int mask;
+    private final long startTime;
+    private final Queue<Timeout> added = new ConcurrentLinkedQueue<Timeout>();
+    private final Queue<Timeout> cancelled = new ConcurrentLinkedQueue<Timeout>();
+    private final AtomicLong pending = new AtomicLong();
+    private final Thread worker;
+    private volatile boolean stopped;
+
+    /**
+     * 10ms ticks, 512 buckets
+     */
+    public HashedWheelTimer() {
+        this(10, TimeUnit.MILLISECONDS, 512);
+    }
+
+    /**
+     * @param tickDuration  duration of a tick, the precision of the timer
+     * @param unit          unit of tickDuration
+     * @param ticksPerWheel buckets, rounded up to a power of two
+     */
+    public HashedWheelTimer(long tickDuration, TimeUnit unit, int ticksPerWheel) {
+        if (tickDuration <= 0 || ticksPerWheel <= 0 || ticksPerWheel > (1 << 30)) {
+            throw new IllegalArgumentException("tickDuration must be positive, ticksPerWheel between 1 and 2^30");
+        }
+        int size = ticksPerWheel == 1 ? 1 : Integer.highestOneBit(ticksPerWheel - 1) << 1;
+        this.tickNanos = Math.max(unit.toNanos(tickDuration), TimeUnit.MILLISECONDS.toNanos(1));
+        this.wheel = new Bucket[size];
+        for (int i = 0; i < size; i++) {
+            wheel[i] = new Bucket();
+        }
+        this.mask = size - 1;
+        this.startTime = System.nanoTime();
+        this.worker = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                runWorker();
+            }
+        }, "smart-result-wheel-timer");
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    /***
+     * run a task after a delay
+     * @param task short task, runs on the timer thread
+     * @param delay delay, at most about 100 years are used
+     * @param unit unit of delay
+     * @return handle to cancel the task
+     */
+    public Timeout newTimeout(Runnable task, long delay, TimeUnit unit) {
+        if (task == null) {
+            throw new IllegalArgumentException("task must not be null");
+        }
+        if (stopped) {
+            throw new IllegalStateException("Timer is stopped");
+        }
+        long deadline = System.nanoTime() + Math.max(0, Math.min(unit.toNanos(delay), MAX_NANOS)) - startTime;
+        Timeout timeout = new Timeout(this, task, deadline);
+        pending.incrementAndGet();
+        added.add(timeout);
+        return timeout;
+    }
+
+    /**
+     * @return timeouts neither expired nor cancelled
+     */
+    public long pendingTimeouts() {
+        return pending.get();
+    }
+
+    /***
+     * stop the timer thread, pending timeouts never fire
+     */
+    @Override
+    public void close() {
+        stopped = true;
+        worker.interrupt();
+        try {
+            worker.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void runWorker() {
+        long tick = 0;
+        while (!stopped) {
+            long tickTime = waitForTick(tick);
+            if (tickTime < 0) {
+                return;
+            }
+            removeCancelled();
+            transferAdded(tick);
+            wheel[(int) (tick & mask)].expire(tickTime);
+            tick++;
+        }
+    }
+
+    /***
+     * @return time of the tick relative to startTime, -1 if stopped while waiting
+     */
+    private long waitForTick(long tick) {
+        long tickTime = tickNanos * (tick + 1);
+        while (true) {
+            long sleepNanos = tickTime - (System.nanoTime() - startTime);
+            if (sleepNanos <= 0) {
+                return tickTime;
+            }
+            try {
+                TimeUnit.NANOSECONDS.sleep(sleepNanos);
+            } catch (InterruptedException e) {
+                if (stopped) {
+                    return -1;
+                }
+            }
+        }
+    }
+
+    private void transferAdded(long tick) {
+        for (int i = 0; i < MAX_TRANSFERS_PER_TICK; i++) {
+            Timeout timeout = added.poll();
+            if (timeout == null) {
+                return;
+            }
+            if (timeout.state.get() != Timeout.INIT) {
+                continue;
+            }
+            long expiryTick = timeout.deadline / tickNanos;
+            timeout.remainingRounds = (expiryTick - tick) / wheel.length;
+            // a deadline already in the past expires on the current tick
+            wheel[(int) (Math.max(expiryTick, tick) & mask)].add(timeout);
+        }
+    }
+
+    private void removeCancelled() {
+        while (true) {
+            Timeout timeout = cancelled.poll();
+            if (timeout == null) {
+                return;
+            }
+            if (timeout.bucket != null) {
+                timeout.bucket.remove(timeout);
+            }
+        }
+    }
+
+    /**
+     * Handle of a scheduled task
+     */
+    public static final class Timeout {
+        private static final int INIT = 0;
+        private static final int CANCELLED = 1;
+        private static final int EXPIRED = 2;
+
+        private final HashedWheelTimer timer;
+        private final Runnable task;
+        /**
+         * relative to the start time of the timer
+         */
+        private final long deadline;
+        private final AtomicInteger state = new AtomicInteger(INIT);
+        /**
+         * only accessed by the timer thread
+         */
+        private long remainingRounds;
+        private Bucket bucket;
+        private Timeout prev;
+        private Timeout next;
+
+        Timeout(HashedWheelTimer timer, Runnable task, long deadline) {
+            this.timer = timer;
+            this.task = task;
+            this.deadline = deadline;
+        }
+
+        /***
+         * cancel the task, O(1)
+         * @return true if the task will not run, false if it ran or was cancelled before
+         */
+        public boolean cancel() {
+            if (!state.compareAndSet(INIT, CANCELLED)) {
+                return false;
+            }
+            timer.pending.decrementAndGet();
+            timer.cancelled.add(this);
+            return true;
+        }
+
+        public boolean isCancelled() {
+            return state.get() == CANCELLED;
+        }
+
+        public boolean isExpired() {
+            return state.get() == EXPIRED;
+        }
+
+        void expire() {
+            if (!state.compareAndSet(INIT, EXPIRED)) {
+                return;
+            }
+            timer.pending.decrementAndGet();
+            try {
+                task.run();
+            } catch (Throwable e) {
+                // the timer thread must survive any task, or no timeout of this timer fires again
+                logger.warn("Timer task threw an exception:", e);
+            }
+        }
+    }
+
+    /**
+     * Doubly linked list of the timeouts of one wheel slot, only accessed by the timer thread
+     */
+    private static final class Bucket {
+        private Timeout head;
+        private Timeout tail;
+
+        void add(Timeout timeout) {
+            timeout.bucket = this;
+            if (head == null) {
+                head = timeout;
+                tail = timeout;
+            } else {
+                tail.next = timeout;
+                timeout.prev = tail;
+                tail = timeout;
+            }
+        }
+
+        void expire(long tickTime) {
+            Timeout timeout = head;
+            while (timeout != null) {
+                Timeout next = timeout.next;
+                if (timeout.remainingRounds <= 0) {
+                    remove(timeout);
+                    if (timeout.deadline <= tickTime) {
+                        timeout.expire();
+                    }
+                } else if (timeout.isCancelled()) {
+                    remove(timeout);
+                } else {
+                    timeout.remainingRounds--;
+                }
+                timeout = next;
+            }
+        }
+
+        void remove(Timeout timeout) {
+            if (timeout.bucket != this) {
+                return;
+            }
+            Timeout next = timeout.next;
+            if (timeout.prev != null) {
+                timeout.prev.next = next;
+            }
+            if (next != null) {
+                next.prev = timeout.prev;
+            }
+            if (timeout == head) {
+                head = next;
+            }
+            if (timeout == tail) {
+                tail = timeout.prev;
+            }
+            timeout.prev = null;
+            timeout.next = null;
+            timeout.bucket = null;
+        }
+    }
+}
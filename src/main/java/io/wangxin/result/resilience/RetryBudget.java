@@ -0,0 +1,88 @@
+package io.wangxin.result.resilience;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Token bucket that caps retries to a fixed ratio of calls.
+ * <p>
+ * Every call deposits {@code ratio} tokens and every retry withdraws one, so over time retries add
+ * at most {@code ratio} times the call rate to the load of a dependency, however many callers retry.
+ * The bucket holds at most {@code maxTokens} so idle periods do not save up a retry storm, and it
+ * starts full so the first failures after startup can be retried. One budget is usually shared by
+ * all {@link RetryExecutor}s that call the same dependency. Tokens are kept in thousandths in one
+ * {@link AtomicLong}.
+ *
+ * @author Xin Wang
+ */
+public class RetryBudget {
+    private static final long SCALE = 1000L;
+
+    private final long depositPerCall;
+    private final long capacity;
+    private final AtomicLong balance;
+    private final LongAdder rejected = new LongAdder();
+
+    /**
+     * @param ratio     retries allowed per call, e.g. 0.1 for 10% extra load at most
+     * @param maxTokens retries that can be saved up
+     */
+    public RetryBudget(double ratio, int maxTokens) {
+        if (ratio < 0 || ratio > 1000 || maxTokens <= 0) {
+            throw new IllegalArgumentException("ratio must be between 0 and 1000, maxTokens positive");
+        }
+        this.depositPerCall = Math.round(ratio * SCALE);
+        this.capacity = maxTokens * SCALE;
+        this.balance = new AtomicLong(capacity);
+    }
+
+    /***
+     * record a call, adds ratio tokens
+     */
+    public void deposit() {
+        if (depositPerCall == 0) {
+            return;
+        }
+        while (true) {
+            long current = balance.get();
+            if (current >= capacity) {
+                return;
+            }
+            long next = Math.min(capacity, current + depositPerCall);
+            if (balance.compareAndSet(current, next)) {
+                return;
+            }
+        }
+    }
+
+    /***
+     * take the token of one retry
+     * @return true if the retry is allowed
+     */
+    public boolean tryWithdraw() {
+        while (true) {
+            long current = balance.get();
+            if (current < SCALE) {
+                rejected.increment();
+                return false;
+            }
+            if (balance.compareAndSet(current, current - SCALE)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * @return retries currently allowed
+     */
+    public double getAvailableTokens() {
+        return (double) balance.get() / SCALE;
+    }
+
+    /**
+     * @return retries refused because the budget was exhausted
+     */
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+}
@@ -0,0 +1,129 @@
+package io.wangxin.result.resilience;
+
+import io.wangxin.result.Result;
+import io.wangxin.result.utils.ResultUtils;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Retries result-returning calls whose failure a {@link RetryRule} classifies as retryable.
+ * <p>
+ * Before retry n the calling thread sleeps a random time between 0 and
+ * {@code min(maxDelay, baseDelay * 2^(n-1))} (exponential backoff with full jitter), so callers
+ * that failed together do not retry together. Each retry also needs a token of the shared
+ * {@link RetryBudget}; once it is exhausted the last failure is returned at once, so retries cannot
+ * multiply the load on a struggling dependency. Exceptions thrown by the call are converted with
+ * {@link ResultUtils#wrapImmutableThrowable(Throwable)} and classified like any other failure.
+ *
+ * @author Xin Wang
+ */
+public class RetryExecutor {
+    /**
+     * doublings of the base delay at most, a long shift only uses 6 bits
+     */
+    private static final int MAX_DOUBLINGS = 62;
+
+    private final RetryRule rule;
+    private final int maxAttempts;
+    private final long baseDelayNanos;
+    private final long maxDelayNanos;
+    private final RetryBudget budget;
+    private final LongAdder retries = new LongAdder();
+
+    /**
+     * @param rule        classifies retryable failures
+     * @param maxAttempts attempts per call including the first one
+     * @param baseDelay   upper bound of the delay before the first retry
+     * @param maxDelay    upper bound of any delay
+     * @param unit        unit of the delays
+     * @param budget      budget shared by the executors of one dependency
+     */
+    public RetryExecutor(RetryRule rule, int maxAttempts, long baseDelay, long maxDelay, TimeUnit unit,
+                         RetryBudget budget) {
+        if (rule == null || budget == null) {
+            throw new IllegalArgumentException("rule and budget must not be null");
+        }
+        if (maxAttempts <= 0 || baseDelay < 0 || maxDelay < baseDelay) {
+            throw new IllegalArgumentException("maxAttempts must be positive, 0 <= baseDelay <= maxDelay");
+        }
+        this.rule = rule;
+        this.maxAttempts = maxAttempts;
+        this.baseDelayNanos = unit.toNanos(baseDelay);
+        this.maxDelayNanos = unit.toNanos(maxDelay);
+        this.budget = budget;
+    }
+
+    /***
+     * run a call, retrying retryable failures
+     * @param call result-returning call
+     * @param <T> return data
+     * @return the first success, a failure that is not retryable, or the last failure when
+     * the attempts or the budget ran out or the thread was interrupted while waiting
+     */
+    public <T> Result<T> execute(Supplier<? extends Result<T>> call) {
+        budget.deposit();
+        Result<T> result = attempt(call);
+        for (int attempt = 1; attempt < maxAttempts; attempt++) {
+            if (result.isSuccess() || !rule.isRetryable(result) || !budget.tryWithdraw()) {
+                return result;
+            }
+            if (!sleep(delayNanos(attempt))) {
+                return result;
+            }
+            retries.increment();
+            result = attempt(call);
+        }
+        return result;
+    }
+
+    /**
+     * @return retries made by this executor
+     */
+    public long getRetryCount() {
+        return retries.sum();
+    }
+
+    /***
+     * @param retry number of the retry, starting at 1
+     * @return random delay before the retry
+     */
+    long delayNanos(int retry) {
+        int doublings = Math.min(retry - 1, MAX_DOUBLINGS);
+        // compare before shifting so the doubled delay cannot overflow
+        long ceiling = baseDelayNanos > (maxDelayNanos >> doublings) ? maxDelayNanos : baseDelayNanos << doublings;
+        if (ceiling == 0) {
+            return 0L;
+        }
+        // the bound is exclusive, ceiling + 1 would overflow for Long.MAX_VALUE
+        return ceiling == Long.MAX_VALUE ? ThreadLocalRandom.current().nextLong(ceiling)
+                : ThreadLocalRandom.current().nextLong(ceiling + 1);
+    }
+
+    private static <T> Result<T> attempt(Supplier<? extends Result<T>> call) {
+        try {
+            Result<T> result = call.get();
+            if (result == null) {
+                throw new NullPointerException("Result must not be null");
+            }
+            return result;
+        } catch (RuntimeException e) {
+            return ResultUtils.wrapImmutableThrowable(e);
+        }
+    }
+
+    private static boolean sleep(long nanos) {
+        if (nanos == 0) {
+            return true;
+        }
+        try {
+            TimeUnit.NANOSECONDS.sleep(nanos);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package io.wangxin.result.resilience;
+
+import io.wangxin.result.IFailCode;
+import io.wangxin.result.Result;
+
+/**
+ * Decides whether a failure result is worth retrying, see {@link RetryExecutor}
+ *
+ * @author Xin Wang
+ */
+public interface RetryRule {
+
+    /***
+     * @param failure failure result of an attempt
+     * @return true if the call should be attempted again
+     */
+    boolean isRetryable(Result<?> failure);
+
+    /***
+     * @param other another rule
+     * @return rule that retries if this or the other rule does
+     */
+    default RetryRule or(final RetryRule other) {
+        final RetryRule self = this;
+        return new RetryRule() {
+            @Override
+            public boolean isRetryable(Result<?> failure) {
+                return self.isRetryable(failure) || other.isRetryable(failure);
+            }
+        };
+    }
+
+    /***
+     * retry a range of codes, e.g. 4000-4999 for external service errors
+     * @param from lowest retryable code
+     * @param to highest retryable code, inclusive
+     * @return rule
+     */
+    static RetryRule codeRange(final int from, final int to) {
+        if (from > to) {
+            throw new IllegalArgumentException("from must not be greater than to");
+        }
+        return new RetryRule() {
+            @Override
+            public boolean isRetryable(Result<?> failure) {
+                int code = failure.getCode();
+                return code >= from && code <= to;
+            }
+        };
+    }
+
+    /***
+     * retry the codes of some fail codes, e.g. timeouts
+     * @param failCodes retryable fail codes
+     * @return rule
+     */
+    static RetryRule failCodes(IFailCode... failCodes) {
+        final int[] codes = new int[failCodes.length];
+        for (int i = 0; i < failCodes.length; i++) {
+            codes[i] = failCodes[i].getValue();
+        }
+        return new RetryRule() {
+            @Override
+            public boolean isRetryable(Result<?> failure) {
+                int code = failure.getCode();
+                for (int retryable : codes) {
+                    if (retryable == code) {
+                        return true;
+                    }
+                }
+                return false;
+            }
+        };
+    }
+}
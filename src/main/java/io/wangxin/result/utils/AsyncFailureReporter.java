@@ -0,0 +1,382 @@
+package io.wangxin.result.utils;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+
+import java.io.Closeable;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Moves failure reporting off the request thread.
+ * <p>
+ * {@link #report(String, Throwable)} only enqueues the failure into a bounded lock-free ring
+ * buffer (multi-producer, single-consumer); a daemon thread drains it into the delegate reporter.
+ * When the buffer is full the {@link OverflowPolicy} decides whether the failure is dropped and
+ * counted or the caller waits for space; the number of dropped failures is reported to the delegate
+ * once a minute and on close. The caller's MDC context is copied into each failure and restored
+ * while the delegate reports it, the thread name is the drainer's. {@link #close()} drains what is left, and later reports
+ * go to the delegate directly, so {@link #registerShutdownHook()} loses nothing on shutdown:
+ * a producer that published just as the reporter closed drains its failure itself once the
+ * final drain is over. Close may be called any number of times, from any thread.
+ * <p>
+ * Not installed by default: pass an instance to {@link ResultUtils#setFailureReporter(FailureReporter)}
+ * where logging on the request thread is too slow.
+ *
+ * @author Xin Wang
+ */
+public class AsyncFailureReporter implements FailureReporter, Closeable {
+    private static Logger logger = LoggerFactory.getLogger(AsyncFailureReporter.class);
+
+    /**
+     * What to do when the ring buffer is full
+     */
+    public enum OverflowPolicy {
+        /**
+         * drop the failure and count it, see {@link #getDroppedCount()}
+         */
+        DROP,
+        /**
+         * wait until the drainer made room
+         */
+        BLOCK
+    }
+
+    private static final int DEFAULT_CAPACITY = 8192;
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final long BLOCK_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+    private static final long DROPPED_REPORT_INTERVAL_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    private final FailureReporter delegate;
+    private final OverflowPolicy overflowPolicy;
+    private final int mask;
+    /**
+     * slot sequence numbers: slot i is free for ticket t when sequence == t,
+     * and holds the event of ticket t when sequence == t + 1
+     */
+    private final AtomicLongArray sequences;
+    private final String[] messages;
+    private final Throwable[] errors;
+    /**
+     * MDC context of the reporting thread, null if it had none
+     */
+    private final Map<String, String>[] contexts;
+    private final AtomicLong tail = new AtomicLong();
+    private final LongAdder dropped = new LongAdder();
+    /**
+     * dropped failures already reported, only written by the drainer and, after it stopped, by close
+     */
+    private long droppedReported;
+    private long droppedReportedAt = System.nanoTime();
+    private final Thread drainer;
+    /**
+     * next ticket to drain, only written by the drainer
+     */
+    private volatile long head;
+    private volatile boolean drainerParked;
+    private final AtomicBoolean closed = new AtomicBoolean();
+    /**
+     * guards draining once the drainer stopped
+     */
+    private final Object closeLock = new Object();
+    /**
+     * set under closeLock after the final drain of close
+     */
+    private boolean finalDrainDone;
+    private final CountDownLatch terminated = new CountDownLatch(1);
+
+    /**
+     * 8192 slots, failures are dropped when they are full
+     * @param delegate reporter called on the drainer thread
+     */
+    public AsyncFailureReporter(FailureReporter delegate) {
+        this(delegate, DEFAULT_CAPACITY, OverflowPolicy.DROP);
+    }
+
+    /**
+     * @param delegate       reporter called on the drainer thread
+     * @param capacity       slots of the ring buffer, rounded up to a power of two, at least 2
+     * @param overflowPolicy what to do when the ring buffer is full
+     */
+    public AsyncFailureReporter(FailureReporter delegate, int capacity, OverflowPolicy overflowPolicy) {
+        if (delegate == null || overflowPolicy == null) {
+            throw new IllegalArgumentException("delegate and overflowPolicy must not be null");
+        }
+        if (capacity <= 0 || capacity > (1 << 30)) {
+            throw new IllegalArgumentException("capacity must be between 1 and 2^30: " + capacity);
+        }
+        int size = capacity <= 2 ? 2 : Integer.highestOneBit(capacity - 1) << 1;
+        this.delegate = delegate;
+        this.overflowPolicy = overflowPolicy;
+        this.mask = size - 1;
+        this.sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+        this.messages = new String[size];
+        this.errors = new Throwable[size];
+        this.contexts = newContexts(size);
+        this.drainer = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                drainLoop();
+            }
+        }, "smart-result-failure-reporter");
+        this.drainer.setDaemon(true);
+        this.drainer.start();
+    }
+
+    @Override
+    public void report(String message, Throwable e) {
+        if (closed.get()) {
+            delegate.report(message, e);
+            return;
+        }
+        Map<String, String> context = MDC.getCopyOfContextMap();
+        while (!offer(message, e, context)) {
+            if (overflowPolicy == OverflowPolicy.DROP) {
+                dropped.increment();
+                return;
+            }
+            if (closed.get() || !drainer.isAlive()) {
+                delegate.report(message, e);
+                return;
+            }
+            LockSupport.unpark(drainer);
+            LockSupport.parkNanos(this, BLOCK_PARK_NANOS);
+        }
+        if (closed.get()) {
+            // published while closing, the final drain may already be over
+            drainAfterClose();
+        } else if (drainerParked) {
+            LockSupport.unpark(drainer);
+        }
+    }
+
+    /***
+     * wait until the failures reported before this call were handed to the delegate
+     * @param timeout maximum time to wait
+     * @param unit unit of timeout
+     * @return true if they were, false on timeout or interrupt
+     */
+    public boolean flush(long timeout, TimeUnit unit) {
+        long target = tail.get();
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        while (head < target) {
+            if (!drainer.isAlive() || Thread.currentThread().isInterrupted() || System.nanoTime() - deadline >= 0) {
+                return head >= target;
+            }
+            LockSupport.unpark(drainer);
+            LockSupport.parkNanos(this, BLOCK_PARK_NANOS);
+        }
+        return true;
+    }
+
+    /***
+     * stop the drainer after it handed the buffered failures to the delegate,
+     * failures reported afterwards go to the delegate on the calling thread
+     */
+    @Override
+    public void close() {
+        if (!closed.compareAndSet(false, true)) {
+            awaitTermination();
+            return;
+        }
+        LockSupport.unpark(drainer);
+        boolean interrupted = false;
+        while (drainer.isAlive()) {
+            try {
+                drainer.join();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        synchronized (closeLock) {
+            // failures enqueued while the drainer was stopping
+            drain();
+            reportDropped();
+            finalDrainDone = true;
+        }
+        terminated.countDown();
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /***
+     * close this reporter when the JVM shuts down
+     * @return this
+     */
+    public AsyncFailureReporter registerShutdownHook() {
+        Runtime.getRuntime().addShutdownHook(new Thread(new Runnable() {
+            @Override
+            public void run() {
+                close();
+            }
+        }, "smart-result-failure-reporter-shutdown"));
+        return this;
+    }
+
+    /**
+     * @return failures dropped because the ring buffer was full
+     */
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    /**
+     * @return slots of the ring buffer
+     */
+    public int getCapacity() {
+        return mask + 1;
+    }
+
+    /**
+     * @return failures waiting in the ring buffer
+     */
+    public int getPending() {
+        return (int) Math.max(0, tail.get() - head);
+    }
+
+    /**
+     * @return true once {@link #close()} was called
+     */
+    public boolean isClosed() {
+        return closed.get();
+    }
+
+    private void awaitTermination() {
+        try {
+            terminated.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void drainAfterClose() {
+        synchronized (closeLock) {
+            if (finalDrainDone) {
+                drain();
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, String>[] newContexts(int size) {
+        return new Map[size];
+    }
+
+    private boolean offer(String message, Throwable e, Map<String, String> context) {
+        while (true) {
+            long ticket = tail.get();
+            int index = (int) ticket & mask;
+            long diff = sequences.get(index) - ticket;
+            if (diff == 0) {
+                if (tail.compareAndSet(ticket, ticket + 1)) {
+                    messages[index] = message;
+                    errors[index] = e;
+                    contexts[index] = context;
+                    sequences.set(index, ticket + 1);
+                    return true;
+                }
+            } else if (diff < 0) {
+                return false;
+            }
+        }
+    }
+
+    private void drainLoop() {
+        while (true) {
+            boolean stopping = closed.get();
+            if (System.nanoTime() - droppedReportedAt >= DROPPED_REPORT_INTERVAL_NANOS) {
+                reportDropped();
+            }
+            if (drain() == 0) {
+                if (stopping) {
+                    return;
+                }
+                drainerParked = true;
+                if (!hasNext()) {
+                    LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+                }
+                drainerParked = false;
+            }
+        }
+    }
+
+    private boolean hasNext() {
+        long ticket = head;
+        return sequences.get((int) ticket & mask) == ticket + 1;
+    }
+
+    /***
+     * report the failures dropped since the last call as a summary
+     */
+    private void reportDropped() {
+        droppedReportedAt = System.nanoTime();
+        long total = dropped.sum();
+        if (total > droppedReported) {
+            long count = total - droppedReported;
+            droppedReported = total;
+            try {
+                delegate.report(count + " failures were dropped because the ring buffer was full, "
+                        + total + " in total", null);
+            } catch (Throwable failure) {
+                logger.warn("Failure reporter threw an exception:", failure);
+            }
+        }
+    }
+
+    private int drain() {
+        int drained = 0;
+        long ticket = head;
+        Map<String, String> previous = null;
+        boolean contextChanged = false;
+        while (true) {
+            int index = (int) ticket & mask;
+            if (sequences.get(index) != ticket + 1) {
+                break;
+            }
+            String message = messages[index];
+            Throwable e = errors[index];
+            Map<String, String> context = contexts[index];
+            messages[index] = null;
+            errors[index] = null;
+            contexts[index] = null;
+            sequences.lazySet(index, ticket + mask + 1);
+            ticket++;
+            drained++;
+            if (!contextChanged) {
+                // drain also runs on closing and producing threads, whose context is put back below
+                previous = MDC.getCopyOfContextMap();
+                contextChanged = true;
+            }
+            setContext(context);
+            try {
+                delegate.report(message, e);
+            } catch (Throwable failure) {
+                logger.warn("Failure reporter threw an exception:", failure);
+            }
+            head = ticket;
+        }
+        if (contextChanged) {
+            setContext(previous);
+        }
+        return drained;
+    }
+
+    private static void setContext(Map<String, String> context) {
+        if (context == null) {
+            MDC.clear();
+        } else {
+            MDC.setContextMap(context);
+        }
+    }
+}
@@ -0,0 +1,274 @@
+package io.wangxin.result.utils;
+
+import org.slf4j.Logger;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Deduplicates exception logging for {@link ResultUtils#wrapException(Exception)}.
+ * <p>
+ * Exceptions are fingerprinted by type and their top stack frames. The first occurrence of a
+ * fingerprint is logged with its full stack trace; later occurrences are only counted, and once
+ * per interval the next occurrence logs a one-line summary with the count. Occurrences that no
+ * later occurrence summarizes are logged by the next report of any exception once their interval
+ * is over, or by {@link #flush(Logger, String)}, e.g. on shutdown. Fingerprints live in
+ * a bounded concurrent map; when it is full, entries idle for longer than the interval are
+ * evicted first, then arbitrary ones, and evicted counts are logged as summaries.
+ *
+ * @author Xin Wang
+ */
+public class ExceptionLogLimiter {
+    /**
+     * result of {@link #admit(Throwable)}: log the exception with its stack trace
+     */
+    static final long LOG_FULL = -1L;
+    /**
+     * result of {@link #admit(Throwable)}: only count the exception
+     */
+    static final long SUPPRESS = 0L;
+
+    private static final int DEFAULT_MAX_FINGERPRINTS = 1024;
+    private static final int DEFAULT_FRAME_DEPTH = 3;
+
+    private final long intervalNanos;
+    private final int maxFingerprints;
+    private final int frameDepth;
+    private final ConcurrentHashMap<Fingerprint, State> states = new ConcurrentHashMap<Fingerprint, State>();
+    /**
+     * start of the last scan for overdue summaries
+     */
+    private final AtomicLong lastSweep = new AtomicLong(System.nanoTime());
+
+    /**
+     * Summaries at most once a minute, 1024 fingerprints of 3 frames
+     */
+    public ExceptionLogLimiter() {
+        this(1, TimeUnit.MINUTES, DEFAULT_MAX_FINGERPRINTS, DEFAULT_FRAME_DEPTH);
+    }
+
+    /**
+     * @param interval        minimum time between two log lines of one fingerprint
+     * @param unit            unit of interval
+     * @param maxFingerprints fingerprints tracked at most
+     * @param frameDepth      top stack frames that are part of the fingerprint
+     */
+    public ExceptionLogLimiter(long interval, TimeUnit unit, int maxFingerprints, int frameDepth) {
+        if (interval <= 0 || maxFingerprints <= 0 || frameDepth < 0) {
+            throw new IllegalArgumentException("interval and maxFingerprints must be positive, frameDepth not negative");
+        }
+        this.intervalNanos = unit.toNanos(interval);
+        this.maxFingerprints = maxFingerprints;
+        this.frameDepth = frameDepth;
+    }
+
+    /***
+     * log an exception, in full or as a periodic summary
+     * @param logger target logger
+     * @param message log message
+     * @param e exception
+     */
+    public void log(Logger logger, String message, Throwable e) {
+        long decision = admit(e);
+        if (decision == LOG_FULL) {
+            logger.error(message, e);
+        } else if (decision > SUPPRESS) {
+            logSummary(logger, message, e.toString(), decision);
+        }
+        if (states.size() > maxFingerprints) {
+            evict(new LoggingFailureReporter(logger), message);
+        } else if (isSweepDue()) {
+            sweep(new LoggingFailureReporter(logger), message);
+        }
+    }
+
+    /***
+     * report an exception, in full or as a periodic summary without exception.
+     * Used by {@link ResultUtils} when a {@link FailureReporter} is installed, so deduplication
+     * happens on the calling thread before anything is handed to the reporter
+     * @param reporter target reporter
+     * @param message report message
+     * @param e exception
+     */
+    public void report(FailureReporter reporter, String message, Throwable e) {
+        long decision = admit(e);
+        if (decision == LOG_FULL) {
+            reporter.report(message, e);
+        } else if (decision > SUPPRESS) {
+            reporter.report(summary(message, e.toString(), decision), null);
+        }
+        if (states.size() > maxFingerprints) {
+            evict(reporter, message);
+        } else if (isSweepDue()) {
+            sweep(reporter, message);
+        }
+    }
+
+    /***
+     * log the summaries of every fingerprint that has uncounted occurrences, e.g. on shutdown
+     * @param logger target logger
+     * @param message log message
+     */
+    public void flush(Logger logger, String message) {
+        flush(new LoggingFailureReporter(logger), message);
+    }
+
+    /***
+     * report the summaries of every fingerprint that has uncounted occurrences, e.g. on shutdown
+     * @param reporter target reporter
+     * @param message report message
+     */
+    public void flush(FailureReporter reporter, String message) {
+        for (Map.Entry<Fingerprint, State> entry : states.entrySet()) {
+            long count = entry.getValue().suppressed.sumThenReset();
+            if (count > 0) {
+                reporter.report(summary(message, entry.getKey().describe(), count), null);
+            }
+        }
+    }
+
+    /**
+     * @return fingerprints currently tracked
+     */
+    public int size() {
+        return states.size();
+    }
+
+    /***
+     * count an occurrence
+     * @param e exception
+     * @return {@link #LOG_FULL}, {@link #SUPPRESS} or the number of occurrences to summarize
+     */
+    long admit(Throwable e) {
+        long now = System.nanoTime();
+        Fingerprint fingerprint = new Fingerprint(e, frameDepth);
+        State state = states.get(fingerprint);
+        if (state == null) {
+            State created = new State(now);
+            state = states.putIfAbsent(fingerprint, created);
+            if (state == null) {
+                return LOG_FULL;
+            }
+        }
+        state.lastSeen = now;
+        state.suppressed.increment();
+        long windowStart = state.windowStart.get();
+        if (now - windowStart >= intervalNanos && state.windowStart.compareAndSet(windowStart, now)) {
+            return state.suppressed.sumThenReset();
+        }
+        return SUPPRESS;
+    }
+
+    /***
+     * @return true if this thread won the scan for overdue summaries of this interval
+     */
+    private boolean isSweepDue() {
+        long now = System.nanoTime();
+        long last = lastSweep.get();
+        return now - last >= intervalNanos && lastSweep.compareAndSet(last, now);
+    }
+
+    /***
+     * summarize the fingerprints whose interval is over but that did not occur again since
+     */
+    private void sweep(FailureReporter reporter, String message) {
+        long now = System.nanoTime();
+        for (Map.Entry<Fingerprint, State> entry : states.entrySet()) {
+            State state = entry.getValue();
+            long windowStart = state.windowStart.get();
+            if (now - windowStart >= intervalNanos && state.suppressed.sum() > 0
+                    && state.windowStart.compareAndSet(windowStart, now)) {
+                long count = state.suppressed.sumThenReset();
+                if (count > 0) {
+                    reporter.report(summary(message, entry.getKey().describe(), count), null);
+                }
+            }
+        }
+    }
+
+    private void evict(FailureReporter reporter, String message) {
+        long now = System.nanoTime();
+        Iterator<Map.Entry<Fingerprint, State>> iterator = states.entrySet().iterator();
+        while (iterator.hasNext() && states.size() > maxFingerprints) {
+            Map.Entry<Fingerprint, State> entry = iterator.next();
+            if (now - entry.getValue().lastSeen >= intervalNanos) {
+                removeAndSummarize(reporter, message, entry);
+            }
+        }
+        iterator = states.entrySet().iterator();
+        while (iterator.hasNext() && states.size() > maxFingerprints) {
+            removeAndSummarize(reporter, message, iterator.next());
+        }
+    }
+
+    private void removeAndSummarize(FailureReporter reporter, String message, Map.Entry<Fingerprint, State> entry) {
+        if (states.remove(entry.getKey(), entry.getValue())) {
+            long count = entry.getValue().suppressed.sumThenReset();
+            if (count > 0) {
+                reporter.report(summary(message, entry.getKey().describe(), count), null);
+            }
+        }
+    }
+
+    private static void logSummary(Logger logger, String message, String exception, long count) {
+        logger.error("{} {} occurred {} more times, stack trace was logged at first occurrence",
+                message, exception, count);
+    }
+
+    private static String summary(String message, String exception, long count) {
+        return message + " " + exception + " occurred " + count + " more times, stack trace was logged at first occurrence";
+    }
+
+    private static final class State {
+        private final LongAdder suppressed = new LongAdder();
+        private final AtomicLong windowStart;
+        private volatile long lastSeen;
+
+        State(long now) {
+            this.windowStart = new AtomicLong(now);
+            this.lastSeen = now;
+        }
+    }
+
+    /**
+     * Exception type plus top stack frames
+     */
+    private static final class Fingerprint {
+        private final Class<?> type;
+        private final StackTraceElement[] frames;
+        private final int hash;
+
+        Fingerprint(Throwable e, int depth) {
+            this.type = e.getClass();
+            StackTraceElement[] stackTrace = e.getStackTrace();
+            this.frames = Arrays.copyOf(stackTrace, Math.min(depth, stackTrace.length));
+            this.hash = 31 * type.hashCode() + Arrays.hashCode(frames);
+        }
+
+        String describe() {
+            return frames.length == 0 ? type.getName() : type.getName() + " at " + frames[0];
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Fingerprint)) {
+                return false;
+            }
+            Fingerprint other = (Fingerprint) o;
+            return hash == other.hash && type == other.type && Arrays.equals(frames, other.frames);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
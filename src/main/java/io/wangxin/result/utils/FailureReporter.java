@@ -0,0 +1,19 @@
+package io.wangxin.result.utils;
+
+/**
+ * Reports the exceptions wrapped by {@link ResultUtils#wrapException(Exception)}.
+ * Install one with {@link ResultUtils#setFailureReporter(FailureReporter)}
+ *
+ * @author Xin Wang
+ * @see LoggingFailureReporter
+ * @see AsyncFailureReporter
+ */
+public interface FailureReporter {
+
+    /***
+     * report an exception, called on the thread that wrapped it
+     * @param message description of the failure
+     * @param e exception, null for a summary of exceptions reported before
+     */
+    void report(String message, Throwable e);
+}
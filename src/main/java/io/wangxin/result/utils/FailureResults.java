@@ -0,0 +1,203 @@
+package io.wangxin.result.utils;
+
+import io.wangxin.result.BooleanResult;
+import io.wangxin.result.DoubleResult;
+import io.wangxin.result.IFailCode;
+import io.wangxin.result.ImmutableResult;
+import io.wangxin.result.IntResult;
+import io.wangxin.result.LongResult;
+import io.wangxin.result.Result;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Flyweight registry of shared failure results.
+ * <p>
+ * Enum fail codes are cached in an array per enum class indexed by ordinal, other
+ * {@link IFailCode} implementations and raw (code, message) pairs go through a bounded
+ * direct-mapped table, so the registry never grows with dynamic messages.
+ * The primitive results {@link IntResult}, {@link LongResult}, {@link BooleanResult} and
+ * {@link DoubleResult} of enum fail codes are cached the same way; for other fail codes they are
+ * allocated. Slot writes may race and replace each other; result slots are atomic arrays so a
+ * reader sees a complete result, the primitive results only have final fields, which makes plain
+ * slot writes safe for them.
+ *
+ * @author Xin Wang
+ */
+public final class FailureResults {
+    /**
+     * slots of the (code, message) table, must be a power of two
+     */
+    private static final int PAIR_SLOTS = 1024;
+
+    private static final AtomicReferenceArray<ImmutableResult> PAIR_TABLE =
+            new AtomicReferenceArray<ImmutableResult>(PAIR_SLOTS);
+
+    private static final ClassValue<AtomicReferenceArray<ImmutableResult>> ENUM_TABLES =
+            new ClassValue<AtomicReferenceArray<ImmutableResult>>() {
+                @Override
+                protected AtomicReferenceArray<ImmutableResult> computeValue(Class<?> type) {
+                    return new AtomicReferenceArray<ImmutableResult>(type.getEnumConstants().length);
+                }
+            };
+
+    private static final EnumTable<IntResult> INT_TABLES = new EnumTable<IntResult>() {
+        @Override
+        IntResult create(IFailCode failCode) {
+            return IntResult.failure(failCode.getValue(), failCode.getDesc());
+        }
+    };
+
+    private static final EnumTable<LongResult> LONG_TABLES = new EnumTable<LongResult>() {
+        @Override
+        LongResult create(IFailCode failCode) {
+            return LongResult.failure(failCode.getValue(), failCode.getDesc());
+        }
+    };
+
+    private static final EnumTable<BooleanResult> BOOLEAN_TABLES = new EnumTable<BooleanResult>() {
+        @Override
+        BooleanResult create(IFailCode failCode) {
+            return BooleanResult.failure(failCode.getValue(), failCode.getDesc());
+        }
+    };
+
+    private static final EnumTable<DoubleResult> DOUBLE_TABLES = new EnumTable<DoubleResult>() {
+        @Override
+        DoubleResult create(IFailCode failCode) {
+            return DoubleResult.failure(failCode.getValue(), failCode.getDesc());
+        }
+    };
+
+    private FailureResults() {
+    }
+
+    /***
+     * shared failure result of a fail code
+     * @param failCode error code
+     * @param <T> return data
+     * @return immutable status and data, data is null
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> ImmutableResult<T> of(IFailCode failCode) {
+        if (failCode instanceof Enum) {
+            Enum<?> constant = (Enum<?>) failCode;
+            AtomicReferenceArray<ImmutableResult> table = ENUM_TABLES.get(constant.getDeclaringClass());
+            int ordinal = constant.ordinal();
+            ImmutableResult<T> result = table.get(ordinal);
+            if (result == null) {
+                result = new ImmutableResult<T>(failCode);
+                table.lazySet(ordinal, result);
+            }
+            return result;
+        }
+        return of(failCode.getValue(), failCode.getDesc());
+    }
+
+    /***
+     * shared failure result of a code and message
+     * @param code error code
+     * @param message error message
+     * @param <T> return data
+     * @return immutable status and data, data is null
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> ImmutableResult<T> of(int code, String message) {
+        int hash = 31 * code + (message == null ? 0 : message.hashCode());
+        int slot = (hash ^ (hash >>> 16)) & (PAIR_SLOTS - 1);
+        ImmutableResult<T> result = PAIR_TABLE.get(slot);
+        if (result != null && result.getCode() == code && equal(result.getMessage(), message)) {
+            return result;
+        }
+        result = new ImmutableResult<T>(code, message);
+        PAIR_TABLE.lazySet(slot, result);
+        return result;
+    }
+
+    /***
+     * a failure typed for another data type, to pass on the failure of a step whose data type differs
+     * @param failure failure result
+     * @param <T> return data
+     * @return the failure itself if its data is null, otherwise an immutable failure with
+     * the same code and message whose data is null
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> Result<T> retype(Result<?> failure) {
+        if (failure.getData() == null) {
+            return (Result<T>) failure;
+        }
+        return new ImmutableResult<T>(failure.getCode(), failure.getMessage());
+    }
+
+    private static boolean equal(String a, String b) {
+        return a == null ? b == null : a.equals(b);
+    }
+
+    /***
+     * failure result of a fail code with int data
+     * @param failCode error code
+     * @return shared for enum fail codes, data is 0
+     */
+    public static IntResult ofInt(IFailCode failCode) {
+        return INT_TABLES.get(failCode);
+    }
+
+    /***
+     * failure result of a fail code with long data
+     * @param failCode error code
+     * @return shared for enum fail codes, data is 0
+     */
+    public static LongResult ofLong(IFailCode failCode) {
+        return LONG_TABLES.get(failCode);
+    }
+
+    /***
+     * failure result of a fail code with boolean data
+     * @param failCode error code
+     * @return shared for enum fail codes, data is false
+     */
+    public static BooleanResult ofBoolean(IFailCode failCode) {
+        return BOOLEAN_TABLES.get(failCode);
+    }
+
+    /***
+     * failure result of a fail code with double data
+     * @param failCode error code
+     * @return shared for enum fail codes, data is 0.0
+     */
+    public static DoubleResult ofDouble(IFailCode failCode) {
+        return DOUBLE_TABLES.get(failCode);
+    }
+
+    /**
+     * Results of one type cached per enum constant, other fail codes are not cached
+     *
+     * @param <R> result type
+     */
+    private abstract static class EnumTable<R> {
+        private final ClassValue<Object[]> tables = new ClassValue<Object[]>() {
+            @Override
+            protected Object[] computeValue(Class<?> type) {
+                return new Object[type.getEnumConstants().length];
+            }
+        };
+
+        abstract R create(IFailCode failCode);
+
+        @SuppressWarnings("unchecked")
+        R get(IFailCode failCode) {
+            if (!(failCode instanceof Enum)) {
+                return create(failCode);
+            }
+            Enum<?> constant = (Enum<?>) failCode;
+            Object[] table = tables.get(constant.getDeclaringClass());
+            int ordinal = constant.ordinal();
+            R result = (R) table[ordinal];
+            if (result == null) {
+                result = create(failCode);
+                table[ordinal] = result;
+            }
+            return result;
+        }
+    }
+}
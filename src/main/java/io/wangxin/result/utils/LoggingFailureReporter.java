@@ -0,0 +1,42 @@
+package io.wangxin.result.utils;
+
+import org.slf4j.Logger;
+
+/**
+ * Reports failures to a slf4j logger at error level, optionally deduplicated by an
+ * {@link ExceptionLogLimiter}
+ *
+ * @author Xin Wang
+ */
+public class LoggingFailureReporter implements FailureReporter {
+    private final Logger logger;
+    private final ExceptionLogLimiter limiter;
+
+    /**
+     * @param logger target logger, every exception is logged with its stack trace
+     */
+    public LoggingFailureReporter(Logger logger) {
+        this(logger, null);
+    }
+
+    /**
+     * @param logger  target logger
+     * @param limiter deduplicates the logged exceptions, null to log every exception
+     */
+    public LoggingFailureReporter(Logger logger, ExceptionLogLimiter limiter) {
+        if (logger == null) {
+            throw new IllegalArgumentException("logger must not be null");
+        }
+        this.logger = logger;
+        this.limiter = limiter;
+    }
+
+    @Override
+    public void report(String message, Throwable e) {
+        if (limiter == null || e == null) {
+            logger.error(message, e);
+        } else {
+            limiter.log(logger, message, e);
+        }
+    }
+}
@@ -0,0 +1,234 @@
+package io.wangxin.result.utils;
+
+import io.wangxin.result.IFailCode;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.MissingFormatArgumentException;
+
+/**
+ * Precompiled form of an error message pattern such as {@code "User not found: %s"}.
+ * <p>
+ * The pattern is parsed once into literal segments and argument slots, rendering only
+ * appends into a per-thread buffer and allocates the final String. Supported specifiers are
+ * {@code %s}, {@code %d}, their indexed forms like {@code %1$s}, {@code %%} and {@code %n}.
+ * Output matches {@link String#format(String, Object...)} with one deliberate difference:
+ * {@code %d} prints any argument as it is, where String.format throws
+ * {@link java.util.IllegalFormatConversionException} for anything but an integral number.
+ * Fail code messages receive the String parameters of wrapFailure, so a description like
+ * {@code "minimum %d characters"} renders instead of failing. Patterns using any other
+ * specifier, flag, width or precision are rendered with {@link String#format(String, Object...)}.
+ *
+ * @author Xin Wang
+ */
+public final class MessageTemplate {
+    /**
+     * slots of the pattern table for non enum fail codes, must be a power of two
+     */
+    private static final int PATTERN_SLOTS = 256;
+    /**
+     * buffers larger than this are not kept by the rendering thread
+     */
+    private static final int MAX_BUFFER_SIZE = 1024;
+
+    private static final MessageTemplate[] PATTERN_TABLE = new MessageTemplate[PATTERN_SLOTS];
+
+    private static final ClassValue<MessageTemplate[]> ENUM_TABLES = new ClassValue<MessageTemplate[]>() {
+        @Override
+        protected MessageTemplate[] computeValue(Class<?> type) {
+            return new MessageTemplate[type.getEnumConstants().length];
+        }
+    };
+
+    private static final ThreadLocal<StringBuilder> BUFFER = new ThreadLocal<StringBuilder>() {
+        @Override
+        protected StringBuilder initialValue() {
+            return new StringBuilder(128);
+        }
+    };
+
+    private final String pattern;
+    /**
+     * literal text before each argument slot, plus the trailing literal
+     */
+    private final String[] literals;
+    /**
+     * argument index of each slot
+     */
+    private final int[] argIndexes;
+    /**
+     * specifier text of each slot, used for error messages
+     */
+    private final String[] specifiers;
+    /**
+     * true if the pattern needs {@link String#format(String, Object...)}
+     */
+    private final boolean fallback;
+
+    private MessageTemplate(String pattern, String[] literals, int[] argIndexes, String[] specifiers,
+                            boolean fallback) {
+        this.pattern = pattern;
+        this.literals = literals;
+        this.argIndexes = argIndexes;
+        this.specifiers = specifiers;
+        this.fallback = fallback;
+    }
+
+    /***
+     * cached template of a fail code description
+     * @param failCode error code
+     * @return compiled template
+     */
+    public static MessageTemplate of(IFailCode failCode) {
+        if (failCode instanceof Enum) {
+            Enum<?> constant = (Enum<?>) failCode;
+            MessageTemplate[] table = ENUM_TABLES.get(constant.getDeclaringClass());
+            int ordinal = constant.ordinal();
+            MessageTemplate template = table[ordinal];
+            if (template == null) {
+                template = compile(failCode.getDesc());
+                table[ordinal] = template;
+            }
+            return template;
+        }
+        return of(failCode.getDesc());
+    }
+
+    /***
+     * cached template of a pattern
+     * @param pattern message pattern
+     * @return compiled template
+     */
+    public static MessageTemplate of(String pattern) {
+        int hash = pattern.hashCode();
+        int slot = (hash ^ (hash >>> 16)) & (PATTERN_SLOTS - 1);
+        MessageTemplate template = PATTERN_TABLE[slot];
+        if (template == null || !template.pattern.equals(pattern)) {
+            template = compile(pattern);
+            PATTERN_TABLE[slot] = template;
+        }
+        return template;
+    }
+
+    /***
+     * parse a pattern without caching it
+     * @param pattern message pattern
+     * @return compiled template
+     */
+    public static MessageTemplate compile(String pattern) {
+        List<String> literals = new ArrayList<String>();
+        List<Integer> argIndexes = new ArrayList<Integer>();
+        List<String> specifiers = new ArrayList<String>();
+        StringBuilder literal = new StringBuilder();
+        int ordinaryIndex = 0;
+        int length = pattern.length();
+        int i = 0;
+        while (i < length) {
+            char c = pattern.charAt(i);
+            if (c != '%') {
+                literal.append(c);
+                i++;
+                continue;
+            }
+            int start = i++;
+            int explicitIndex = -1;
+            int digitsEnd = i;
+            while (digitsEnd < length && Character.isDigit(pattern.charAt(digitsEnd))) {
+                digitsEnd++;
+            }
+            if (digitsEnd > i && digitsEnd < length && pattern.charAt(digitsEnd) == '$') {
+                explicitIndex = Integer.parseInt(pattern.substring(i, digitsEnd)) - 1;
+                i = digitsEnd + 1;
+                if (explicitIndex < 0) {
+                    return fallback(pattern);
+                }
+            }
+            if (i >= length) {
+                return fallback(pattern);
+            }
+            char conversion = pattern.charAt(i++);
+            if (explicitIndex < 0 && conversion == '%') {
+                literal.append('%');
+            } else if (explicitIndex < 0 && conversion == 'n') {
+                literal.append(System.getProperty("line.separator"));
+            } else if (conversion == 's' || conversion == 'd') {
+                literals.add(literal.toString());
+                literal.setLength(0);
+                argIndexes.add(explicitIndex >= 0 ? explicitIndex : ordinaryIndex++);
+                specifiers.add(pattern.substring(start, i));
+            } else {
+                return fallback(pattern);
+            }
+        }
+        literals.add(literal.toString());
+        int[] indexes = new int[argIndexes.size()];
+        for (int j = 0; j < indexes.length; j++) {
+            indexes[j] = argIndexes.get(j);
+        }
+        return new MessageTemplate(pattern, literals.toArray(new String[0]), indexes,
+                specifiers.toArray(new String[0]), false);
+    }
+
+    private static MessageTemplate fallback(String pattern) {
+        return new MessageTemplate(pattern, null, null, null, true);
+    }
+
+    /***
+     * render the message
+     * @param args dynamic parameters of error message
+     * @return message
+     * @throws MissingFormatArgumentException if a slot has no argument
+     */
+    public String render(Object... args) {
+        if (fallback) {
+            return String.format(pattern, args);
+        }
+        int slots = argIndexes.length;
+        if (slots == 0) {
+            return literals[0];
+        }
+        int argCount = args == null ? 0 : args.length;
+        StringBuilder buffer = BUFFER.get();
+        buffer.setLength(0);
+        for (int i = 0; i < slots; i++) {
+            int argIndex = argIndexes[i];
+            if (argIndex >= argCount) {
+                throw new MissingFormatArgumentException(specifiers[i]);
+            }
+            buffer.append(literals[i]).append(args[argIndex]);
+        }
+        buffer.append(literals[slots]);
+        String message = buffer.toString();
+        if (buffer.capacity() > MAX_BUFFER_SIZE) {
+            BUFFER.remove();
+        }
+        return message;
+    }
+
+    /***
+     * check that render(args) will succeed, without rendering precompiled patterns.
+     * Patterns rendered with {@link String#format(String, Object...)} are formatted once to check them
+     * @param args dynamic parameters of error message
+     * @throws MissingFormatArgumentException if a slot has no argument
+     * @throws java.util.IllegalFormatException if String.format rejects the pattern or the arguments
+     */
+    public void checkArguments(Object... args) {
+        if (fallback) {
+            String.format(pattern, args);
+            return;
+        }
+        int argCount = args == null ? 0 : args.length;
+        for (int i = 0; i < argIndexes.length; i++) {
+            if (argIndexes[i] >= argCount) {
+                throw new MissingFormatArgumentException(specifiers[i]);
+            }
+        }
+    }
+
+    /***
+     * @return the source pattern
+     */
+    public String getPattern() {
+        return pattern;
+    }
+}
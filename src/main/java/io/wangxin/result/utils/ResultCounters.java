@@ -0,0 +1,256 @@
+package io.wangxin.result.utils;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts the results created by {@link ResultUtils}, per code. Only calls of its factory methods
+ * are counted: results the library builds on its own, such as the combined result of a
+ * traversal or pipeline, are not counted again.
+ * <p>
+ * Each code has a {@link LongAdder}, which stripes increments across cells under contention,
+ * so counting does not serialize threads even on many cores. Counters live in a lock-free
+ * open-addressing table that only allocates when a code is seen for the first time; codes
+ * beyond its capacity are added to {@link Snapshot#getOverflowCount()}.
+ * <p>
+ * Snapshots are consistent: {@link #snapshot()} swaps in an empty table, waits until no thread is
+ * still recording into the old one and adds it to the running totals, so a snapshot contains
+ * exactly the results recorded before the swap, for all codes at once. Recording threads mark
+ * entering and leaving a table on two more striped adders and never wait; only snapshots and
+ * {@link #getCount(int)} take a lock.
+ * <p>
+ * Enable with {@link ResultUtils#enableCounters()}; while disabled, {@link ResultUtils} only
+ * reads one volatile field per call.
+ *
+ * @author Xin Wang
+ */
+public final class ResultCounters {
+    private static final int SUCCESS_CODE = 0;
+    /**
+     * distinct failure codes that get their own counter, must be a power of two
+     */
+    private static final int CAPACITY = 1024;
+    /**
+     * slots probed before a code is counted as overflow
+     */
+    private static final int MAX_PROBES = 16;
+
+    private volatile Table table = new Table();
+    /**
+     * counts of the tables swapped out, guarded by this
+     */
+    private long successTotal;
+    private long overflowTotal;
+    private final Map<Integer, Long> failureTotals = new TreeMap<Integer, Long>();
+
+    ResultCounters() {
+    }
+
+    /***
+     * count one result
+     * @param code error code, 0 for success
+     */
+    public void record(int code) {
+        while (true) {
+            Table current = table;
+            current.entered.increment();
+            try {
+                if (current == table) {
+                    current.record(code);
+                    return;
+                }
+            } finally {
+                current.exited.increment();
+            }
+        }
+    }
+
+    /***
+     * current count of a code
+     * @param code error code, 0 for success
+     * @return count since the counters were enabled
+     */
+    public synchronized long getCount(int code) {
+        if (code == SUCCESS_CODE) {
+            return successTotal + table.success.sum();
+        }
+        Long total = failureTotals.get(code);
+        Counter counter = table.find(code);
+        return (total == null ? 0L : total) + (counter == null ? 0L : counter.adder.sum());
+    }
+
+    /***
+     * counts of all codes at one point in time
+     * @return counts per code since the counters were enabled
+     */
+    public synchronized Snapshot snapshot() {
+        Table old = table;
+        table = new Table();
+        long nanoTime = System.nanoTime();
+        old.awaitQuiescence();
+        successTotal += old.success.sum();
+        overflowTotal += old.overflow.sum();
+        for (int i = 0; i < CAPACITY; i++) {
+            Counter counter = old.counters.get(i);
+            if (counter != null) {
+                Long total = failureTotals.get(counter.code);
+                failureTotals.put(counter.code, (total == null ? 0L : total) + counter.adder.sum());
+            }
+        }
+        return new Snapshot(nanoTime, successTotal, overflowTotal, new TreeMap<Integer, Long>(failureTotals));
+    }
+
+    /**
+     * Counters of one period between snapshots
+     */
+    private static final class Table {
+        private final LongAdder success = new LongAdder();
+        private final LongAdder overflow = new LongAdder();
+        private final AtomicReferenceArray<Counter> counters = new AtomicReferenceArray<Counter>(CAPACITY);
+        /**
+         * threads that started and finished recording into this table
+         */
+        private final LongAdder entered = new LongAdder();
+        private final LongAdder exited = new LongAdder();
+
+        void record(int code) {
+            if (code == SUCCESS_CODE) {
+                success.increment();
+                return;
+            }
+            int slot = slot(code);
+            for (int probe = 0; probe < MAX_PROBES; probe++) {
+                Counter counter = counters.get(slot);
+                if (counter == null) {
+                    Counter created = new Counter(code);
+                    if (counters.compareAndSet(slot, null, created)) {
+                        created.adder.increment();
+                        return;
+                    }
+                    counter = counters.get(slot);
+                }
+                if (counter.code == code) {
+                    counter.adder.increment();
+                    return;
+                }
+                slot = (slot + 1) & (CAPACITY - 1);
+            }
+            overflow.increment();
+        }
+
+        Counter find(int code) {
+            int slot = slot(code);
+            for (int probe = 0; probe < MAX_PROBES; probe++) {
+                Counter counter = counters.get(slot);
+                if (counter == null) {
+                    return null;
+                }
+                if (counter.code == code) {
+                    return counter;
+                }
+                slot = (slot + 1) & (CAPACITY - 1);
+            }
+            return null;
+        }
+
+        /***
+         * wait until every thread that entered this table left it, once it is no longer current.
+         * Exits are read before entries: each adder only grows, so equal sums mean no thread was
+         * inside at the moment between the two reads
+         */
+        void awaitQuiescence() {
+            while (exited.sum() != entered.sum()) {
+                Thread.yield();
+            }
+        }
+
+        private static int slot(int code) {
+            int h = code * 0x9e3779b9;
+            return (h ^ (h >>> 16)) & (CAPACITY - 1);
+        }
+    }
+
+    private static final class Counter {
+        private final int code;
+        private final LongAdder adder = new LongAdder();
+
+        Counter(int code) {
+            this.code = code;
+        }
+    }
+
+    /**
+     * Immutable counts taken by {@link #snapshot()}
+     */
+    public static final class Snapshot {
+        private final long nanoTime;
+        private final long successCount;
+        private final long overflowCount;
+        private final Map<Integer, Long> failureCounts;
+
+        Snapshot(long nanoTime, long successCount, long overflowCount, Map<Integer, Long> failureCounts) {
+            this.nanoTime = nanoTime;
+            this.successCount = successCount;
+            this.overflowCount = overflowCount;
+            this.failureCounts = Collections.unmodifiableMap(failureCounts);
+        }
+
+        /**
+         * @return {@link System#nanoTime()} when the snapshot was taken
+         */
+        public long getNanoTime() {
+            return nanoTime;
+        }
+
+        public long getSuccessCount() {
+            return successCount;
+        }
+
+        /**
+         * @return failures whose code did not fit in the counter table
+         */
+        public long getOverflowCount() {
+            return overflowCount;
+        }
+
+        public long getFailureCount() {
+            long total = overflowCount;
+            for (Long count : failureCounts.values()) {
+                total += count;
+            }
+            return total;
+        }
+
+        public long getCount(int code) {
+            if (code == SUCCESS_CODE) {
+                return successCount;
+            }
+            Long count = failureCounts.get(code);
+            return count == null ? 0L : count;
+        }
+
+        /**
+         * @return failure counts sorted by code
+         */
+        public Map<Integer, Long> getFailureCounts() {
+            return failureCounts;
+        }
+
+        /***
+         * counts since an earlier snapshot, e.g. to report per second rates
+         * @param earlier snapshot taken before this one
+         * @return difference of every count, with the time of this snapshot
+         */
+        public Snapshot minus(Snapshot earlier) {
+            Map<Integer, Long> delta = new TreeMap<Integer, Long>();
+            for (Map.Entry<Integer, Long> entry : failureCounts.entrySet()) {
+                delta.put(entry.getKey(), entry.getValue() - earlier.getCount(entry.getKey()));
+            }
+            return new Snapshot(nanoTime, successCount - earlier.successCount,
+                    overflowCount - earlier.overflowCount, delta);
+        }
+    }
+}
@@ -0,0 +1,275 @@
+package io.wangxin.result.utils;
+
+import io.wangxin.result.CompositeFailureResult;
+import io.wangxin.result.ImmutableResult;
+import io.wangxin.result.Result;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Function;
+
+/**
+ * Turns a list of inputs into one result of a list, calling a result-returning function per input.
+ * <p>
+ * With {@link FailurePolicy#FAIL_FAST} the first failure is returned as is and the remaining inputs
+ * are skipped; with {@link FailurePolicy#COLLECT_ALL} every input is processed and the failures are
+ * returned as a {@link CompositeFailureResult}. The output list is sized to the input up front.
+ * The parallel variants split the inputs over a {@link ForkJoinPool}; in fail-fast mode subtasks
+ * check a shared flag before each input and stop once a failure is known, which failure wins is
+ * then not determined by input order. Exceptions thrown by the function are not caught.
+ *
+ * @author Xin Wang
+ */
+public final class ResultTraversal {
+
+    /**
+     * What to do after the first failure
+     */
+    public enum FailurePolicy {
+        /**
+         * stop and return the first failure
+         */
+        FAIL_FAST,
+        /**
+         * process every input and return all failures
+         */
+        COLLECT_ALL
+    }
+
+    /**
+     * inputs per subtask relative to the parallelism, for load balancing
+     */
+    private static final int SPLITS_PER_THREAD = 4;
+
+    private ResultTraversal() {
+    }
+
+    /***
+     * call a function per input sequentially, stop at the first failure
+     * @param inputs inputs
+     * @param function result-returning function
+     * @param <A> input type
+     * @param <B> return data
+     * @return the data of all calls in input order, or the first failure
+     */
+    public static <A, B> Result<List<B>> traverse(List<? extends A> inputs,
+                                                  Function<? super A, ? extends Result<? extends B>> function) {
+        return traverse(inputs, function, FailurePolicy.FAIL_FAST);
+    }
+
+    /***
+     * call a function per input sequentially
+     * @param inputs inputs
+     * @param function result-returning function
+     * @param policy what to do after the first failure
+     * @param <A> input type
+     * @param <B> return data
+     * @return the data of all calls in input order, or the failures
+     */
+    public static <A, B> Result<List<B>> traverse(List<? extends A> inputs,
+                                                  Function<? super A, ? extends Result<? extends B>> function,
+                                                  FailurePolicy policy) {
+        int size = inputs.size();
+        List<B> values = new ArrayList<B>(size);
+        Collector collector = null;
+        for (int i = 0; i < size; i++) {
+            Result<? extends B> result = checkNotNull(function.apply(inputs.get(i)));
+            if (result.isSuccess()) {
+                values.add(result.getData());
+            } else if (policy == FailurePolicy.FAIL_FAST) {
+                return FailureResults.retype(result);
+            } else {
+                if (collector == null) {
+                    collector = new Collector();
+                }
+                collector.add(i, result);
+            }
+        }
+        if (collector != null) {
+            return collector.toResult();
+        }
+        return ImmutableResult.success(values);
+    }
+
+    /***
+     * collect computed results into one, stop at the first failure
+     * @param results results
+     * @param <T> return data
+     * @return the data of all results in order, or the first failure
+     */
+    public static <T> Result<List<T>> sequence(List<? extends Result<? extends T>> results) {
+        return sequence(results, FailurePolicy.FAIL_FAST);
+    }
+
+    /***
+     * collect computed results into one
+     * @param results results
+     * @param policy what to do after the first failure
+     * @param <T> return data
+     * @return the data of all results in order, or the failures
+     */
+    public static <T> Result<List<T>> sequence(List<? extends Result<? extends T>> results, FailurePolicy policy) {
+        return traverse(results, Function.<Result<? extends T>>identity(), policy);
+    }
+
+    /***
+     * call a function per input in parallel on the common fork-join pool
+     * @param inputs inputs
+     * @param function result-returning function, called from several threads
+     * @param policy what to do after the first failure
+     * @param <A> input type
+     * @param <B> return data
+     * @return the data of all calls in input order, or the failures
+     */
+    public static <A, B> Result<List<B>> parallelTraverse(List<? extends A> inputs,
+                                                          Function<? super A, ? extends Result<? extends B>> function,
+                                                          FailurePolicy policy) {
+        return parallelTraverse(inputs, function, policy, ForkJoinPool.commonPool());
+    }
+
+    /***
+     * call a function per input in parallel
+     * @param inputs inputs, random access
+     * @param function result-returning function, called from several threads
+     * @param policy what to do after the first failure
+     * @param pool pool to run the calls
+     * @param <A> input type
+     * @param <B> return data
+     * @return the data of all calls in input order, or the failures
+     */
+    @SuppressWarnings("unchecked")
+    public static <A, B> Result<List<B>> parallelTraverse(List<? extends A> inputs,
+                                                          Function<? super A, ? extends Result<? extends B>> function,
+                                                          FailurePolicy policy, ForkJoinPool pool) {
+        int size = inputs.size();
+        if (size == 0) {
+            return ImmutableResult.success(Collections.<B>emptyList());
+        }
+        int leafSize = Math.max(1, size / (pool.getParallelism() * SPLITS_PER_THREAD));
+        Traversal traversal = new Traversal((List<Object>) inputs,
+                (Function<Object, Result<?>>) (Function<?, ?>) function, policy == FailurePolicy.FAIL_FAST, size);
+        pool.invoke(new Segment(traversal, 0, size, leafSize));
+        // invoke() makes the writes of all subtasks visible here
+        if (traversal.firstFailure != null) {
+            return FailureResults.retype(traversal.firstFailure);
+        }
+        if (traversal.failures != null) {
+            Collector collector = new Collector();
+            for (int i = 0; i < size; i++) {
+                if (traversal.failures[i] != null) {
+                    collector.add(i, traversal.failures[i]);
+                }
+            }
+            if (collector.size > 0) {
+                return collector.toResult();
+            }
+        }
+        return ImmutableResult.success((List<B>) (List<?>) Arrays.asList(traversal.values));
+    }
+
+    private static <T extends Result<?>> T checkNotNull(T result) {
+        if (result == null) {
+            throw new NullPointerException("Result must not be null");
+        }
+        return result;
+    }
+
+    /**
+     * Failures of a collect-all traversal in input order
+     */
+    private static final class Collector {
+        private int[] indexes = new int[4];
+        private Result<?>[] failures = new Result<?>[4];
+        private int size;
+
+        void add(int index, Result<?> failure) {
+            if (size == indexes.length) {
+                indexes = Arrays.copyOf(indexes, size * 2);
+                failures = Arrays.copyOf(failures, size * 2);
+            }
+            indexes[size] = index;
+            failures[size] = failure;
+            size++;
+        }
+
+        <T> Result<List<T>> toResult() {
+            return new CompositeFailureResult<List<T>>(Arrays.copyOf(indexes, size), Arrays.copyOf(failures, size));
+        }
+    }
+
+    /**
+     * State shared by the subtasks of one parallel traversal
+     */
+    private static final class Traversal {
+        private final List<Object> inputs;
+        private final Function<Object, Result<?>> function;
+        private final boolean failFast;
+        private final Object[] values;
+        /**
+         * failure per input, only for collect-all
+         */
+        private final Result<?>[] failures;
+        /**
+         * a failure in fail-fast mode, the subtasks stop when they see it
+         */
+        private volatile Result<?> firstFailure;
+
+        Traversal(List<Object> inputs, Function<Object, Result<?>> function, boolean failFast, int size) {
+            this.inputs = inputs;
+            this.function = function;
+            this.failFast = failFast;
+            this.values = new Object[size];
+            this.failures = failFast ? null : new Result<?>[size];
+        }
+    }
+
+    /**
+     * Range of inputs, split until it is small enough
+     */
+    private static final class Segment extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final transient Traversal traversal;
+        private final int from;
+        private final int to;
+        private final int leafSize;
+
+        Segment(Traversal traversal, int from, int to, int leafSize) {
+            this.traversal = traversal;
+            this.from = from;
+            this.to = to;
+            this.leafSize = leafSize;
+        }
+
+        @Override
+        protected void compute() {
+            if (traversal.firstFailure != null) {
+                return;
+            }
+            if (to - from > leafSize) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new Segment(traversal, from, middle, leafSize),
+                        new Segment(traversal, middle, to, leafSize));
+                return;
+            }
+            for (int i = from; i < to; i++) {
+                if (traversal.failFast && traversal.firstFailure != null) {
+                    return;
+                }
+                Result<?> result = checkNotNull(traversal.function.apply(traversal.inputs.get(i)));
+                if (result.isSuccess()) {
+                    traversal.values[i] = result.getData();
+                } else if (traversal.failFast) {
+                    traversal.firstFailure = result;
+                    return;
+                } else {
+                    traversal.failures[i] = result;
+                }
+            }
+        }
+    }
+}
@@ -1,10 +1,20 @@
 package io.wangxin.result.utils;
 
+import io.wangxin.result.BooleanResult;
+import io.wangxin.result.DoubleResult;
 import io.wangxin.result.IFailCode;
+import io.wangxin.result.ImmutableResult;
+import io.wangxin.result.IntResult;
+import io.wangxin.result.LazyMessageResult;
+import io.wangxin.result.LongResult;
 import io.wangxin.result.Result;
+import io.wangxin.result.SmartException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+
 import static io.wangxin.result.IFailCode.SYSTEM_EXCEPTION_CODE;
 import static io.wangxin.result.IFailCode.SYSTEM_EXCEPTION_MSG;
 
@@ -20,6 +30,92 @@ public class ResultUtils {
      */
     public static final int SUCCESS_CODE = 0;
 
+    private static final Result SYSTEM_EXCEPTION_RESULT = new ImmutableResult(SYSTEM_EXCEPTION_CODE, SYSTEM_EXCEPTION_MSG);
+
+    /**
+     * per code counters, null while counting is disabled
+     */
+    private static volatile ResultCounters counters;
+
+    /***
+     * start counting the results created by this class, per code
+     * @return the active counters, the existing ones if counting is already enabled
+     */
+    public static synchronized ResultCounters enableCounters() {
+        if (counters == null) {
+            counters = new ResultCounters();
+        }
+        return counters;
+    }
+
+    /***
+     * stop counting, the counters returned before keep their counts
+     */
+    public static synchronized void disableCounters() {
+        counters = null;
+    }
+
+    /***
+     * @return the active counters, null if counting is disabled
+     */
+    public static ResultCounters getCounters() {
+        return counters;
+    }
+
+    /**
+     * deduplicates logging of wrapException(Exception), null to log every exception
+     */
+    private static volatile ExceptionLogLimiter exceptionLogLimiter;
+
+    /***
+     * deduplicate the exceptions logged by wrapException(Exception): the first occurrence of an
+     * exception type and location is logged in full, later ones as periodic summaries
+     * @param limiter limiter to use, null to log every exception with its stack trace again
+     */
+    public static void setExceptionLogLimiter(ExceptionLogLimiter limiter) {
+        exceptionLogLimiter = limiter;
+    }
+
+    private static final FailureReporter DEFAULT_FAILURE_REPORTER = new LoggingFailureReporter(logger);
+
+    /**
+     * reports the exceptions of wrapException(Exception), null to log them on the calling thread
+     */
+    private static volatile FailureReporter failureReporter = DEFAULT_FAILURE_REPORTER;
+
+    /***
+     * report the exceptions of wrapException(Exception) through a reporter.
+     * By default a {@link LoggingFailureReporter} logs them on the calling thread. Set an
+     * {@link AsyncFailureReporter} to log them on its own thread, so the calling thread only pays
+     * for an enqueue, and register its shutdown hook or close it on shutdown.
+     * An {@link ExceptionLogLimiter} set with setExceptionLogLimiter applies to reporters too
+     * @param reporter reporter to use, null to log on the calling thread
+     */
+    public static void setFailureReporter(FailureReporter reporter) {
+        failureReporter = reporter;
+    }
+
+    /***
+     * @return the reporter of wrapException(Exception), null if exceptions are logged on the calling thread
+     */
+    public static FailureReporter getFailureReporter() {
+        return failureReporter;
+    }
+
+    /***
+     * go back to the default reporter
+     */
+    static void resetFailureReporter() {
+        failureReporter = DEFAULT_FAILURE_REPORTER;
+    }
+
+    private static void count(int code) {
+        ResultCounters current = counters;
+        if (current != null) {
+            current.record(code);
+        }
+    }
+
     /***
      * wrap success result
      * @param data return data
@@ -31,6 +127,7 @@ public class ResultUtils {
         result.setCode(SUCCESS_CODE);
         result.setMessage("");
         result.setData(data);
+        count(SUCCESS_CODE);
         return result;
     }
 
@@ -43,6 +140,97 @@ public class ResultUtils {
         return wrapSuccess(null);
     }
 
+    /***
+     * wrap success result, return data is null. The returned result is shared and immutable,
+     * use it where the caller does not modify the result
+     * @param <T> return data
+     * @return status and data
+     */
+    public static <T> Result<T> wrapImmutableSuccess() {
+        count(SUCCESS_CODE);
+        return ImmutableResult.success();
+    }
+
+    /***
+     * wrap success result of an int without boxing
+     * @param data return data
+     * @return status and data
+     */
+    public static IntResult wrapIntSuccess(int data) {
+        count(SUCCESS_CODE);
+        return IntResult.success(data);
+    }
+
+    /***
+     * wrap success result of a long without boxing
+     * @param data return data
+     * @return status and data
+     */
+    public static LongResult wrapLongSuccess(long data) {
+        count(SUCCESS_CODE);
+        return LongResult.success(data);
+    }
+
+    /***
+     * wrap success result of a boolean without boxing
+     * @param data return data
+     * @return status and data
+     */
+    public static BooleanResult wrapBooleanSuccess(boolean data) {
+        count(SUCCESS_CODE);
+        return BooleanResult.success(data);
+    }
+
+    /***
+     * wrap success result of a double without boxing
+     * @param data return data
+     * @return status and data
+     */
+    public static DoubleResult wrapDoubleSuccess(double data) {
+        count(SUCCESS_CODE);
+        return DoubleResult.success(data);
+    }
+
+    /***
+     * wrap failure result of int data, data is 0
+     * @param failCode error code
+     * @return status and data, shared for enum fail codes
+     */
+    public static IntResult wrapIntFailure(IFailCode failCode) {
+        count(failCode.getValue());
+        return FailureResults.ofInt(failCode);
+    }
+
+    /***
+     * wrap failure result of long data, data is 0
+     * @param failCode error code
+     * @return status and data, shared for enum fail codes
+     */
+    public static LongResult wrapLongFailure(IFailCode failCode) {
+        count(failCode.getValue());
+        return FailureResults.ofLong(failCode);
+    }
+
+    /***
+     * wrap failure result of boolean data, data is false
+     * @param failCode error code
+     * @return status and data, shared for enum fail codes
+     */
+    public static BooleanResult wrapBooleanFailure(IFailCode failCode) {
+        count(failCode.getValue());
+        return FailureResults.ofBoolean(failCode);
+    }
+
+    /***
+     * wrap failure result of double data, data is 0.0
+     * @param failCode error code
+     * @return status and data, shared for enum fail codes
+     */
+    public static DoubleResult wrapDoubleFailure(IFailCode failCode) {
+        count(failCode.getValue());
+        return FailureResults.ofDouble(failCode);
+    }
+
     /***
      * wrap failure result
      * @param code error code
@@ -50,6 +238,7 @@ public class ResultUtils {
      * @return status and data
      */
     public static Result wrapFailure(int code, String message) {
+        count(code);
         Result result = new Result(code, message);
         return result;
     }
@@ -72,19 +261,174 @@ public class ResultUtils {
     public static Result wrapFailure(IFailCode failCode, String... msgValues) {
         String msg = failCode.getDesc();
         if (msgValues != null && msgValues.length > 0) {
-            msg = String.format(failCode.getDesc(), msgValues);
+            msg = MessageTemplate.of(failCode).render((Object[]) msgValues);
         }
         return wrapFailure(failCode.getValue(), msg);
     }
 
+    /***
+     * wrap failure result, the returned result is shared and immutable
+     * @param code error code
+     * @param message error message
+     * @param <T> return data
+     * @return status and data
+     */
+    public static <T> Result<T> wrapImmutableFailure(int code, String message) {
+        count(code);
+        return FailureResults.of(code, message);
+    }
+
+    /***
+     * wrap failure result, the returned result is shared and immutable
+     * @param failCode error code
+     * @param <T> return data
+     * @return status and data
+     */
+    public static <T> Result<T> wrapImmutableFailure(IFailCode failCode) {
+        count(failCode.getValue());
+        return FailureResults.of(failCode);
+    }
+
+    /***
+     * wrap failure result, Use when the error message has variables.
+     * The returned result is immutable, and shared if there are no parameters
+     * @param failCode  error code
+     * @param msgValues dynamic parameters of error message
+     * @param <T> return data
+     * @return status and data
+     */
+    public static <T> Result<T> wrapImmutableFailure(IFailCode failCode, String... msgValues) {
+        if (msgValues == null || msgValues.length == 0) {
+            return wrapImmutableFailure(failCode);
+        }
+        count(failCode.getValue());
+        return new ImmutableResult<T>(failCode.getValue(), MessageTemplate.of(failCode).render((Object[]) msgValues));
+    }
+
+    /***
+     * wrap failure result whose message is only formatted when it is read,
+     * for failures that are usually checked by code only. The returned result is immutable,
+     * and shared if there are no parameters
+     * @param failCode  error code
+     * @param msgValues dynamic parameters of error message
+     * @return status and data
+     */
+    public static Result wrapLazyFailure(IFailCode failCode, String... msgValues) {
+        count(failCode.getValue());
+        if (msgValues == null || msgValues.length == 0) {
+            return FailureResults.of(failCode);
+        }
+        return new LazyMessageResult(failCode, (Object[]) msgValues);
+    }
+
+    /***
+     * wrap failure result of a business exception, nothing is logged
+     * @param e business exception
+     * @return status and data
+     */
+    public static Result wrapFailure(SmartException e) {
+        return wrapFailure(e.getCode(), e.getDesc());
+    }
+
+    /***
+     * wrap failure result of a business exception, nothing is logged. The returned result is immutable,
+     * exceptions created from an unmodified fail code return the shared result of that code
+     * @param e business exception
+     * @param <T> return data
+     * @return status and data
+     */
+    public static <T> Result<T> wrapImmutableFailure(SmartException e) {
+        IFailCode failCode = e.getFailCode();
+        if (failCode != null) {
+            return wrapImmutableFailure(failCode);
+        }
+        return wrapImmutableFailure(e.getCode(), e.getDesc());
+    }
+
     /**
      * @return Print error and return failure, system level
      * @see Result ，Unified printing exception
      * @param e Exception
      */
     public static Result wrapException(Exception e) {
-        logger.error("Interface throws an exception:", e);
-        return wrapFailure(SYSTEM_EXCEPTION_CODE, SYSTEM_EXCEPTION_MSG);
+        report(e);
+        return wrapException();
+    }
+
+    /***
+     * report an exception like wrapException(Exception) and return the shared immutable failure
+     * @param e exception
+     * @param <T> return data
+     * @return status and data
+     */
+    public static <T> Result<T> wrapImmutableException(Exception e) {
+        report(e);
+        return wrapImmutableException();
+    }
+
+    private static void report(Exception e) {
+        FailureReporter reporter = failureReporter;
+        ExceptionLogLimiter limiter = exceptionLogLimiter;
+        if (reporter != null) {
+            if (limiter == null) {
+                reporter.report("Interface throws an exception:", e);
+            } else {
+                limiter.report(reporter, "Interface throws an exception:", e);
+            }
+        } else if (limiter == null) {
+            logger.error("Interface throws an exception:", e);
+        } else {
+            limiter.log(logger, "Interface throws an exception:", e);
+        }
+    }
+
+    /***
+     * wrap a throwable caught around a call, e.g. from a future. CompletionException and
+     * ExecutionException are unwrapped, business exceptions are wrapped like wrapFailure(SmartException),
+     * other exceptions like wrapException(Exception). Errors are rethrown
+     * @param e throwable
+     * @return status and data
+     */
+    public static Result wrapThrowable(Throwable e) {
+        Throwable cause = unwrap(e);
+        if (cause instanceof SmartException) {
+            return wrapFailure((SmartException) cause);
+        }
+        return wrapException(asException(cause));
+    }
+
+    /***
+     * like wrapThrowable(Throwable), but business exceptions are wrapped like
+     * wrapImmutableFailure(SmartException) and other exceptions like wrapImmutableException(Exception)
+     * @param e throwable
+     * @param <T> return data
+     * @return immutable status and data
+     */
+    public static <T> Result<T> wrapImmutableThrowable(Throwable e) {
+        Throwable cause = unwrap(e);
+        if (cause instanceof SmartException) {
+            return wrapImmutableFailure((SmartException) cause);
+        }
+        return wrapImmutableException(asException(cause));
+    }
+
+    private static Throwable unwrap(Throwable e) {
+        Throwable cause = e;
+        while ((cause instanceof CompletionException || cause instanceof ExecutionException)
+                && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause;
+    }
+
+    private static Exception asException(Throwable cause) {
+        if (cause instanceof Exception) {
+            return (Exception) cause;
+        }
+        if (cause instanceof Error) {
+            throw (Error) cause;
+        }
+        return new RuntimeException(cause);
     }
 
     /**
@@ -95,4 +439,15 @@ public class ResultUtils {
     public static Result wrapException() {
         return wrapFailure(SYSTEM_EXCEPTION_CODE, SYSTEM_EXCEPTION_MSG);
     }
+
+    /***
+     * failure of a system exception without logging, the returned result is shared and immutable
+     * @param <T> return data
+     * @return status and data
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> Result<T> wrapImmutableException() {
+        count(SYSTEM_EXCEPTION_CODE);
+        return SYSTEM_EXCEPTION_RESULT;
+    }
 }
@@ -0,0 +1,91 @@
+package io.wangxin.result;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * FailCodeRegistry class test
+ * Tests lookup by code, duplicate detection and both table layouts
+ *
+ * @author Test
+ */
+@DisplayName("FailCodeRegistry Class Test")
+public class FailCodeRegistryTest {
+
+    @Test
+    @DisplayName("Test lookup of every registered code")
+    void testLookup() {
+        // Execute
+        FailCodeRegistry registry = new FailCodeRegistry().register(MyFailCode.class);
+
+        // Verify
+        assertEquals(MyFailCode.values().length, registry.size());
+        for (MyFailCode failCode : MyFailCode.values()) {
+            assertSame(failCode, registry.get(failCode.getValue()));
+        }
+        assertNull(registry.get(1006));
+        assertNull(registry.get(-1));
+        assertFalse(registry.contains(Integer.MAX_VALUE));
+    }
+
+    @Test
+    @DisplayName("Test dense codes")
+    void testDense() {
+        FailCodeRegistry registry = new FailCodeRegistry()
+                .register(MyFailCode.USER_NOT_FOUND, MyFailCode.USER_ALREADY_EXISTS, MyFailCode.USER_ACCOUNT_LOCKED);
+
+        assertSame(MyFailCode.USER_ALREADY_EXISTS, registry.get(1002));
+        assertNull(registry.get(1003));
+        assertNull(registry.get(Integer.MIN_VALUE));
+    }
+
+    @Test
+    @DisplayName("Test sparse and extreme codes")
+    void testSparse() {
+        FailCodeRegistry registry = new FailCodeRegistry()
+                .register(code(Integer.MIN_VALUE), code(Integer.MAX_VALUE), code(0), code(-1), code(404));
+
+        assertEquals(5, registry.size());
+        assertEquals(Integer.MIN_VALUE, registry.get(Integer.MIN_VALUE).getValue());
+        assertEquals(Integer.MAX_VALUE, registry.get(Integer.MAX_VALUE).getValue());
+        assertEquals(404, registry.get(404).getValue());
+        assertNull(registry.get(405));
+    }
+
+    @Test
+    @DisplayName("Test duplicate codes are rejected")
+    void testDuplicates() {
+        FailCodeRegistry registry = new FailCodeRegistry().register(MyFailCode.class);
+
+        assertThrows(IllegalArgumentException.class, () -> registry.register(code(MyFailCode.SYSTEM_OVERLOAD.getValue())));
+        assertThrows(IllegalArgumentException.class, () -> new FailCodeRegistry().register(code(7), code(7)));
+        assertEquals(MyFailCode.values().length, registry.size());
+    }
+
+    @Test
+    @DisplayName("Test registering the same fail code again is ignored")
+    void testIdempotent() {
+        FailCodeRegistry registry = new FailCodeRegistry()
+                .register(MyFailCode.UNKNOWN_ERROR, MyFailCode.UNKNOWN_ERROR)
+                .register(MyFailCode.UNKNOWN_ERROR);
+
+        assertEquals(1, registry.size());
+        assertSame(MyFailCode.UNKNOWN_ERROR, registry.getFailCodes().get(0));
+    }
+
+    private static IFailCode code(final int value) {
+        return new IFailCode() {
+            @Override
+            public int getValue() {
+                return value;
+            }
+
+            @Override
+            public String getDesc() {
+                return "Code " + value;
+            }
+        };
+    }
+}
@@ -0,0 +1,135 @@
+package io.wangxin.result;
+
+import io.wangxin.result.utils.ResultUtils;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * ImmutableResult class test
+ * Tests factories, immutability and sharing of ImmutableResult
+ *
+ * @author Test
+ */
+@DisplayName("ImmutableResult Class Test")
+public class ImmutableResultTest {
+
+    @Test
+    @DisplayName("Test success without data is a shared constant")
+    void testSharedSuccess() {
+        Result<Void> first = ResultUtils.wrapImmutableSuccess();
+        Result<String> second = ImmutableResult.success();
+
+        assertSame(first, second);
+        assertTrue(first.isSuccess());
+        assertEquals("", first.getMessage());
+        assertNull(first.getData());
+        assertSame(second, ImmutableResult.success(null));
+    }
+
+    @Test
+    @DisplayName("Test fail code results are immutable with and without parameters")
+    void testFailCodeFailuresImmutable() {
+        Result<String> plain = ResultUtils.wrapImmutableFailure(MyFailCode.USER_NOT_FOUND, new String[0]);
+        Result<String> formatted = ResultUtils.wrapImmutableFailure(MyFailCode.USER_NOT_FOUND, "123");
+
+        assertTrue(plain instanceof ImmutableResult);
+        assertTrue(formatted instanceof ImmutableResult);
+        assertThrows(UnsupportedOperationException.class, () -> plain.setData("changed"));
+        assertThrows(UnsupportedOperationException.class, () -> formatted.setData("changed"));
+        assertEquals("User not found: 123", formatted.getMessage());
+    }
+
+    @Test
+    @DisplayName("Test success with data")
+    void testSuccessWithData() {
+        ImmutableResult<String> result = ImmutableResult.success("Test data");
+
+        assertTrue(result.isSuccess());
+        assertEquals(0, result.getCode());
+        assertEquals("", result.getMessage());
+        assertEquals("Test data", result.getData());
+    }
+
+    @Test
+    @DisplayName("Test failure")
+    void testFailure() {
+        ImmutableResult<String> result = ImmutableResult.failure(404, "Not Found");
+
+        assertFalse(result.isSuccess());
+        assertEquals(404, result.getCode());
+        assertEquals("Not Found", result.getMessage());
+        assertNull(result.getData());
+    }
+
+    @Test
+    @DisplayName("Test setters are rejected")
+    void testSettersRejected() {
+        ImmutableResult<String> result = ImmutableResult.success("Test data");
+
+        assertThrows(UnsupportedOperationException.class, () -> result.setCode(500));
+        assertThrows(UnsupportedOperationException.class, () -> result.setMessage("changed"));
+        assertThrows(UnsupportedOperationException.class, () -> result.setData("changed"));
+    }
+
+    @Test
+    @DisplayName("Test copy of mutable result")
+    void testCopyOf() {
+        Result<String> mutable = new Result<>(500, "System error");
+        mutable.setData("Test data");
+
+        ImmutableResult<String> copy = ImmutableResult.copyOf(mutable);
+        mutable.setCode(0);
+
+        assertEquals(500, copy.getCode());
+        assertEquals("System error", copy.getMessage());
+        assertEquals("Test data", copy.getData());
+        assertSame(copy, ImmutableResult.copyOf(copy));
+        assertSame(ImmutableResult.success(), ImmutableResult.copyOf(new Result<>(0, "")));
+    }
+
+    @Test
+    @DisplayName("Test immutable results are equal by value, mutable results by identity")
+    void testEqualsWithMutable() {
+        Result<String> mutable = new Result<>(404, "Not Found");
+
+        assertEquals(ImmutableResult.failure(404, "Not Found"), ImmutableResult.failure(404, "Not Found"));
+        assertEquals(ImmutableResult.failure(404, "Not Found").hashCode(), ImmutableResult.failure(404, "Not Found").hashCode());
+        assertNotEquals(ImmutableResult.failure(404, "Not Found"), mutable);
+        assertNotEquals(mutable, ImmutableResult.failure(404, "Not Found"));
+        assertNotEquals(mutable, new Result<String>(404, "Not Found"));
+        assertEquals(mutable, mutable);
+    }
+
+    @Test
+    @DisplayName("Test state is held in final fields that shadow nothing")
+    void testFinalFields() {
+        for (Field field : ImmutableResult.class.getDeclaredFields()) {
+            assertTrue(Modifier.isFinal(field.getModifiers()), field.getName());
+            if (!Modifier.isStatic(field.getModifiers())) {
+                assertThrows(NoSuchFieldException.class, () -> Result.class.getDeclaredField(field.getName()),
+                        field.getName());
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Test immutable copy is a stable hash key")
+    void testHashKey() {
+        Result<String> mutable = new Result<>(404, "Not Found");
+        Set<Result<String>> keys = new HashSet<>();
+        keys.add(ImmutableResult.copyOf(mutable));
+
+        mutable.setMessage("changed");
+
+        assertTrue(keys.contains(ImmutableResult.failure(404, "Not Found")));
+        assertFalse(keys.contains(new Result<String>(404, "Not Found")));
+        assertFalse(keys.contains(mutable));
+    }
+}
@@ -74,7 +74,6 @@ public class IntegrationTest {
     void testErrorCodeEnumCompleteUsage() {
         // Test various error scenarios
         testErrorScenario(MyFailCode.USER_ALREADY_EXISTS, "test@example.com");
-        testErrorScenario(MyFailCode.USER_PASSWORD_TOO_SHORT, "4");
         testErrorScenario(MyFailCode.ORDER_NOT_FOUND, "ORDER-001");
         testErrorScenario(MyFailCode.PRODUCT_OUT_OF_STOCK, "PROD-001");
         testErrorScenario(MyFailCode.VALIDATION_FAILED, "Email format error");
@@ -82,6 +81,32 @@ public class IntegrationTest {
         testErrorScenario(MyFailCode.SYSTEM_MAINTENANCE);
     }
 
+    @Test
+    @DisplayName("Test %d placeholder with String parameter")
+    void testDecimalPlaceholderWithStringParameter() {
+        // Execute
+        Result<Void> result = ResultUtils.wrapFailure(MyFailCode.USER_PASSWORD_TOO_SHORT, "4");
+
+        // Verify: the String parameter is rendered as it is instead of failing with IllegalFormatConversionException
+        assertFalse(result.isSuccess());
+        assertEquals(MyFailCode.USER_PASSWORD_TOO_SHORT.getValue(), result.getCode());
+        assertEquals("Password too short, minimum 4 characters required", result.getMessage());
+    }
+
+    @Test
+    @DisplayName("Test code 0 is the success code for every factory")
+    void testZeroCodeIsSuccess() {
+        // Execute
+        Result<Void> failure = ResultUtils.wrapFailure(0, "Zero value error");
+        Result<Void> exception = ResultUtils.wrapFailure(new SmartException(0, "Zero value error"));
+        Result<Void> created = new Result<>(0, "Zero value error");
+
+        // Verify: isSuccess() only compares the code, the factory does not matter
+        assertTrue(failure.isSuccess());
+        assertTrue(exception.isSuccess());
+        assertTrue(created.isSuccess());
+    }
+
     @Test
     @DisplayName("Test complete lifecycle of Result object")
     void testResultObjectLifecycle() {
@@ -146,7 +171,7 @@ public class IntegrationTest {
         // Test zero value error code
         Result<Void> zeroCodeResult = ResultUtils.wrapFailure(0, "Zero value error");
         assertEquals(0, zeroCodeResult.getCode());
-        assertFalse(zeroCodeResult.isSuccess()); // Note: 0 is not a success code
+        assertTrue(zeroCodeResult.isSuccess()); // Note: 0 is the success code, whichever factory created it
         
         // Test maximum value
         Result<Void> maxCodeResult = ResultUtils.wrapFailure(Integer.MAX_VALUE, "Maximum value error");
@@ -0,0 +1,119 @@
+package io.wangxin.result;
+
+import io.wangxin.result.utils.ResultUtils;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.IllegalFormatException;
+import java.util.MissingFormatArgumentException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * LazyMessageResult class test
+ * Tests deferred rendering and memoization of failure messages
+ *
+ * @author Test
+ */
+@DisplayName("LazyMessageResult Class Test")
+public class LazyMessageResultTest {
+
+    @Test
+    @DisplayName("Test message is rendered on first read only")
+    void testRenderedOnFirstRead() {
+        // Execute
+        LazyMessageResult<Void> result = (LazyMessageResult<Void>) ResultUtils.wrapLazyFailure(MyFailCode.USER_NOT_FOUND, "123");
+
+        // Verify
+        assertFalse(result.isSuccess());
+        assertEquals(MyFailCode.USER_NOT_FOUND.getValue(), result.getCode());
+        assertFalse(result.isMessageRendered());
+        assertEquals("User not found: 123", result.getMessage());
+        assertTrue(result.isMessageRendered());
+        assertSame(result.getMessage(), result.getMessage());
+        assertSame(MyFailCode.USER_NOT_FOUND, result.getFailCode());
+    }
+
+    @Test
+    @DisplayName("Test arguments are copied")
+    void testArgumentsCopied() {
+        String[] args = {"ORDER-001"};
+        Result<Void> result = ResultUtils.wrapLazyFailure(MyFailCode.ORDER_NOT_FOUND, args);
+        args[0] = "changed";
+
+        assertEquals("Order not found: ORDER-001", result.getMessage());
+    }
+
+    @Test
+    @DisplayName("Test no arguments returns the shared failure")
+    void testNoArguments() {
+        assertSame(ResultUtils.wrapImmutableFailure(MyFailCode.USER_ACCOUNT_LOCKED),
+                ResultUtils.wrapLazyFailure(MyFailCode.USER_ACCOUNT_LOCKED));
+    }
+
+    @Test
+    @DisplayName("Test bad pattern or missing argument fails at construction")
+    void testCheckedAtConstruction() {
+        assertThrows(MissingFormatArgumentException.class,
+                () -> ResultUtils.wrapLazyFailure(failCode("Copy %s to %s"), "source"));
+        assertThrows(IllegalFormatException.class, () -> ResultUtils.wrapLazyFailure(failCode("Bad pattern %q"), "value"));
+    }
+
+    @Test
+    @DisplayName("Test memoized message shadows no inherited field")
+    void testNoShadowedFields() {
+        for (Field field : LazyMessageResult.class.getDeclaredFields()) {
+            if (!Modifier.isStatic(field.getModifiers())) {
+                assertThrows(NoSuchFieldException.class, () -> Result.class.getDeclaredField(field.getName()),
+                        field.getName());
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Test result can not be modified")
+    void testImmutable() {
+        Result<Void> result = ResultUtils.wrapLazyFailure(MyFailCode.USER_NOT_FOUND, "123");
+
+        assertThrows(UnsupportedOperationException.class, () -> result.setMessage("changed"));
+    }
+
+    @Test
+    @DisplayName("Test serialization writes the rendered message")
+    void testSerialization() throws Exception {
+        Result<Void> result = ResultUtils.wrapLazyFailure(MyFailCode.PAYMENT_FAILED, "card declined");
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ObjectOutputStream out = new ObjectOutputStream(bytes);
+        out.writeObject(result);
+        out.close();
+        Object copy = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray())).readObject();
+
+        assertEquals(ImmutableResult.class, copy.getClass());
+        assertEquals(result, copy);
+        assertEquals("Payment failed: card declined", ((Result<?>) copy).getMessage());
+    }
+
+    /**
+     * Helper method: Create a non enum fail code
+     */
+    private IFailCode failCode(String desc) {
+        return new IFailCode() {
+            @Override
+            public int getValue() {
+                return 7002;
+            }
+
+            @Override
+            public String getDesc() {
+                return desc;
+            }
+        };
+    }
+}
@@ -0,0 +1,126 @@
+package io.wangxin.result;
+
+import io.wangxin.result.utils.ResultUtils;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Primitive result classes test
+ * Tests IntResult, LongResult, BooleanResult and DoubleResult
+ *
+ * @author Test
+ */
+@DisplayName("Primitive Result Classes Test")
+public class PrimitiveResultTest {
+
+    @Test
+    @DisplayName("Test int success and cached values")
+    void testIntSuccess() {
+        IntResult result = ResultUtils.wrapIntSuccess(42);
+
+        assertTrue(result.isSuccess());
+        assertEquals(0, result.getCode());
+        assertEquals("", result.getMessage());
+        assertEquals(42, result.getData());
+        assertSame(IntResult.success(0), ResultUtils.wrapIntSuccess(0));
+        assertSame(IntResult.success(1), ResultUtils.wrapIntSuccess(1));
+        assertEquals(IntResult.success(100000), IntResult.success(100000));
+    }
+
+    @Test
+    @DisplayName("Test long success and cached values")
+    void testLongSuccess() {
+        LongResult result = ResultUtils.wrapLongSuccess(42L);
+
+        assertTrue(result.isSuccess());
+        assertEquals(42L, result.getData());
+        assertSame(LongResult.success(0L), ResultUtils.wrapLongSuccess(0L));
+        assertEquals(Long.MAX_VALUE, ResultUtils.wrapLongSuccess(Long.MAX_VALUE).getData());
+    }
+
+    @Test
+    @DisplayName("Test boolean success is shared")
+    void testBooleanSuccess() {
+        assertSame(BooleanResult.success(true), ResultUtils.wrapBooleanSuccess(true));
+        assertSame(BooleanResult.success(false), ResultUtils.wrapBooleanSuccess(false));
+        assertTrue(ResultUtils.wrapBooleanSuccess(true).getData());
+        assertFalse(ResultUtils.wrapBooleanSuccess(false).getData());
+    }
+
+    @Test
+    @DisplayName("Test double success and cached values")
+    void testDoubleSuccess() {
+        assertSame(DoubleResult.success(0.0), ResultUtils.wrapDoubleSuccess(0.0));
+        assertSame(DoubleResult.success(1.0), ResultUtils.wrapDoubleSuccess(1.0));
+        assertNotSame(DoubleResult.success(0.0), DoubleResult.success(-0.0));
+        assertEquals(0.75, ResultUtils.wrapDoubleSuccess(0.75).getData());
+    }
+
+    @Test
+    @DisplayName("Test failures")
+    void testFailures() {
+        IntResult intResult = IntResult.failure(MyFailCode.USER_NOT_FOUND);
+        LongResult longResult = LongResult.failure(404, "Not Found");
+        BooleanResult booleanResult = BooleanResult.failure(MyFailCode.SYSTEM_OVERLOAD);
+        DoubleResult doubleResult = DoubleResult.failure(MyFailCode.UNKNOWN_ERROR);
+
+        assertFalse(intResult.isSuccess());
+        assertEquals(MyFailCode.USER_NOT_FOUND.getValue(), intResult.getCode());
+        assertEquals(0, intResult.getData());
+        assertEquals("Not Found", longResult.getMessage());
+        assertFalse(booleanResult.getData());
+        assertEquals(MyFailCode.UNKNOWN_ERROR.getDesc(), doubleResult.getMessage());
+    }
+
+    @Test
+    @DisplayName("Test conversion to Result")
+    void testToResult() {
+        Result<Integer> success = IntResult.success(7).toResult();
+        Result<?> failure = BooleanResult.failure(404, "Not Found").toResult();
+
+        assertEquals(Integer.valueOf(7), success.getData());
+        assertTrue(success.isSuccess());
+        assertEquals(404, failure.getCode());
+        assertNull(failure.getData());
+    }
+
+    @Test
+    @DisplayName("Test failures of enum fail codes are shared")
+    void testSharedFailures() {
+        assertSame(IntResult.failure(MyFailCode.USER_NOT_FOUND), ResultUtils.wrapIntFailure(MyFailCode.USER_NOT_FOUND));
+        assertSame(LongResult.failure(MyFailCode.USER_NOT_FOUND), ResultUtils.wrapLongFailure(MyFailCode.USER_NOT_FOUND));
+        assertSame(BooleanResult.failure(MyFailCode.USER_NOT_FOUND), ResultUtils.wrapBooleanFailure(MyFailCode.USER_NOT_FOUND));
+        assertSame(DoubleResult.failure(MyFailCode.USER_NOT_FOUND), ResultUtils.wrapDoubleFailure(MyFailCode.USER_NOT_FOUND));
+        assertNotSame(IntResult.failure(MyFailCode.USER_NOT_FOUND), IntResult.failure(MyFailCode.SYSTEM_OVERLOAD));
+        assertEquals(MyFailCode.SYSTEM_OVERLOAD.getValue(), ResultUtils.wrapDoubleFailure(MyFailCode.SYSTEM_OVERLOAD).getCode());
+    }
+
+    @Test
+    @DisplayName("Test cached successes stay unique after deserialization")
+    void testSerialization() throws Exception {
+        assertSame(IntResult.success(7), roundTrip(IntResult.success(7)));
+        assertSame(LongResult.success(7L), roundTrip(LongResult.success(7L)));
+        assertSame(BooleanResult.success(true), roundTrip(BooleanResult.success(true)));
+        assertSame(DoubleResult.success(1.0D), roundTrip(DoubleResult.success(1.0D)));
+        assertEquals(IntResult.success(1000), roundTrip(IntResult.success(1000)));
+        assertEquals(DoubleResult.success(-0.0D), roundTrip(DoubleResult.success(-0.0D)));
+        assertNotSame(DoubleResult.success(0.0D), roundTrip(DoubleResult.success(-0.0D)));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T roundTrip(T value) throws IOException, ClassNotFoundException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ObjectOutputStream out = new ObjectOutputStream(bytes);
+        out.writeObject(value);
+        out.close();
+        return (T) new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray())).readObject();
+    }
+}
@@ -0,0 +1,103 @@
+package io.wangxin.result;
+
+import io.wangxin.result.utils.ResultUtils;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * ResultBatch class test
+ * Tests columnar storage, counters and list conversion
+ *
+ * @author Test
+ */
+@DisplayName("ResultBatch Class Test")
+public class ResultBatchTest {
+
+    @Test
+    @DisplayName("Test all success batch")
+    void testAllSuccess() {
+        ResultBatch<String> batch = new ResultBatch<>(2);
+        for (int i = 0; i < 100; i++) {
+            batch.addSuccess("Item " + i);
+        }
+
+        assertEquals(100, batch.size());
+        assertEquals(100, batch.successCount());
+        assertEquals(0, batch.failureCount());
+        assertTrue(batch.isAllSuccess());
+        assertEquals("Item 42", batch.getData(42));
+        assertEquals(0, batch.getCode(42));
+        assertEquals("", batch.getMessage(42));
+    }
+
+    @Test
+    @DisplayName("Test mixed batch")
+    void testMixed() {
+        ResultBatch<String> batch = new ResultBatch<>();
+        batch.addSuccess("Item 0");
+        batch.addFailure(MyFailCode.PRODUCT_OUT_OF_STOCK);
+        batch.addSuccess("Item 2");
+        batch.addFailure(404, null);
+        batch.addFailure(MyFailCode.PRODUCT_OUT_OF_STOCK);
+
+        assertEquals(5, batch.size());
+        assertEquals(2, batch.successCount());
+        assertEquals(3, batch.failureCount());
+        assertTrue(batch.isSuccess(0));
+        assertFalse(batch.isSuccess(1));
+        assertEquals(MyFailCode.PRODUCT_OUT_OF_STOCK.getValue(), batch.getCode(4));
+        assertEquals(MyFailCode.PRODUCT_OUT_OF_STOCK.getDesc(), batch.getMessage(4));
+        assertNull(batch.getMessage(3));
+        assertEquals("", batch.getMessage(0));
+        assertEquals("Item 2", batch.getData(2));
+        assertNull(batch.getData(1));
+    }
+
+    @Test
+    @DisplayName("Test iteration without materializing results")
+    void testForEach() {
+        ResultBatch<Integer> batch = new ResultBatch<>();
+        batch.addSuccess(1);
+        batch.addFailure(500, "System error");
+        final List<String> visited = new ArrayList<>();
+
+        batch.forEach((index, code, message, data) -> visited.add(index + ":" + code + ":" + message + ":" + data));
+
+        assertEquals(Arrays.asList("0:0::1", "1:500:System error:null"), visited);
+    }
+
+    @Test
+    @DisplayName("Test conversion to and from list")
+    void testListConversion() {
+        List<Result<String>> results = new ArrayList<>();
+        results.add(ResultUtils.wrapSuccess("Item 0"));
+        results.add(ResultUtils.wrapFailure(MyFailCode.USER_NOT_FOUND, "123"));
+        results.add(ResultUtils.wrapSuccess());
+
+        ResultBatch<String> batch = ResultBatch.fromList(results);
+        List<Result<String>> copy = batch.toList();
+
+        assertEquals(results.size(), copy.size());
+        for (int i = 0; i < results.size(); i++) {
+            assertEquals(ImmutableResult.copyOf(results.get(i)), copy.get(i));
+        }
+        assertEquals(1, batch.failureCount());
+        assertSame(ImmutableResult.success(), copy.get(2));
+    }
+
+    @Test
+    @DisplayName("Test index out of bounds")
+    void testIndexOutOfBounds() {
+        ResultBatch<String> batch = new ResultBatch<>();
+        batch.addSuccess("Item 0");
+
+        assertThrows(IndexOutOfBoundsException.class, () -> batch.getData(1));
+        assertThrows(IndexOutOfBoundsException.class, () -> batch.getCode(-1));
+    }
+}
@@ -0,0 +1,133 @@
+package io.wangxin.result;
+
+import io.wangxin.result.utils.ResultUtils;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * ResultPipeline class test
+ * Tests the fused steps and reuse of existing result instances
+ *
+ * @author Test
+ */
+@DisplayName("ResultPipeline Class Test")
+public class ResultPipelineTest {
+
+    private static final ResultPipeline<String, Integer> LENGTH = ResultPipeline.<String>start()
+            .map(String::trim)
+            .filter(s -> !s.isEmpty(), MyFailCode.REQUIRED_FIELD_MISSING)
+            .map(String::length);
+
+    @Test
+    @DisplayName("Test success runs all steps into one result")
+    void testSuccess() {
+        // Execute
+        Result<Integer> result = LENGTH.apply(ResultUtils.wrapSuccess("  order  "));
+
+        // Verify
+        assertTrue(result.isSuccess());
+        assertEquals(5, result.getData());
+        assertEquals(3, LENGTH.size());
+    }
+
+    @Test
+    @DisplayName("Test failure input is returned as is")
+    void testFailureInput() {
+        Result<String> failure = ResultUtils.wrapFailure(MyFailCode.ORDER_NOT_FOUND);
+
+        // Execute
+        Result<Integer> result = ResultPipeline.<String>start()
+                .map(s -> {
+                    throw new AssertionError("not called");
+                })
+                .map(o -> 1)
+                .apply(failure);
+
+        // Verify
+        assertSame(failure, result);
+    }
+
+    @Test
+    @DisplayName("Test failures are returned without data of another type")
+    void testFailureWithData() {
+        Result<String> failure = new ImmutableResult<>(500, "Partial", "partial data");
+
+        // Execute
+        Result<Integer> input = LENGTH.apply(failure);
+        Result<Integer> step = ResultPipeline.<String>start()
+                .flatMap(s -> new ImmutableResult<Long>(500, "Partial", 1L))
+                .map(Long::intValue)
+                .apply(ResultUtils.wrapSuccess("order"));
+
+        // Verify
+        assertEquals(500, input.getCode());
+        assertNull(input.getData());
+        assertEquals("Partial", step.getMessage());
+        assertNull(step.getData());
+    }
+
+    @Test
+    @DisplayName("Test filter fails with the shared result of the fail code")
+    void testFilter() {
+        // Execute
+        Result<Integer> result = LENGTH.apply(ResultUtils.wrapSuccess("   "));
+
+        // Verify
+        assertSame(ResultUtils.wrapImmutableFailure(MyFailCode.REQUIRED_FIELD_MISSING), result);
+    }
+
+    @Test
+    @DisplayName("Test flatMap result is returned without copying")
+    void testFlatMap() {
+        Result<Integer> inner = ResultUtils.wrapSuccess(42);
+        Result<Integer> innerFailure = ResultUtils.wrapFailure(MyFailCode.USER_NOT_FOUND);
+
+        // Execute
+        Result<Integer> success = ResultPipeline.<String>start()
+                .flatMap(s -> inner)
+                .apply(ResultUtils.wrapSuccess("user"));
+        Result<String> failure = ResultPipeline.<String>start()
+                .flatMap(s -> innerFailure)
+                .map(String::valueOf)
+                .apply(ResultUtils.wrapSuccess("user"));
+
+        // Verify
+        assertSame(inner, success);
+        assertSame(innerFailure, failure);
+    }
+
+    @Test
+    @DisplayName("Test mapFailure translates or recovers failures")
+    void testMapFailure() {
+        ResultPipeline<String, Integer> pipeline = LENGTH
+                .mapFailure(failure -> ResultUtils.wrapSuccess(0))
+                .map(length -> length + 1);
+
+        // Execute
+        Result<Integer> recovered = pipeline.apply(ResultUtils.wrapFailure(MyFailCode.ORDER_NOT_FOUND));
+        Result<Integer> success = pipeline.apply(ResultUtils.wrapSuccess("ab"));
+
+        // Verify
+        assertEquals(1, recovered.getData());
+        assertEquals(3, success.getData());
+    }
+
+    @Test
+    @DisplayName("Test empty pipeline and pipelines are immutable")
+    void testImmutable() {
+        Result<String> input = ResultUtils.wrapSuccess("value");
+        ResultPipeline<String, String> start = ResultPipeline.start();
+
+        // Execute
+        ResultPipeline<String, Integer> extended = start.map(String::length);
+
+        // Verify
+        assertSame(input, start.apply(input));
+        assertEquals(0, start.size());
+        assertEquals(1, extended.size());
+        assertThrows(IllegalArgumentException.class, () -> start.filter(s -> true, null));
+        assertThrows(IllegalArgumentException.class, () -> start.map(null));
+    }
+}
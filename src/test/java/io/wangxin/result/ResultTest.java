@@ -179,15 +179,18 @@ public class ResultTest {
         result3.setMessage("Not Found");
         result3.setData("Data 2");
         
-        // Test equals
-        assertEquals(result1, result2);
+        // Test equals: mutable results compare by identity, immutable copies by value
+        assertEquals(result1, result1);
+        assertNotEquals(result1, result2);
         assertNotEquals(result1, result3);
         assertNotEquals(result1, null);
         assertNotEquals(result1, "String");
+        assertEquals(ImmutableResult.copyOf(result1), ImmutableResult.copyOf(result2));
+        assertNotEquals(ImmutableResult.copyOf(result1), ImmutableResult.copyOf(result3));
         
         // Test hashCode
-        assertEquals(result1.hashCode(), result2.hashCode());
-        assertNotEquals(result1.hashCode(), result3.hashCode());
+        assertEquals(ImmutableResult.copyOf(result1).hashCode(), ImmutableResult.copyOf(result2).hashCode());
+        assertNotEquals(ImmutableResult.copyOf(result1).hashCode(), ImmutableResult.copyOf(result3).hashCode());
     }
 
     @Test
@@ -0,0 +1,132 @@
+package io.wangxin.result;
+
+import io.wangxin.result.utils.ResultUtils;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Serialization test
+ * Tests the compact serialized forms of Result and SmartException
+ *
+ * @author Test
+ */
+@DisplayName("Serialization Test")
+public class SerializationTest {
+
+    private static byte[] serialize(Object value) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ObjectOutputStream out = new ObjectOutputStream(bytes);
+        out.writeObject(value);
+        out.close();
+        return bytes.toByteArray();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T roundTrip(T value) throws IOException, ClassNotFoundException {
+        return (T) new ObjectInputStream(new ByteArrayInputStream(serialize(value))).readObject();
+    }
+
+    @Test
+    @DisplayName("Test mutable result round trip")
+    void testMutableResult() throws Exception {
+        Result<String> result = new Result<>(404, "Not Found");
+        result.setData("Test data");
+
+        Result<String> copy = roundTrip(result);
+
+        assertEquals(Result.class, copy.getClass());
+        assertEquals(404, copy.getCode());
+        assertEquals("Not Found", copy.getMessage());
+        assertEquals("Test data", copy.getData());
+        copy.setCode(0);
+        assertTrue(copy.isSuccess());
+    }
+
+    @Test
+    @DisplayName("Test shared results resolve to the shared instances")
+    void testSharedResults() throws Exception {
+        assertSame(ResultUtils.wrapImmutableSuccess(), roundTrip(ResultUtils.wrapImmutableSuccess()));
+        assertSame(ResultUtils.wrapImmutableFailure(MyFailCode.SYSTEM_OVERLOAD),
+                roundTrip(ResultUtils.wrapImmutableFailure(MyFailCode.SYSTEM_OVERLOAD)));
+    }
+
+    @Test
+    @DisplayName("Test null message round trip")
+    void testNullMessage() throws Exception {
+        Result<Void> copy = roundTrip(ResultUtils.wrapFailure(1000, null));
+
+        assertEquals(1000, copy.getCode());
+        assertNull(copy.getMessage());
+    }
+
+    @Test
+    @DisplayName("Test compact form is smaller than the default form")
+    void testSmallerThanDefault() throws Exception {
+        Result<String> compact = new Result<>(404, "Not Found");
+        PlainResult<String> plain = new PlainResult<>();
+        plain.setCode(404);
+        plain.setMessage("Not Found");
+
+        assertTrue(serialize(compact).length < serialize(plain).length);
+        assertTrue(serialize(ResultUtils.wrapFailure(MyFailCode.USER_NOT_FOUND)).length < serialize(plain).length);
+        assertEquals(PlainResult.class, roundTrip(plain).getClass());
+    }
+
+    @Test
+    @DisplayName("Test SmartException round trip without stack trace")
+    void testSmartException() throws Exception {
+        SmartException exception = new SmartException(MyFailCode.USER_NOT_FOUND, "123");
+        exception.initCause(new IllegalStateException("Base exception"));
+
+        SmartException copy = roundTrip(exception);
+
+        assertEquals(SmartException.class, copy.getClass());
+        assertEquals(exception.getCode(), copy.getCode());
+        assertEquals("User not found: 123", copy.getDesc());
+        assertEquals(0, copy.getStackTrace().length);
+        assertEquals("Base exception", copy.getCause().getMessage());
+    }
+
+    @Test
+    @DisplayName("Test fail code reference is kept")
+    void testSmartExceptionFailCode() throws Exception {
+        SmartException copy = roundTrip(new SmartException(MyFailCode.ORDER_ALREADY_PAID));
+
+        assertSame(MyFailCode.ORDER_ALREADY_PAID, copy.getFailCode());
+        assertSame(StacklessSmartException.of(MyFailCode.ORDER_ALREADY_PAID),
+                roundTrip(StacklessSmartException.of(MyFailCode.ORDER_ALREADY_PAID)));
+    }
+
+    @Test
+    @DisplayName("Test SmartException written before the compact form still reads")
+    void testSmartExceptionOldForm() throws Exception {
+        // new SmartException(404, "Not found") with an empty stack trace, written by the original class
+        byte[] old = Base64.getDecoder().decode("rO0ABXNyACBpby53YW5neGluLnJlc3VsdC5TbWFydEV4Y2VwdGlvbkBIwWmVuS40AgAC"
+                + "SQAEY29kZUwABGRlc2N0ABJMamF2YS9sYW5nL1N0cmluZzt4cgATamF2YS5sYW5nLkV4Y2VwdGlvbtD9Hz4aOxzEAgAAeHIAE2ph"
+                + "dmEubGFuZy5UaHJvd2FibGXVxjUnOXe4ywMABEwABWNhdXNldAAVTGphdmEvbGFuZy9UaHJvd2FibGU7TAANZGV0YWlsTWVzc2Fn"
+                + "ZXEAfgABWwAKc3RhY2tUcmFjZXQAHltMamF2YS9sYW5nL1N0YWNrVHJhY2VFbGVtZW50O0wAFHN1cHByZXNzZWRFeGNlcHRpb25z"
+                + "dAAQTGphdmEvdXRpbC9MaXN0O3hwcQB+AAdwdXIAHltMamF2YS5sYW5nLlN0YWNrVHJhY2VFbGVtZW50OwJGKjw8/SI5AgAAeHAA"
+                + "AAAAc3IAH2phdmEudXRpbC5Db2xsZWN0aW9ucyRFbXB0eUxpc3R6uBe0PKee3gIAAHhweAAAAZR0AAlOb3QgZm91bmQ=");
+
+        SmartException copy = (SmartException) new ObjectInputStream(new ByteArrayInputStream(old)).readObject();
+
+        assertEquals(404, copy.getCode());
+        assertEquals("Not found", copy.getDesc());
+    }
+
+    /**
+     * Result subclass that keeps the default serialized form
+     */
+    private static class PlainResult<T> extends Result<T> {
+        private static final long serialVersionUID = 1L;
+    }
+}
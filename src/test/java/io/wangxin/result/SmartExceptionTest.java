@@ -219,6 +219,29 @@ public class SmartExceptionTest {
         assertNotEquals(exception1.hashCode(), exception3.hashCode());
     }
 
+    @Test
+    @DisplayName("Test constructor with IFailCode and dynamic parameters")
+    void testConstructorWithIFailCodeAndParams() {
+        // Execute
+        SmartException exception = new SmartException(MyFailCode.USER_NOT_FOUND, "123");
+
+        // Verify
+        assertEquals(MyFailCode.USER_NOT_FOUND.getValue(), exception.getCode());
+        assertEquals("User not found: 123", exception.getDesc());
+        assertNull(exception.getFailCode());
+    }
+
+    @Test
+    @DisplayName("Test fail code is dropped after modification")
+    void testFailCodeDroppedAfterModification() {
+        SmartException exception = new SmartException(MyFailCode.USER_ACCOUNT_LOCKED);
+        assertSame(MyFailCode.USER_ACCOUNT_LOCKED, exception.getFailCode());
+
+        exception.setDesc("Updated description");
+
+        assertNull(exception.getFailCode());
+    }
+
     /**
      * Test IFailCode implementation class
      */
@@ -0,0 +1,111 @@
+package io.wangxin.result;
+
+import io.wangxin.result.utils.ResultUtils;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * StacklessSmartException class test
+ * Tests stack trace skipping, preallocation and conversion to Result
+ *
+ * @author Test
+ */
+@DisplayName("StacklessSmartException Class Test")
+public class StacklessSmartExceptionTest {
+
+    @Test
+    @DisplayName("Test no stack trace is captured")
+    void testNoStackTrace() {
+        StacklessSmartException exception = new StacklessSmartException(MyFailCode.USER_NOT_FOUND);
+
+        assertEquals(0, exception.getStackTrace().length);
+        assertEquals(MyFailCode.USER_NOT_FOUND.getValue(), exception.getCode());
+        assertEquals(MyFailCode.USER_NOT_FOUND.getDesc(), exception.getDesc());
+        assertSame(MyFailCode.USER_NOT_FOUND, exception.getFailCode());
+    }
+
+    @Test
+    @DisplayName("Test preallocated instance per enum fail code")
+    void testPreallocated() {
+        StacklessSmartException first = StacklessSmartException.of(MyFailCode.ORDER_ALREADY_PAID);
+        StacklessSmartException second = StacklessSmartException.of(MyFailCode.ORDER_ALREADY_PAID);
+
+        assertSame(first, second);
+        assertNotSame(first, StacklessSmartException.of(MyFailCode.SYSTEM_OVERLOAD));
+    }
+
+    @Test
+    @DisplayName("Test shared instance can be thrown and caught")
+    void testThrowAndCatch() {
+        try {
+            throw StacklessSmartException.of(MyFailCode.USER_ACCOUNT_LOCKED);
+        } catch (SmartException e) {
+            Result<Void> result = ResultUtils.wrapImmutableFailure(e);
+
+            assertFalse(result.isSuccess());
+            assertEquals(MyFailCode.USER_ACCOUNT_LOCKED.getValue(), result.getCode());
+            assertSame(ResultUtils.wrapImmutableFailure(MyFailCode.USER_ACCOUNT_LOCKED), result);
+        }
+    }
+
+    @Test
+    @DisplayName("Test suppressed exceptions are not recorded")
+    void testSuppressionDisabled() {
+        StacklessSmartException exception = StacklessSmartException.of(MyFailCode.UNKNOWN_ERROR);
+        exception.addSuppressed(new RuntimeException("ignored"));
+
+        assertEquals(0, exception.getSuppressed().length);
+    }
+
+    @Test
+    @DisplayName("Test code and desc can not be modified")
+    void testImmutable() {
+        StacklessSmartException exception = StacklessSmartException.of(MyFailCode.SYSTEM_MAINTENANCE);
+
+        assertThrows(UnsupportedOperationException.class, () -> exception.setCode(1));
+        assertThrows(UnsupportedOperationException.class, () -> exception.setDesc("changed"));
+    }
+
+    @Test
+    @DisplayName("Test state is held in the fields of SmartException")
+    void testNoShadowedFields() throws Exception {
+        for (Field field : StacklessSmartException.class.getDeclaredFields()) {
+            assertTrue(Modifier.isStatic(field.getModifiers()), field.getName());
+        }
+        Field code = SmartException.class.getDeclaredField("code");
+        code.setAccessible(true);
+        assertEquals(MyFailCode.PAYMENT_FAILED.getValue(), code.getInt(StacklessSmartException.of(MyFailCode.PAYMENT_FAILED)));
+    }
+
+    @Test
+    @DisplayName("Test threads racing for the preallocated instance get the same complete one")
+    void testConcurrentPreallocation() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<StacklessSmartException>> futures = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                futures.add(executor.submit(() -> StacklessSmartException.of(MyFailCode.PAYMENT_FAILED)));
+            }
+
+            for (Future<StacklessSmartException> future : futures) {
+                StacklessSmartException exception = future.get(5, TimeUnit.SECONDS);
+                assertSame(StacklessSmartException.of(MyFailCode.PAYMENT_FAILED), exception);
+                assertEquals(MyFailCode.PAYMENT_FAILED.getValue(), exception.getCode());
+                assertEquals(MyFailCode.PAYMENT_FAILED.getDesc(), exception.getDesc());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package io.wangxin.result.codec;
+
+import io.wangxin.result.IFailCode;
+import io.wangxin.result.MyFailCode;
+import io.wangxin.result.Result;
+import io.wangxin.result.utils.ResultUtils;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * ResultBinaryCodec test
+ * Tests round trips, frame sizes and registered fail codes
+ *
+ * @author Test
+ */
+@DisplayName("ResultBinaryCodec Test")
+public class ResultBinaryCodecTest {
+
+    private final ResultBinaryCodec<String> codec = new ResultBinaryCodec<>(ResultBinaryCodec.STRING_DATA)
+            .register(MyFailCode.class);
+
+    private Result<String> roundTrip(Result<String> result, int expectedSize) {
+        ByteBuffer buffer = ByteBuffer.allocate(256);
+        codec.encode(result, buffer);
+        if (expectedSize >= 0) {
+            assertEquals(expectedSize, buffer.position());
+        }
+        buffer.flip();
+        Result<String> decoded = codec.decode(buffer);
+        assertFalse(buffer.hasRemaining());
+        return decoded;
+    }
+
+    @Test
+    @DisplayName("Test success round trips")
+    void testSuccess() {
+        assertSame(ResultUtils.wrapImmutableSuccess(), roundTrip(ResultUtils.wrapImmutableSuccess(), 2));
+
+        Result<String> decoded = roundTrip(ResultUtils.wrapSuccess("中文 data"), -1);
+        assertTrue(decoded.isSuccess());
+        assertEquals("中文 data", decoded.getData());
+    }
+
+    @Test
+    @DisplayName("Test registered fail code is sent without message")
+    void testRegisteredFailCode() {
+        Result<String> decoded = roundTrip(ResultUtils.wrapImmutableFailure(MyFailCode.SYSTEM_OVERLOAD), 3);
+
+        assertSame(ResultUtils.wrapImmutableFailure(MyFailCode.SYSTEM_OVERLOAD), decoded);
+    }
+
+    @Test
+    @DisplayName("Test dynamic and null messages")
+    void testInlineMessages() {
+        Result<String> dynamic = roundTrip(ResultUtils.wrapImmutableFailure(MyFailCode.USER_NOT_FOUND, "123"), -1);
+        Result<String> nullMessage = roundTrip(ResultUtils.wrapImmutableFailure(-7, null), 2);
+
+        assertEquals(MyFailCode.USER_NOT_FOUND.getValue(), dynamic.getCode());
+        assertEquals("User not found: 123", dynamic.getMessage());
+        assertEquals(-7, nullMessage.getCode());
+        assertNull(nullMessage.getMessage());
+    }
+
+    @Test
+    @DisplayName("Test boundary codes")
+    void testBoundaryCodes() {
+        assertEquals(Integer.MIN_VALUE, roundTrip(ResultUtils.wrapImmutableFailure(Integer.MIN_VALUE, "min"), -1).getCode());
+        assertEquals(Integer.MAX_VALUE, roundTrip(ResultUtils.wrapImmutableFailure(Integer.MAX_VALUE, "max"), -1).getCode());
+    }
+
+    @Test
+    @DisplayName("Test unregistered fail code on the receiver")
+    void testUnregisteredOnReceiver() {
+        ByteBuffer buffer = ByteBuffer.allocate(16);
+        codec.encode(ResultUtils.wrapImmutableFailure(MyFailCode.SYSTEM_OVERLOAD), buffer);
+        buffer.flip();
+
+        ResultBinaryCodec<String> receiver = new ResultBinaryCodec<>(ResultBinaryCodec.STRING_DATA);
+        assertThrows(IllegalArgumentException.class, () -> receiver.decode(buffer));
+    }
+
+    @Test
+    @DisplayName("Test duplicate registration")
+    void testDuplicateRegistration() {
+        IFailCode clash = new IFailCode() {
+            @Override
+            public int getValue() {
+                return MyFailCode.USER_NOT_FOUND.getValue();
+            }
+
+            @Override
+            public String getDesc() {
+                return "Another description";
+            }
+        };
+
+        assertThrows(IllegalArgumentException.class, () -> codec.register(clash));
+    }
+
+    @Test
+    @DisplayName("Test buffer overflow restores position")
+    void testOverflow() {
+        ByteBuffer buffer = ByteBuffer.allocate(4);
+        buffer.put((byte) 1);
+
+        assertThrows(BufferOverflowException.class,
+                () -> codec.encode(ResultUtils.wrapSuccess("too long for buffer"), buffer));
+        assertEquals(1, buffer.position());
+    }
+
+    @Test
+    @DisplayName("Test truncated and malformed frames")
+    void testTruncated() {
+        ByteBuffer full = ByteBuffer.allocate(64);
+        codec.encode(ResultUtils.wrapImmutableFailure(MyFailCode.USER_NOT_FOUND, "123"), full);
+        int size = full.position();
+
+        for (int length = 0; length < size; length++) {
+            ByteBuffer truncated = ByteBuffer.wrap(full.array(), 0, length);
+            assertThrows(IllegalArgumentException.class, () -> codec.decode(truncated), "length " + length);
+            assertEquals(0, truncated.position());
+        }
+        ByteBuffer badTag = ByteBuffer.wrap(new byte[]{(byte) 0x40, 0});
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> codec.decode(badTag));
+        assertTrue(e.getMessage().contains("offset 0"));
+    }
+
+    @Test
+    @DisplayName("Test varint encoding")
+    void testVarInt() {
+        ByteBuffer buffer = ByteBuffer.allocate(64);
+        WireFormat.writeVarInt(buffer, -1);
+        WireFormat.writeVarLong(buffer, Long.MIN_VALUE);
+        assertEquals(1 + 10, buffer.position());
+        buffer.flip();
+
+        assertEquals(-1, WireFormat.readVarInt(buffer));
+        assertEquals(Long.MIN_VALUE, WireFormat.readVarLong(buffer));
+    }
+}
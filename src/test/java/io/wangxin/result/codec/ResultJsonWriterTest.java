@@ -0,0 +1,125 @@
+package io.wangxin.result.codec;
+
+import io.wangxin.result.ImmutableResult;
+import io.wangxin.result.MyFailCode;
+import io.wangxin.result.Result;
+import io.wangxin.result.utils.ResultUtils;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * ResultJsonWriter test
+ * Tests JSON output of success and failure results to every target
+ *
+ * @author Test
+ */
+@DisplayName("ResultJsonWriter Test")
+public class ResultJsonWriterTest {
+
+    private final ResultJsonWriter<Object> writer = ResultJsonWriter.scalar();
+
+    @Test
+    @DisplayName("Test success with scalar data")
+    void testSuccessScalar() {
+        assertEquals("{\"code\":0,\"message\":\"\",\"data\":\"John\"}", writer.toJson(ResultUtils.wrapSuccess("John")));
+        assertEquals("{\"code\":0,\"message\":\"\",\"data\":-42}", writer.toJson(ResultUtils.wrapSuccess(-42L)));
+        assertEquals("{\"code\":0,\"message\":\"\",\"data\":true}", writer.toJson(ResultUtils.wrapSuccess(true)));
+        assertEquals("{\"code\":0,\"message\":\"\",\"data\":1.5}", writer.toJson(ResultUtils.wrapSuccess(1.5)));
+        assertEquals("{\"code\":0,\"message\":\"\",\"data\":null}", writer.toJson(ResultUtils.wrapSuccess()));
+    }
+
+    @Test
+    @DisplayName("Test failure results")
+    void testFailure() {
+        String expected = "{\"code\":5002,\"message\":\"System overload, please try again later\",\"data\":null}";
+
+        assertEquals(expected, writer.toJson(ResultUtils.wrapFailure(MyFailCode.SYSTEM_OVERLOAD)));
+        assertEquals(expected, writer.toJson(ResultUtils.wrapFailure(MyFailCode.SYSTEM_OVERLOAD)));
+        assertEquals("{\"code\":1001,\"message\":\"User not found: 123\",\"data\":null}",
+                writer.toJson(ResultUtils.wrapFailure(MyFailCode.USER_NOT_FOUND, "123")));
+        assertEquals("{\"code\":" + Integer.MIN_VALUE + ",\"message\":null,\"data\":null}",
+                writer.toJson(new Result<>(Integer.MIN_VALUE, null)));
+    }
+
+    @Test
+    @DisplayName("Test only fail code results are pre-encoded")
+    void testHeadCache() {
+        writer.toJson(ResultUtils.wrapFailure(MyFailCode.EXTERNAL_SERVICE_TIMEOUT));
+        int cached = ResultJsonWriter.cachedHeadCount();
+
+        // Execute
+        for (int i = 0; i < 100; i++) {
+            writer.toJson(ResultUtils.wrapLazyFailure(MyFailCode.USER_NOT_FOUND, String.valueOf(i)));
+            writer.toJson(new ImmutableResult<>(404, "Not found: " + i, null));
+            writer.toJson(ResultUtils.wrapFailure(MyFailCode.EXTERNAL_SERVICE_TIMEOUT));
+        }
+
+        // Verify
+        assertEquals(cached, ResultJsonWriter.cachedHeadCount());
+        assertEquals("{\"code\":1001,\"message\":\"User not found: 7\",\"data\":null}",
+                writer.toJson(ResultUtils.wrapLazyFailure(MyFailCode.USER_NOT_FOUND, "7")));
+    }
+
+    @Test
+    @DisplayName("Test string escaping and UTF-8")
+    void testEscaping() {
+        String json = writer.toJson(ResultUtils.wrapSuccess("q\"b\\n\n\u0001 中文 😀"));
+
+        assertEquals("{\"code\":0,\"message\":\"\",\"data\":\"q\\\"b\\\\n\\n\\u0001 中文 😀\"}", json);
+    }
+
+    @Test
+    @DisplayName("Test every output target writes the same bytes")
+    void testTargets() throws Exception {
+        Result<Object> result = ResultUtils.wrapSuccess("中文");
+        byte[] expected = writer.toBytes(result);
+
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        writer.write(result, stream);
+        StringWriter chars = new StringWriter();
+        writer.write(result, chars);
+        ByteBuffer buffer = ByteBuffer.allocate(128);
+        writer.write(result, buffer);
+        buffer.flip();
+        byte[] fromBuffer = new byte[buffer.remaining()];
+        buffer.get(fromBuffer);
+
+        assertArrayEquals(expected, stream.toByteArray());
+        assertEquals(new String(expected, StandardCharsets.UTF_8), chars.toString());
+        assertArrayEquals(expected, fromBuffer);
+    }
+
+    @Test
+    @DisplayName("Test pluggable data encoder")
+    void testDataEncoder() {
+        ResultJsonWriter<List<Integer>> listWriter = new ResultJsonWriter<>((data, out) -> {
+            out.writeAscii('[');
+            for (int i = 0; i < data.size(); i++) {
+                if (i > 0) {
+                    out.writeAscii(',');
+                }
+                out.writeInt(data.get(i));
+            }
+            out.writeAscii(']');
+        });
+
+        assertEquals("{\"code\":0,\"message\":\"\",\"data\":[1,2,3]}",
+                listWriter.toJson(ResultUtils.wrapSuccess(Arrays.asList(1, 2, 3))));
+    }
+
+    @Test
+    @DisplayName("Test unsupported data type")
+    void testUnsupportedData() {
+        assertThrows(IllegalArgumentException.class, () -> writer.toJson(ResultUtils.wrapSuccess(new Object())));
+        assertEquals("{\"code\":0,\"message\":\"\",\"data\":\"ok\"}", writer.toJson(ResultUtils.wrapSuccess("ok")));
+    }
+}
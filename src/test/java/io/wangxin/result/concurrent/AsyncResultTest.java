@@ -0,0 +1,195 @@
+package io.wangxin.result.concurrent;
+
+import io.wangxin.result.IFailCode;
+import io.wangxin.result.MyFailCode;
+import io.wangxin.result.Result;
+import io.wangxin.result.SmartException;
+import io.wangxin.result.utils.ResultUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * AsyncResult test
+ * Tests the non-blocking combinators and conversion of exceptions
+ *
+ * @author Test
+ */
+@DisplayName("AsyncResult Test")
+public class AsyncResultTest {
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(2);
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("Test map and flatMap on success")
+    void testMapAndFlatMap() {
+        // Execute
+        Result<Integer> result = AsyncResult.supplyAsync(() -> ResultUtils.wrapSuccess("order-42"), executor)
+                .map(String::length)
+                .flatMap(length -> AsyncResult.completed(ResultUtils.wrapSuccess(length * 2)))
+                .join();
+
+        // Verify
+        assertTrue(result.isSuccess());
+        assertEquals(16, result.getData());
+    }
+
+    @Test
+    @DisplayName("Test failures short-circuit with the same instance")
+    void testFailureShortCircuit() {
+        Result<String> failure = ResultUtils.wrapImmutableFailure(MyFailCode.ORDER_NOT_FOUND);
+
+        // Execute
+        Result<Integer> result = AsyncResult.completed(failure)
+                .map(data -> {
+                    throw new AssertionError("not called");
+                })
+                .flatMap(data -> {
+                    throw new AssertionError("not called");
+                })
+                .map(data -> 1)
+                .join();
+
+        // Verify
+        assertSame(failure, result);
+    }
+
+    @Test
+    @DisplayName("Test failures with data are passed on without their data")
+    void testFailureWithData() {
+        Result<String> failure = new Result<>(500, "Partial");
+        failure.setData("partial data");
+
+        // Execute
+        Result<Integer> result = AsyncResult.completed(failure).map(String::length).join();
+
+        // Verify
+        assertEquals(500, result.getCode());
+        assertEquals("Partial", result.getMessage());
+        assertNull(result.getData());
+    }
+
+    @Test
+    @DisplayName("Test exceptions are converted to results")
+    void testExceptions() {
+        CompletableFuture<Result<String>> business = new CompletableFuture<>();
+        business.completeExceptionally(new SmartException(MyFailCode.ORDER_NOT_FOUND));
+
+        // Execute
+        Result<String> businessResult = AsyncResult.of(business).join();
+        Result<Integer> mapperResult = AsyncResult.completed(ResultUtils.wrapSuccess("x"))
+                .map(data -> Integer.parseInt(data))
+                .join();
+        Result<String> supplierResult = AsyncResult.<String>supplyAsync(() -> null, executor).join();
+
+        // Verify
+        assertSame(ResultUtils.wrapImmutableFailure(MyFailCode.ORDER_NOT_FOUND), businessResult);
+        assertEquals(IFailCode.SYSTEM_EXCEPTION_CODE, mapperResult.getCode());
+        assertEquals(IFailCode.SYSTEM_EXCEPTION_CODE, supplierResult.getCode());
+    }
+
+    @Test
+    @DisplayName("Test recover replaces failures only")
+    void testRecover() {
+        // Execute
+        Result<String> recovered = AsyncResult.<String>completed(ResultUtils.wrapImmutableFailure(MyFailCode.ORDER_NOT_FOUND))
+                .recover(failure -> ResultUtils.wrapSuccess("default"))
+                .join();
+        Result<String> success = ResultUtils.wrapSuccess("value");
+        Result<String> untouched = AsyncResult.completed(success)
+                .recover(failure -> ResultUtils.wrapSuccess("default"))
+                .join();
+
+        // Verify
+        assertEquals("default", recovered.getData());
+        assertSame(success, untouched);
+    }
+
+    @Test
+    @DisplayName("Test zip combines successes and fails without waiting")
+    void testZip() {
+        CompletableFuture<Result<Integer>> never = new CompletableFuture<>();
+        Result<String> failure = ResultUtils.wrapImmutableFailure(MyFailCode.USER_NOT_FOUND);
+
+        // Execute
+        Result<String> combined = AsyncResult.completed(ResultUtils.wrapSuccess("a"))
+                .zip(AsyncResult.completed(ResultUtils.wrapSuccess(1)), (a, b) -> a + b)
+                .join();
+        AsyncResult<String> failed = AsyncResult.of(never)
+                .zip(AsyncResult.completed(failure), (a, b) -> a + b);
+
+        // Verify
+        assertEquals("a1", combined.getData());
+        assertTrue(failed.isDone());
+        assertSame(failure, failed.join());
+    }
+
+    @Test
+    @DisplayName("Test allOf collects data in order and fails fast")
+    void testAllOf() {
+        CompletableFuture<Result<Integer>> never = new CompletableFuture<>();
+        Result<Integer> failure = ResultUtils.wrapImmutableFailure(MyFailCode.PRODUCT_OUT_OF_STOCK);
+
+        // Execute
+        Result<List<Integer>> all = AsyncResult.allOf(Arrays.asList(
+                AsyncResult.supplyAsync(() -> ResultUtils.wrapSuccess(1), executor),
+                AsyncResult.completed(ResultUtils.wrapSuccess(2)),
+                AsyncResult.supplyAsync(() -> ResultUtils.wrapSuccess(3), executor))).join();
+        AsyncResult<List<Integer>> failed = AsyncResult.allOf(Arrays.asList(
+                AsyncResult.of(never), AsyncResult.completed(failure)));
+
+        // Verify
+        assertEquals(Arrays.asList(1, 2, 3), all.getData());
+        assertTrue(failed.isDone());
+        assertSame(failure, failed.join());
+        assertTrue(AsyncResult.<Integer>allOf(Arrays.asList()).join().getData().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Test anyOf returns the first success or the first failure")
+    void testAnyOf() {
+        CompletableFuture<Result<Integer>> never = new CompletableFuture<>();
+        Result<Integer> first = ResultUtils.wrapImmutableFailure(MyFailCode.PRODUCT_OUT_OF_STOCK);
+        Result<Integer> second = ResultUtils.wrapImmutableFailure(MyFailCode.USER_NOT_FOUND);
+
+        // Execute
+        AsyncResult<Integer> success = AsyncResult.anyOf(Arrays.asList(
+                AsyncResult.of(never), AsyncResult.completed(first), AsyncResult.completed(ResultUtils.wrapSuccess(7))));
+        Result<Integer> failed = AsyncResult.anyOf(Arrays.asList(
+                AsyncResult.completed(first), AsyncResult.completed(second))).join();
+
+        // Verify
+        assertTrue(success.isDone());
+        assertEquals(7, success.join().getData());
+        assertSame(first, failed);
+        assertThrows(IllegalArgumentException.class, () -> AsyncResult.anyOf(Arrays.asList()));
+    }
+
+    @Test
+    @DisplayName("Test toCompletableFuture is detached")
+    void testToCompletableFuture() {
+        CompletableFuture<Result<String>> source = new CompletableFuture<>();
+        AsyncResult<String> async = AsyncResult.of(source);
+
+        // Execute
+        async.toCompletableFuture().complete(ResultUtils.wrapSuccess("forced"));
+        source.complete(ResultUtils.wrapSuccess("real"));
+
+        // Verify
+        assertEquals("real", async.join().getData());
+        assertNull(AsyncResult.of(new CompletableFuture<Result<String>>()).getNow(null));
+    }
+}
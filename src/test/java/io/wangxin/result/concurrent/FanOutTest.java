@@ -0,0 +1,230 @@
+package io.wangxin.result.concurrent;
+
+import io.wangxin.result.IFailCode;
+import io.wangxin.result.ImmutableResult;
+import io.wangxin.result.MyFailCode;
+import io.wangxin.result.Result;
+import io.wangxin.result.SmartException;
+import io.wangxin.result.utils.FailureReporter;
+import io.wangxin.result.utils.ResultUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * FanOut test
+ * Tests aggregation, short-circuiting and cancellation
+ *
+ * @author Test
+ */
+@DisplayName("FanOut Test")
+public class FanOutTest {
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("Test all successes are aggregated in order")
+    void testAllSuccess() {
+        List<Callable<Result<Integer>>> calls = Arrays.asList(
+                () -> {
+                    Thread.sleep(20);
+                    return ResultUtils.wrapSuccess(1);
+                },
+                () -> ResultUtils.wrapSuccess(2),
+                () -> ResultUtils.wrapSuccess(3));
+
+        // Execute
+        Result<List<Integer>> result = FanOut.invokeAll(calls, executor);
+
+        // Verify
+        assertTrue(result.isSuccess());
+        assertEquals(Arrays.asList(1, 2, 3), result.getData());
+        assertTrue(FanOut.invokeAll(Collections.<Callable<Result<Integer>>>emptyList(), executor).getData().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Test a failure with data is returned without its data")
+    void testFailureWithData() {
+        List<Callable<Result<Integer>>> calls = Arrays.asList(
+                () -> ResultUtils.wrapSuccess(1),
+                () -> new ImmutableResult<>(500, "Partial", 2));
+
+        // Execute
+        Result<List<Integer>> result = FanOut.invokeAll(calls, executor);
+
+        // Verify
+        assertEquals(500, result.getCode());
+        assertEquals("Partial", result.getMessage());
+        assertNull(result.getData());
+    }
+
+    @Test
+    @DisplayName("Test the first failure cancels the other calls")
+    void testFailureCancelsOthers() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch interrupted = new CountDownLatch(1);
+        Result<Integer> failure = ResultUtils.wrapImmutableFailure(MyFailCode.USER_NOT_FOUND);
+        List<Callable<Result<Integer>>> calls = Arrays.asList(
+                () -> {
+                    started.countDown();
+                    try {
+                        Thread.sleep(TimeUnit.SECONDS.toMillis(30));
+                    } catch (InterruptedException e) {
+                        interrupted.countDown();
+                        throw e;
+                    }
+                    return ResultUtils.wrapSuccess(1);
+                },
+                () -> {
+                    started.await();
+                    return failure;
+                });
+
+        // Execute
+        long start = System.nanoTime();
+        Result<List<Integer>> result = FanOut.invokeAll(calls, executor);
+
+        // Verify
+        assertSame(failure, result);
+        assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(10));
+    }
+
+    @Test
+    @DisplayName("Test exceptions are converted to results")
+    void testExceptions() {
+        List<Callable<Result<Integer>>> business = Collections.singletonList(() -> {
+            throw new SmartException(MyFailCode.ORDER_NOT_FOUND);
+        });
+        List<Callable<Result<Integer>>> system = Collections.singletonList(() -> null);
+
+        // Execute & Verify
+        assertSame(ResultUtils.wrapImmutableFailure(MyFailCode.ORDER_NOT_FOUND), FanOut.invokeAll(business, executor));
+        assertEquals(IFailCode.SYSTEM_EXCEPTION_CODE, FanOut.invokeAll(system, executor).getCode());
+    }
+
+    @Test
+    @DisplayName("Test rejected calls become a failure")
+    void testRejected() {
+        ExecutorService stopped = Executors.newSingleThreadExecutor();
+        stopped.shutdown();
+
+        // Execute
+        Result<List<Integer>> result = FanOut.invokeAll(
+                Collections.<Callable<Result<Integer>>>singletonList(() -> ResultUtils.wrapSuccess(1)), stopped);
+
+        // Verify
+        assertEquals(IFailCode.SYSTEM_EXCEPTION_CODE, result.getCode());
+    }
+
+    @Test
+    @DisplayName("Test a failure on a direct executor does not interrupt the caller")
+    void testDirectExecutorNotInterrupted() {
+        List<Callable<Result<Integer>>> calls = Arrays.asList(
+                () -> ResultUtils.wrapImmutableFailure(MyFailCode.ORDER_NOT_FOUND),
+                () -> ResultUtils.wrapSuccess(2));
+
+        try {
+            // Execute
+            Result<List<Integer>> result = FanOut.invokeAll(calls, Runnable::run);
+
+            // Verify
+            assertEquals(MyFailCode.ORDER_NOT_FOUND.getValue(), result.getCode());
+            assertFalse(Thread.currentThread().isInterrupted());
+        } finally {
+            Thread.interrupted();
+        }
+    }
+
+    @Test
+    @DisplayName("Test a call run by the caller and cancelled by another failure does not interrupt the caller")
+    void testCallerRunsNotInterrupted() {
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(1, 1, 0, TimeUnit.SECONDS,
+                new SynchronousQueue<Runnable>(), new ThreadPoolExecutor.CallerRunsPolicy());
+        CountDownLatch callerRunning = new CountDownLatch(1);
+        List<Callable<Result<Integer>>> calls = Arrays.asList(
+                () -> {
+                    callerRunning.await(5, TimeUnit.SECONDS);
+                    return ResultUtils.wrapImmutableFailure(MyFailCode.ORDER_NOT_FOUND);
+                },
+                () -> {
+                    // waits without clearing the interrupt flag, like a call polling it
+                    callerRunning.countDown();
+                    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+                    while (!Thread.currentThread().isInterrupted() && System.nanoTime() < deadline) {
+                        Thread.yield();
+                    }
+                    return ResultUtils.wrapSuccess(2);
+                });
+
+        try {
+            // Execute: the pool runs the first call, the rejected second one runs on the caller
+            Result<List<Integer>> result = FanOut.invokeAll(calls, pool);
+
+            // Verify
+            assertEquals(MyFailCode.ORDER_NOT_FOUND.getValue(), result.getCode());
+            assertFalse(Thread.currentThread().isInterrupted());
+        } finally {
+            Thread.interrupted();
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Test an interrupted caller gets the system failure without logging")
+    void testInterruptedCaller() {
+        List<String> reported = new CopyOnWriteArrayList<>();
+        FailureReporter previous = ResultUtils.getFailureReporter();
+        ResultUtils.setFailureReporter((message, e) -> reported.add(message));
+        List<Callable<Result<Integer>>> calls = Collections.singletonList(() -> {
+            Thread.sleep(5000);
+            return ResultUtils.wrapSuccess(1);
+        });
+
+        try {
+            // Execute
+            Thread.currentThread().interrupt();
+            Result<List<Integer>> result = FanOut.invokeAll(calls, executor);
+
+            // Verify
+            assertEquals(IFailCode.SYSTEM_EXCEPTION_CODE, result.getCode());
+            assertTrue(Thread.currentThread().isInterrupted());
+            assertTrue(reported.isEmpty());
+        } finally {
+            Thread.interrupted();
+            ResultUtils.setFailureReporter(previous);
+        }
+    }
+
+    @Test
+    @DisplayName("Test virtual threads when the JVM supports them")
+    void testVirtualThreads() {
+        List<Callable<Result<Integer>>> calls = Arrays.asList(
+                () -> ResultUtils.wrapSuccess(1), () -> ResultUtils.wrapSuccess(2));
+
+        if (FanOut.isVirtualThreadsSupported()) {
+            assertEquals(Arrays.asList(1, 2), FanOut.invokeAll(calls).getData());
+        } else {
+            assertThrows(UnsupportedOperationException.class, () -> FanOut.invokeAll(calls));
+        }
+    }
+}
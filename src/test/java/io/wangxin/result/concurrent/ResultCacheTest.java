@@ -0,0 +1,186 @@
+package io.wangxin.result.concurrent;
+
+import io.wangxin.result.IFailCode;
+import io.wangxin.result.MyFailCode;
+import io.wangxin.result.Result;
+import io.wangxin.result.utils.ResultUtils;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * ResultCache test
+ * Tests per-outcome times to live, eviction and statistics
+ *
+ * @author Test
+ */
+@DisplayName("ResultCache Test")
+public class ResultCacheTest {
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    /**
+     * Helper method: users 1..100 exist, key 0 throws, others are not found
+     */
+    private final Function<Integer, Result<String>> userLoader = id -> {
+        loads.incrementAndGet();
+        if (id == 0) {
+            return ResultUtils.wrapException();
+        }
+        if (id > 100) {
+            return ResultUtils.wrapFailure(MyFailCode.USER_NOT_FOUND);
+        }
+        return ResultUtils.wrapSuccess("user-" + id);
+    };
+
+    @Test
+    @DisplayName("Test successes and failures are cached")
+    void testHitsAndMisses() {
+        ResultCache<Integer, String> cache = new ResultCache<>(userLoader, 100, 1, 1, TimeUnit.MINUTES);
+
+        // Execute
+        Result<String> first = cache.apply(1);
+        Result<String> second = cache.apply(1);
+        Result<String> missing = cache.apply(404);
+        Result<String> missingAgain = cache.apply(404);
+
+        // Verify
+        assertSame(first, second);
+        assertSame(missing, missingAgain);
+        assertEquals(2, loads.get());
+        ResultCache.Stats stats = cache.getStats();
+        assertEquals(2, stats.getHitCount());
+        assertEquals(1, stats.getFailureHitCount());
+        assertEquals(2, stats.getMissCount());
+        assertEquals(0.5, stats.getHitRate());
+    }
+
+    @Test
+    @DisplayName("Test system exceptions are never cached")
+    void testSystemException() {
+        ResultCache<Integer, String> cache = new ResultCache<>(userLoader, 100, 1, 1, TimeUnit.MINUTES);
+
+        // Execute
+        cache.apply(0);
+        Result<String> result = cache.apply(0);
+
+        // Verify
+        assertEquals(IFailCode.SYSTEM_EXCEPTION_CODE, result.getCode());
+        assertEquals(2, loads.get());
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    @DisplayName("Test per-code time to live")
+    void testFailureTtl() throws InterruptedException {
+        ResultCache<Integer, String> cache = new ResultCache<Integer, String>(userLoader, 100, 1, 1, TimeUnit.MINUTES)
+                .failureTtl(MyFailCode.USER_NOT_FOUND, 30, TimeUnit.MILLISECONDS);
+
+        // Execute
+        cache.apply(404);
+        cache.apply(404);
+        Thread.sleep(50);
+        cache.apply(404);
+        cache.apply(1);
+        cache.apply(1);
+
+        // Verify
+        assertEquals(3, loads.get());
+    }
+
+    @Test
+    @DisplayName("Test zero time to live disables caching")
+    void testDisabledOutcome() {
+        ResultCache<Integer, String> cache = new ResultCache<>(userLoader, 100, 0, 1, TimeUnit.MINUTES);
+
+        // Execute
+        cache.apply(1);
+        cache.apply(1);
+
+        // Verify
+        assertEquals(2, loads.get());
+        assertThrows(IllegalArgumentException.class, () -> cache.failureTtl(404, -1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    @DisplayName("Test size is bounded and hot keys survive")
+    void testEviction() {
+        ResultCache<Integer, String> cache = new ResultCache<>(userLoader, 10, 1, 1, TimeUnit.MINUTES);
+        cache.apply(1);
+
+        // Execute
+        for (int id = 2; id <= 100; id++) {
+            cache.apply(id);
+            cache.apply(1);
+        }
+
+        // Verify
+        assertTrue(cache.size() <= 10);
+        assertTrue(cache.getStats().getEvictionCount() >= 89);
+        int before = loads.get();
+        cache.apply(1);
+        assertEquals(before, loads.get());
+    }
+
+    @Test
+    @DisplayName("Test eviction resumes where the previous one stopped")
+    void testClockHand() {
+        ResultCache<Integer, String> cache = new ResultCache<>(userLoader, 3, 1, 1, TimeUnit.MINUTES);
+        cache.apply(1);
+        cache.apply(2);
+        cache.apply(3);
+
+        // Execute: key 4 evicts key 1, then reloaded key 1 must not be the next victim
+        cache.apply(4);
+        cache.apply(1);
+        int before = loads.get();
+        cache.apply(1);
+
+        // Verify
+        assertEquals(3, cache.size());
+        assertEquals(2, cache.getStats().getEvictionCount());
+        assertEquals(before, loads.get());
+    }
+
+    @Test
+    @DisplayName("Test callers cannot change cached results")
+    void testReadOnlyResults() {
+        ResultCache<Integer, String> cache = new ResultCache<>(id -> {
+            Result<String> result = new Result<>(0, "");
+            result.setData("user-" + id);
+            return result;
+        }, 100, 1, 1, TimeUnit.MINUTES);
+
+        // Execute
+        Result<String> first = cache.apply(1);
+
+        // Verify
+        assertThrows(UnsupportedOperationException.class, () -> first.setData("changed"));
+        assertThrows(UnsupportedOperationException.class, () -> first.setCode(500));
+        Result<String> second = cache.apply(1);
+        assertEquals("user-1", second.getData());
+        assertTrue(second.isSuccess());
+    }
+
+    @Test
+    @DisplayName("Test invalidation")
+    void testInvalidate() {
+        ResultCache<Integer, String> cache = new ResultCache<>(userLoader, 100, 1, 1, TimeUnit.MINUTES);
+        cache.apply(1);
+        cache.apply(2);
+
+        // Execute
+        cache.invalidate(1);
+        cache.apply(1);
+        cache.invalidateAll();
+
+        // Verify
+        assertEquals(3, loads.get());
+        assertEquals(0, cache.size());
+    }
+}
@@ -0,0 +1,171 @@
+package io.wangxin.result.concurrent;
+
+import io.wangxin.result.IFailCode;
+import io.wangxin.result.Result;
+import io.wangxin.result.utils.ResultUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * SingleFlight test
+ * Tests coalescing of concurrent calls per key
+ *
+ * @author Test
+ */
+@DisplayName("SingleFlight Test")
+public class SingleFlightTest {
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(8);
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Helper method: run the same key from several threads while the call is blocked
+     */
+    private List<Result<String>> runConcurrently(SingleFlight<String, String> flight, int callers,
+                                                 CountDownLatch release, AtomicInteger calls,
+                                                 RuntimeException failure) throws Exception {
+        CountDownLatch entered = new CountDownLatch(1);
+        List<Future<Result<String>>> futures = new ArrayList<>();
+        for (int i = 0; i < callers; i++) {
+            futures.add(executor.submit(() -> flight.execute("user-1", () -> {
+                calls.incrementAndGet();
+                entered.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                if (failure != null) {
+                    throw failure;
+                }
+                return ResultUtils.wrapSuccess("loaded");
+            })));
+        }
+        assertTrue(entered.await(5, TimeUnit.SECONDS));
+        // wait until the other callers are waiting for the running call
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (flight.getSharedCount() < callers - 1 && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        release.countDown();
+        List<Result<String>> results = new ArrayList<>();
+        for (Future<Result<String>> future : futures) {
+            results.add(future.get(5, TimeUnit.SECONDS));
+        }
+        return results;
+    }
+
+    @Test
+    @DisplayName("Test concurrent callers share one read-only result")
+    void testCoalescing() throws Exception {
+        SingleFlight<String, String> flight = new SingleFlight<>();
+        AtomicInteger calls = new AtomicInteger();
+
+        // Execute
+        List<Result<String>> results = runConcurrently(flight, 8, new CountDownLatch(1), calls, null);
+
+        // Verify
+        assertEquals(1, calls.get());
+        for (Result<String> result : results) {
+            assertSame(results.get(0), result);
+        }
+        assertEquals("loaded", results.get(0).getData());
+        assertThrows(UnsupportedOperationException.class, () -> results.get(0).setData("changed"));
+        assertEquals(7, flight.getSharedCount());
+        assertEquals(0, flight.inFlight());
+    }
+
+    @Test
+    @DisplayName("Test exceptions are converted once and shared")
+    void testSharedFailure() throws Exception {
+        SingleFlight<String, String> flight = new SingleFlight<>(1);
+        AtomicInteger calls = new AtomicInteger();
+
+        // Execute
+        List<Result<String>> results = runConcurrently(flight, 4, new CountDownLatch(1), calls,
+                new IllegalStateException("Database down"));
+
+        // Verify
+        assertEquals(1, calls.get());
+        for (Result<String> result : results) {
+            assertEquals(IFailCode.SYSTEM_EXCEPTION_CODE, result.getCode());
+            assertSame(results.get(0), result);
+        }
+    }
+
+    @Test
+    @DisplayName("Test sequential calls and different keys are not coalesced")
+    void testNoCaching() {
+        SingleFlight<String, Integer> flight = new SingleFlight<>(4);
+        AtomicInteger calls = new AtomicInteger();
+
+        // Execute
+        flight.execute("a", () -> ResultUtils.wrapSuccess(calls.incrementAndGet()));
+        flight.execute("a", () -> ResultUtils.wrapSuccess(calls.incrementAndGet()));
+        Result<Integer> other = flight.execute("b", () -> ResultUtils.wrapSuccess(calls.incrementAndGet()));
+
+        // Verify
+        assertEquals(3, calls.get());
+        assertEquals(3, other.getData());
+        assertEquals(0, flight.getSharedCount());
+        assertThrows(IllegalArgumentException.class, () -> new SingleFlight<String, String>(0));
+    }
+
+    @Test
+    @DisplayName("Test errors are rethrown and the key is released")
+    void testError() {
+        SingleFlight<String, String> flight = new SingleFlight<>();
+
+        // Execute & Verify
+        assertThrows(AssertionError.class, () -> flight.execute("a", () -> {
+            throw new AssertionError("broken");
+        }));
+        assertEquals(0, flight.inFlight());
+        assertEquals("ok", flight.execute("a", () -> ResultUtils.wrapSuccess("ok")).getData());
+    }
+
+    @Test
+    @DisplayName("Test an interrupted waiter returns without waiting for the call")
+    void testInterruptedWaiter() throws Exception {
+        SingleFlight<String, String> flight = new SingleFlight<>();
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<Result<String>> leader = executor.submit(() -> flight.execute("a", () -> {
+            entered.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return ResultUtils.wrapSuccess("loaded");
+        }));
+        assertTrue(entered.await(5, TimeUnit.SECONDS));
+
+        // Execute
+        Thread.currentThread().interrupt();
+        Result<String> result = flight.execute("a", () -> ResultUtils.wrapSuccess("not run"));
+
+        // Verify
+        assertTrue(Thread.interrupted());
+        assertEquals(IFailCode.SYSTEM_EXCEPTION_CODE, result.getCode());
+        release.countDown();
+        assertEquals("loaded", leader.get(5, TimeUnit.SECONDS).getData());
+        assertEquals(0, flight.inFlight());
+    }
+}
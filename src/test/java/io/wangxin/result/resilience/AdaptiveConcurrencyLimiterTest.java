@@ -0,0 +1,124 @@
+package io.wangxin.result.resilience;
+
+import io.wangxin.result.IFailCode;
+import io.wangxin.result.MyFailCode;
+import io.wangxin.result.Result;
+import io.wangxin.result.utils.ResultUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * AdaptiveConcurrencyLimiter test
+ * Tests rejection above the limit and adjustment of the limit to latency
+ *
+ * @author Test
+ */
+@DisplayName("AdaptiveConcurrencyLimiter Test")
+public class AdaptiveConcurrencyLimiterTest {
+
+    private static final long MILLIS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(2);
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("Test calls above the limit are rejected at once")
+    void testReject() throws Exception {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(2, 1, 10, MyFailCode.SYSTEM_OVERLOAD);
+        CountDownLatch entered = new CountDownLatch(2);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<?>[] running = new Future<?>[2];
+        for (int i = 0; i < 2; i++) {
+            running[i] = executor.submit(() -> limiter.execute(() -> {
+                entered.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return ResultUtils.wrapSuccess("ok");
+            }));
+        }
+        assertTrue(entered.await(5, TimeUnit.SECONDS));
+
+        // Execute
+        Result<String> rejected = limiter.execute(() -> ResultUtils.wrapSuccess("not run"));
+
+        // Verify
+        assertSame(ResultUtils.wrapImmutableFailure(MyFailCode.SYSTEM_OVERLOAD), rejected);
+        assertEquals(1, limiter.getRejectedCount());
+        assertEquals(2, limiter.getInFlight());
+        release.countDown();
+        for (Future<?> future : running) {
+            future.get(5, TimeUnit.SECONDS);
+        }
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    @DisplayName("Test limit grows while latency is stable and shrinks when it rises")
+    void testGradient() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(20, 5, 200, MyFailCode.SYSTEM_OVERLOAD);
+
+        // Execute: fully used limit, stable latency
+        for (int i = 0; i < 50; i++) {
+            limiter.onSample(MILLIS, limiter.getLimit());
+        }
+        int grown = limiter.getLimit();
+
+        // Execute: latency ten times higher
+        for (int i = 0; i < 50; i++) {
+            limiter.onSample(10 * MILLIS, limiter.getLimit());
+        }
+
+        // Verify
+        assertTrue(grown > 20, "grown: " + grown);
+        assertTrue(limiter.getLimit() < grown / 2, "shrunk: " + limiter.getLimit());
+        assertTrue(limiter.getLimit() >= 5);
+    }
+
+    @Test
+    @DisplayName("Test limit is kept while mostly unused")
+    void testApplicationLimited() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(20, 5, 200, MyFailCode.SYSTEM_OVERLOAD);
+
+        // Execute
+        for (int i = 0; i < 100; i++) {
+            limiter.onSample(MILLIS, 1);
+        }
+
+        // Verify
+        assertEquals(20, limiter.getLimit());
+    }
+
+    @Test
+    @DisplayName("Test exceptions become results and release the permit")
+    void testExceptions() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(1, 1, 1, MyFailCode.SYSTEM_OVERLOAD);
+
+        // Execute
+        Result<String> result = limiter.execute(() -> {
+            throw new IllegalStateException("Connection reset");
+        });
+
+        // Verify
+        assertEquals(IFailCode.SYSTEM_EXCEPTION_CODE, result.getCode());
+        assertEquals(0, limiter.getInFlight());
+        assertTrue(limiter.execute(() -> ResultUtils.wrapSuccess("ok")).isSuccess());
+        assertThrows(IllegalArgumentException.class,
+                () -> new AdaptiveConcurrencyLimiter(1, 2, 3, MyFailCode.SYSTEM_OVERLOAD));
+    }
+}
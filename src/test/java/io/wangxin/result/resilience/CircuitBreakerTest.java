@@ -0,0 +1,195 @@
+package io.wangxin.result.resilience;
+
+import io.wangxin.result.IFailCode;
+import io.wangxin.result.MyFailCode;
+import io.wangxin.result.Result;
+import io.wangxin.result.utils.ResultUtils;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * CircuitBreaker test
+ * Tests opening on failure rate, fast rejection and half-open probing
+ *
+ * @author Test
+ */
+@DisplayName("CircuitBreaker Test")
+public class CircuitBreakerTest {
+
+    private static final Predicate<Result<?>> DEPENDENCY_DOWN = result ->
+            result.getCode() == MyFailCode.EXTERNAL_SERVICE_UNAVAILABLE.getValue()
+                    || result.getCode() == MyFailCode.DATABASE_CONNECTION_FAILED.getValue()
+                    || result.getCode() == IFailCode.SYSTEM_EXCEPTION_CODE;
+
+    private final AtomicInteger calls = new AtomicInteger();
+
+    /**
+     * Helper method: breaker over 10 calls, opens at 50% for 50ms, 2 probes
+     */
+    private static CircuitBreaker breaker() {
+        return new CircuitBreaker(10, 0.5, 4, 50, TimeUnit.MILLISECONDS, 2,
+                DEPENDENCY_DOWN, MyFailCode.SYSTEM_OVERLOAD);
+    }
+
+    private Result<String> call(CircuitBreaker breaker, Result<String> outcome) {
+        return breaker.execute(() -> {
+            calls.incrementAndGet();
+            return outcome;
+        });
+    }
+
+    @Test
+    @DisplayName("Test breaker opens at the failure rate and rejects without calling")
+    void testOpen() {
+        CircuitBreaker breaker = breaker();
+        Result<String> down = ResultUtils.wrapImmutableFailure(MyFailCode.EXTERNAL_SERVICE_UNAVAILABLE);
+
+        // Execute
+        call(breaker, ResultUtils.wrapSuccess("ok"));
+        call(breaker, ResultUtils.wrapSuccess("ok"));
+        call(breaker, down);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        call(breaker, down);
+        Result<String> rejected = call(breaker, ResultUtils.wrapSuccess("ok"));
+
+        // Verify
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertSame(ResultUtils.wrapImmutableFailure(MyFailCode.SYSTEM_OVERLOAD), rejected);
+        assertEquals(4, calls.get());
+        assertEquals(1, breaker.getRejectedCount());
+    }
+
+    @Test
+    @DisplayName("Test business failures do not count")
+    void testBusinessFailures() {
+        CircuitBreaker breaker = breaker();
+
+        // Execute
+        for (int i = 0; i < 20; i++) {
+            call(breaker, ResultUtils.wrapImmutableFailure(MyFailCode.ORDER_NOT_FOUND));
+        }
+
+        // Verify
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertEquals(0.0, breaker.getFailureRate());
+        assertEquals(20, calls.get());
+    }
+
+    @Test
+    @DisplayName("Test window only keeps the last calls")
+    void testSlidingWindow() {
+        CircuitBreaker breaker = new CircuitBreaker(4, 0.75, 4, 1, TimeUnit.MINUTES, 1,
+                DEPENDENCY_DOWN, MyFailCode.SYSTEM_OVERLOAD);
+        Result<String> down = ResultUtils.wrapImmutableFailure(MyFailCode.DATABASE_CONNECTION_FAILED);
+
+        // Execute: failures spread out never reach 3 of the last 4
+        for (int i = 0; i < 5; i++) {
+            call(breaker, down);
+            call(breaker, ResultUtils.wrapSuccess("ok"));
+        }
+
+        // Verify
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertEquals(0.5, breaker.getFailureRate());
+    }
+
+    @Test
+    @DisplayName("Test half-open probes close or reopen the breaker")
+    void testHalfOpen() throws InterruptedException {
+        CircuitBreaker breaker = breaker();
+        Result<String> down = ResultUtils.wrapImmutableFailure(MyFailCode.EXTERNAL_SERVICE_UNAVAILABLE);
+        for (int i = 0; i < 4; i++) {
+            call(breaker, down);
+        }
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+
+        // Execute: a failed probe reopens
+        Thread.sleep(60);
+        call(breaker, down);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+
+        // Execute: two successful probes close
+        Thread.sleep(60);
+        call(breaker, ResultUtils.wrapSuccess("ok"));
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        call(breaker, ResultUtils.wrapSuccess("ok"));
+
+        // Verify
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertEquals(0.0, breaker.getFailureRate());
+        assertEquals(7, calls.get());
+    }
+
+    @Test
+    @DisplayName("Test exceptions count as system failures")
+    void testExceptions() {
+        CircuitBreaker breaker = breaker();
+
+        // Execute
+        for (int i = 0; i < 4; i++) {
+            breaker.execute(() -> {
+                throw new IllegalStateException("Connection refused");
+            });
+        }
+
+        // Verify
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertThrows(IllegalArgumentException.class, () -> new CircuitBreaker(10, 0, 4, 1, TimeUnit.SECONDS, 1,
+                DEPENDENCY_DOWN, MyFailCode.SYSTEM_OVERLOAD));
+    }
+
+    @Test
+    @DisplayName("Test a probe throwing an error counts as a failure")
+    void testProbeError() throws InterruptedException {
+        CircuitBreaker breaker = breaker();
+        Result<String> down = ResultUtils.wrapImmutableFailure(MyFailCode.EXTERNAL_SERVICE_UNAVAILABLE);
+        for (int i = 0; i < 4; i++) {
+            call(breaker, down);
+        }
+        Thread.sleep(60);
+
+        // Execute
+        assertThrows(AssertionError.class, () -> breaker.execute(() -> {
+            throw new AssertionError("broken probe");
+        }));
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        Thread.sleep(60);
+        call(breaker, ResultUtils.wrapSuccess("ok"));
+        call(breaker, ResultUtils.wrapSuccess("ok"));
+
+        // Verify
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    @DisplayName("Test outcomes of calls from an earlier period are ignored")
+    void testStaleOutcome() {
+        CircuitBreaker breaker = breaker();
+        Result<String> down = ResultUtils.wrapImmutableFailure(MyFailCode.EXTERNAL_SERVICE_UNAVAILABLE);
+
+        // Execute: the breaker opens and closes again while a slow call runs
+        breaker.execute(() -> {
+            for (int i = 0; i < 4; i++) {
+                call(breaker, down);
+            }
+            try {
+                Thread.sleep(60);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            call(breaker, ResultUtils.wrapSuccess("ok"));
+            call(breaker, ResultUtils.wrapSuccess("ok"));
+            return down;
+        });
+
+        // Verify
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertEquals(0.0, breaker.getFailureRate());
+    }
+}
@@ -0,0 +1,196 @@
+package io.wangxin.result.resilience;
+
+import io.wangxin.result.IFailCode;
+import io.wangxin.result.MyFailCode;
+import io.wangxin.result.Result;
+import io.wangxin.result.concurrent.AsyncResult;
+import io.wangxin.result.utils.ResultUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * DeadlineExecutor test
+ * Tests timeout results, interrupts and propagation of deadlines to nested calls
+ *
+ * @author Test
+ */
+@DisplayName("DeadlineExecutor Test")
+public class DeadlineExecutorTest {
+
+    private final HashedWheelTimer timer = new HashedWheelTimer(1, TimeUnit.MILLISECONDS, 64);
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private final Result<String> timeoutResult = ResultUtils.wrapImmutableFailure(MyFailCode.EXTERNAL_SERVICE_TIMEOUT);
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+        timer.close();
+    }
+
+    private DeadlineExecutor deadlines(boolean interrupt) {
+        return new DeadlineExecutor(timer, MyFailCode.EXTERNAL_SERVICE_TIMEOUT, interrupt);
+    }
+
+    @Test
+    @DisplayName("Test calls within the deadline return their result")
+    void testWithinDeadline() {
+        DeadlineExecutor deadlines = deadlines(true);
+
+        // Execute
+        Result<String> result = deadlines.execute(1, TimeUnit.SECONDS, () -> ResultUtils.wrapSuccess("ok"));
+
+        // Verify
+        assertEquals("ok", result.getData());
+        assertEquals(0, deadlines.getTimeoutCount());
+        assertNull(Deadline.current());
+        assertFalse(Thread.currentThread().isInterrupted());
+    }
+
+    @Test
+    @DisplayName("Test a blocking call is interrupted at the deadline")
+    void testInterrupt() {
+        DeadlineExecutor deadlines = deadlines(true);
+
+        // Execute
+        Result<String> result = deadlines.execute(20, TimeUnit.MILLISECONDS, () -> {
+            try {
+                Thread.sleep(5000);
+                return ResultUtils.wrapSuccess("too late");
+            } catch (InterruptedException e) {
+                return ResultUtils.wrapImmutableFailure(MyFailCode.SYSTEM_OVERLOAD);
+            }
+        });
+
+        // Verify
+        assertSame(timeoutResult, result);
+        assertEquals(1, deadlines.getTimeoutCount());
+        assertFalse(Thread.currentThread().isInterrupted());
+    }
+
+    @Test
+    @DisplayName("Test an interrupt pending before the deadline is kept")
+    void testPendingInterrupt() {
+        DeadlineExecutor deadlines = deadlines(true);
+
+        // Execute: the call ignores interrupts and runs past the deadline
+        Result<String> result = deadlines.execute(10, TimeUnit.MILLISECONDS, () -> {
+            Thread.currentThread().interrupt();
+            long end = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(50);
+            while (System.nanoTime() < end) {
+                Thread.yield();
+            }
+            return ResultUtils.wrapSuccess("too late");
+        });
+
+        // Verify
+        assertSame(timeoutResult, result);
+        assertTrue(Thread.interrupted());
+    }
+
+    @Test
+    @DisplayName("Test a call throwing an error is not interrupted afterwards")
+    void testError() throws InterruptedException {
+        DeadlineExecutor deadlines = deadlines(true);
+
+        // Execute
+        assertThrows(AssertionError.class, () -> deadlines.execute(10, TimeUnit.MILLISECONDS, () -> {
+            throw new AssertionError("broken");
+        }));
+        Thread.sleep(30);
+
+        // Verify
+        assertNull(Deadline.current());
+        assertFalse(Thread.interrupted());
+    }
+
+    @Test
+    @DisplayName("Test nested calls inherit the outer deadline")
+    void testPropagation() {
+        DeadlineExecutor deadlines = deadlines(false);
+        Result<?>[] nested = new Result<?>[2];
+
+        // Execute
+        Result<String> result = deadlines.execute(30, TimeUnit.MILLISECONDS, () -> {
+            Deadline outer = Deadline.current();
+            nested[0] = deadlines.execute(1, TimeUnit.HOURS, () -> {
+                assertSame(outer, Deadline.current());
+                return ResultUtils.wrapSuccess("inner");
+            });
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            nested[1] = deadlines.execute(1, TimeUnit.HOURS, () -> ResultUtils.wrapSuccess("not run"));
+            return ResultUtils.wrapSuccess("outer");
+        });
+
+        // Verify
+        assertTrue(nested[0].isSuccess());
+        assertSame(timeoutResult, nested[1]);
+        assertSame(timeoutResult, result);
+        assertNull(Deadline.current());
+    }
+
+    @Test
+    @DisplayName("Test async results complete with the timeout result at the deadline")
+    void testWithin() {
+        DeadlineExecutor deadlines = deadlines(false);
+        CompletableFuture<Result<String>> never = new CompletableFuture<>();
+
+        // Execute
+        AsyncResult<String> late = deadlines.within(AsyncResult.of(never), Deadline.after(20, TimeUnit.MILLISECONDS));
+        AsyncResult<String> early = deadlines.within(AsyncResult.completed(ResultUtils.wrapSuccess("ok")),
+                Deadline.after(1, TimeUnit.HOURS));
+
+        // Verify
+        assertSame(timeoutResult, late.join());
+        assertEquals("ok", early.join().getData());
+        assertEquals(1, deadlines.getTimeoutCount());
+    }
+
+    @Test
+    @DisplayName("Test deadline is propagated to calls on other threads")
+    void testSupplyAsync() {
+        DeadlineExecutor deadlines = deadlines(false);
+        Deadline deadline = Deadline.after(1, TimeUnit.SECONDS);
+
+        // Execute
+        AsyncResult<String> result = deadlines.supplyAsync(() -> {
+            assertSame(deadline, Deadline.current());
+            return ResultUtils.wrapSuccess("ok");
+        }, executor, deadline);
+        AsyncResult<String> failed = deadlines.supplyAsync(() -> {
+            throw new IllegalStateException("Connection reset");
+        }, executor, deadline);
+
+        // Verify
+        assertEquals("ok", result.join().getData());
+        assertEquals(IFailCode.SYSTEM_EXCEPTION_CODE, failed.join().getCode());
+        assertEquals(0, deadlines.getTimeoutCount());
+    }
+
+    @Test
+    @DisplayName("Test the earlier deadline wins")
+    void testDeadline() {
+        Deadline near = Deadline.after(1, TimeUnit.SECONDS);
+        Deadline far = Deadline.after(1, TimeUnit.HOURS);
+
+        // Verify
+        assertSame(near, near.minimum(far));
+        assertSame(near, far.minimum(near));
+        assertSame(far, far.minimum(null));
+        assertTrue(near.timeRemaining(TimeUnit.MILLISECONDS) <= 1000);
+        assertTrue(Deadline.after(0, TimeUnit.SECONDS).isExpired());
+        assertFalse(Deadline.after(Long.MAX_VALUE, TimeUnit.DAYS).isExpired());
+        assertThrows(IllegalArgumentException.class, () -> Deadline.after(-1, TimeUnit.SECONDS));
+    }
+}
@@ -0,0 +1,117 @@
+package io.wangxin.result.resilience;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * HashedWheelTimer test
+ * Tests expiry, cancellation and delays longer than one turn of the wheel
+ *
+ * @author Test
+ */
+@DisplayName("HashedWheelTimer Test")
+public class HashedWheelTimerTest {
+
+    private final HashedWheelTimer timer = new HashedWheelTimer(1, TimeUnit.MILLISECONDS, 8);
+
+    @AfterEach
+    void tearDown() {
+        timer.close();
+    }
+
+    @Test
+    @DisplayName("Test timeouts fire after their delay")
+    void testExpire() throws InterruptedException {
+        CountDownLatch fired = new CountDownLatch(1);
+        long start = System.nanoTime();
+
+        // Execute: 30 ticks is more than three turns of the wheel
+        HashedWheelTimer.Timeout timeout = timer.newTimeout(fired::countDown, 30, TimeUnit.MILLISECONDS);
+
+        // Verify
+        assertTrue(fired.await(5, TimeUnit.SECONDS));
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(30));
+        assertTrue(timeout.isExpired());
+        assertFalse(timeout.cancel());
+        assertEquals(0, timer.pendingTimeouts());
+    }
+
+    @Test
+    @DisplayName("Test cancelled timeouts never fire")
+    void testCancel() throws InterruptedException {
+        AtomicInteger fired = new AtomicInteger();
+        CountDownLatch kept = new CountDownLatch(1);
+        List<HashedWheelTimer.Timeout> timeouts = new ArrayList<>();
+
+        // Execute
+        for (int i = 0; i < 10000; i++) {
+            timeouts.add(timer.newTimeout(fired::incrementAndGet, 200, TimeUnit.MILLISECONDS));
+        }
+        timer.newTimeout(kept::countDown, 300, TimeUnit.MILLISECONDS);
+        assertEquals(10001, timer.pendingTimeouts());
+        for (HashedWheelTimer.Timeout timeout : timeouts) {
+            assertTrue(timeout.cancel());
+        }
+
+        // Verify
+        assertTrue(kept.await(5, TimeUnit.SECONDS));
+        assertEquals(0, fired.get());
+        assertEquals(0, timer.pendingTimeouts());
+        assertTrue(timeouts.get(0).isCancelled());
+        assertFalse(timeouts.get(0).cancel());
+    }
+
+    @Test
+    @DisplayName("Test a throwing task does not stop the timer")
+    void testThrowingTask() throws InterruptedException {
+        CountDownLatch fired = new CountDownLatch(1);
+
+        // Execute
+        timer.newTimeout(() -> {
+            throw new IllegalStateException("broken task");
+        }, 0, TimeUnit.MILLISECONDS);
+        timer.newTimeout(() -> {
+            throw new AssertionError("broken task");
+        }, 0, TimeUnit.MILLISECONDS);
+        timer.newTimeout(fired::countDown, 5, TimeUnit.MILLISECONDS);
+
+        // Verify
+        assertTrue(fired.await(5, TimeUnit.SECONDS));
+        assertThrows(IllegalArgumentException.class, () -> new HashedWheelTimer(0, TimeUnit.MILLISECONDS, 8));
+    }
+
+    @Test
+    @DisplayName("Test huge delays do not overflow")
+    void testHugeDelay() throws InterruptedException {
+        AtomicInteger fired = new AtomicInteger();
+
+        // Execute
+        HashedWheelTimer.Timeout timeout = timer.newTimeout(fired::incrementAndGet, Long.MAX_VALUE, TimeUnit.DAYS);
+        Thread.sleep(20);
+
+        // Verify
+        assertEquals(0, fired.get());
+        assertFalse(timeout.isExpired());
+        assertTrue(timeout.cancel());
+    }
+
+    @Test
+    @DisplayName("Test a closed timer rejects new timeouts")
+    void testClose() {
+        // Execute
+        timer.close();
+
+        // Verify
+        assertThrows(IllegalStateException.class, () -> timer.newTimeout(() -> {
+        }, 1, TimeUnit.MILLISECONDS));
+    }
+}
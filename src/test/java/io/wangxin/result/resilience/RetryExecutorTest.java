@@ -0,0 +1,145 @@
+package io.wangxin.result.resilience;
+
+import io.wangxin.result.IFailCode;
+import io.wangxin.result.MyFailCode;
+import io.wangxin.result.Result;
+import io.wangxin.result.utils.ResultUtils;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * RetryExecutor test
+ * Tests retry rules, backoff bounds and the retry budget
+ *
+ * @author Test
+ */
+@DisplayName("RetryExecutor Test")
+public class RetryExecutorTest {
+
+    private static final RetryRule EXTERNAL_ERRORS = RetryRule.codeRange(4000, 4999);
+
+    /**
+     * Helper method: executor with a large budget and 1ms delays
+     */
+    private static RetryExecutor executor(RetryRule rule, int maxAttempts) {
+        return new RetryExecutor(rule, maxAttempts, 1, 1, TimeUnit.MILLISECONDS, new RetryBudget(1, 100));
+    }
+
+    @Test
+    @DisplayName("Test retryable failures are retried until success")
+    void testRetryUntilSuccess() {
+        AtomicInteger calls = new AtomicInteger();
+        RetryExecutor executor = executor(EXTERNAL_ERRORS, 5);
+
+        // Execute
+        Result<String> result = executor.execute(() -> calls.incrementAndGet() < 3
+                ? ResultUtils.wrapImmutableFailure(MyFailCode.EXTERNAL_SERVICE_TIMEOUT)
+                : ResultUtils.wrapSuccess("ok"));
+
+        // Verify
+        assertTrue(result.isSuccess());
+        assertEquals(3, calls.get());
+        assertEquals(2, executor.getRetryCount());
+    }
+
+    @Test
+    @DisplayName("Test other failures and exhausted attempts are returned")
+    void testNotRetryable() {
+        AtomicInteger calls = new AtomicInteger();
+        RetryExecutor executor = executor(EXTERNAL_ERRORS, 3);
+
+        // Execute
+        Result<String> business = executor.execute(() -> {
+            calls.incrementAndGet();
+            return ResultUtils.wrapImmutableFailure(MyFailCode.ORDER_NOT_FOUND);
+        });
+        Result<String> timeout = executor.execute(() -> {
+            calls.incrementAndGet();
+            return ResultUtils.wrapImmutableFailure(MyFailCode.EXTERNAL_SERVICE_TIMEOUT);
+        });
+
+        // Verify
+        assertSame(ResultUtils.wrapImmutableFailure(MyFailCode.ORDER_NOT_FOUND), business);
+        assertSame(ResultUtils.wrapImmutableFailure(MyFailCode.EXTERNAL_SERVICE_TIMEOUT), timeout);
+        assertEquals(4, calls.get());
+    }
+
+    @Test
+    @DisplayName("Test rules by fail code and exceptions")
+    void testRules() {
+        RetryRule rule = RetryRule.failCodes(MyFailCode.DATABASE_CONNECTION_FAILED)
+                .or(RetryRule.codeRange(IFailCode.SYSTEM_EXCEPTION_CODE, IFailCode.SYSTEM_EXCEPTION_CODE));
+        AtomicInteger calls = new AtomicInteger();
+
+        // Execute
+        Result<String> result = executor(rule, 3).execute(() -> {
+            if (calls.incrementAndGet() == 1) {
+                throw new IllegalStateException("Connection reset");
+            }
+            return calls.get() == 2
+                    ? ResultUtils.wrapImmutableFailure(MyFailCode.DATABASE_CONNECTION_FAILED)
+                    : ResultUtils.wrapSuccess("ok");
+        });
+
+        // Verify
+        assertTrue(result.isSuccess());
+        assertEquals(3, calls.get());
+        assertFalse(rule.isRetryable(ResultUtils.wrapImmutableFailure(MyFailCode.EXTERNAL_SERVICE_TIMEOUT)));
+        assertThrows(IllegalArgumentException.class, () -> RetryRule.codeRange(5, 4));
+    }
+
+    @Test
+    @DisplayName("Test budget limits retries to a ratio of calls")
+    void testBudget() {
+        RetryBudget budget = new RetryBudget(0.1, 2);
+        RetryExecutor executor = new RetryExecutor(EXTERNAL_ERRORS, 3, 0, 0, TimeUnit.MILLISECONDS, budget);
+        AtomicInteger calls = new AtomicInteger();
+
+        // Execute: 100 calls that always fail
+        for (int i = 0; i < 100; i++) {
+            executor.execute(() -> {
+                calls.incrementAndGet();
+                return ResultUtils.wrapImmutableFailure(MyFailCode.EXTERNAL_SERVICE_UNAVAILABLE);
+            });
+        }
+
+        // Verify: 2 saved tokens plus 0.1 per call, instead of 200 retries
+        assertTrue(executor.getRetryCount() <= 12, "retries: " + executor.getRetryCount());
+        assertEquals(100 + executor.getRetryCount(), calls.get());
+        assertTrue(budget.getRejectedCount() > 0);
+    }
+
+    @Test
+    @DisplayName("Test backoff stays within exponential bounds")
+    void testBackoff() {
+        RetryExecutor executor = new RetryExecutor(EXTERNAL_ERRORS, 10, 10, 80, TimeUnit.MILLISECONDS,
+                new RetryBudget(1, 10));
+
+        // Execute & Verify
+        for (int i = 0; i < 100; i++) {
+            assertTrue(executor.delayNanos(1) <= TimeUnit.MILLISECONDS.toNanos(10));
+            assertTrue(executor.delayNanos(3) <= TimeUnit.MILLISECONDS.toNanos(40));
+            assertTrue(executor.delayNanos(64) <= TimeUnit.MILLISECONDS.toNanos(80));
+            assertTrue(executor.delayNanos(64) >= 0);
+        }
+        assertThrows(IllegalArgumentException.class,
+                () -> new RetryExecutor(EXTERNAL_ERRORS, 0, 1, 1, TimeUnit.MILLISECONDS, new RetryBudget(1, 1)));
+    }
+
+    @Test
+    @DisplayName("Test backoff with an unbounded maximum delay")
+    void testUnboundedBackoff() {
+        RetryExecutor executor = new RetryExecutor(EXTERNAL_ERRORS, 100, Long.MAX_VALUE, Long.MAX_VALUE,
+                TimeUnit.NANOSECONDS, new RetryBudget(1, 10));
+
+        // Execute & Verify
+        for (int retry = 1; retry < 100; retry++) {
+            assertTrue(executor.delayNanos(retry) >= 0);
+        }
+    }
+}
@@ -0,0 +1,338 @@
+package io.wangxin.result.utils;
+
+import io.wangxin.result.IFailCode;
+import io.wangxin.result.Result;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * AsyncFailureReporter test
+ * Tests off-thread delivery, overflow policies and flushing on close
+ *
+ * @author Test
+ */
+@DisplayName("AsyncFailureReporter Test")
+public class AsyncFailureReporterTest {
+
+    /**
+     * Helper class: records reported messages and the threads that reported them
+     */
+    private static class RecordingReporter implements FailureReporter {
+        final List<String> messages = Collections.synchronizedList(new ArrayList<String>());
+        final List<Thread> threads = Collections.synchronizedList(new ArrayList<Thread>());
+
+        @Override
+        public void report(String message, Throwable e) {
+            messages.add(message);
+            threads.add(Thread.currentThread());
+        }
+    }
+
+    /**
+     * Helper class: blocks every report until released
+     */
+    private static class BlockingReporter extends RecordingReporter {
+        final CountDownLatch entered = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+
+        @Override
+        public void report(String message, Throwable e) {
+            entered.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException interrupted) {
+                Thread.currentThread().interrupt();
+            }
+            super.report(message, e);
+        }
+    }
+
+    @Test
+    @DisplayName("Test failures are delivered on the drainer thread")
+    void testDelivery() {
+        RecordingReporter delegate = new RecordingReporter();
+        AsyncFailureReporter reporter = new AsyncFailureReporter(delegate);
+        try {
+            // Execute
+            for (int i = 0; i < 100; i++) {
+                reporter.report("failure " + i, new IllegalStateException());
+            }
+
+            // Verify
+            assertTrue(reporter.flush(5, TimeUnit.SECONDS));
+            assertEquals(100, delegate.messages.size());
+            assertEquals("failure 0", delegate.messages.get(0));
+            assertEquals("failure 99", delegate.messages.get(99));
+            assertFalse(delegate.threads.contains(Thread.currentThread()));
+            assertEquals(0, reporter.getPending());
+        } finally {
+            reporter.close();
+        }
+    }
+
+    @Test
+    @DisplayName("Test capacity is rounded up to a power of two")
+    void testCapacity() {
+        AsyncFailureReporter reporter = new AsyncFailureReporter(new RecordingReporter(), 100,
+                AsyncFailureReporter.OverflowPolicy.DROP);
+        reporter.close();
+
+        assertEquals(128, reporter.getCapacity());
+        assertThrows(IllegalArgumentException.class, () -> new AsyncFailureReporter(null));
+        assertThrows(IllegalArgumentException.class, () -> new AsyncFailureReporter(new RecordingReporter(), 0,
+                AsyncFailureReporter.OverflowPolicy.DROP));
+    }
+
+    @Test
+    @DisplayName("Test drop policy counts failures when full")
+    void testDropPolicy() throws InterruptedException {
+        BlockingReporter delegate = new BlockingReporter();
+        AsyncFailureReporter reporter = new AsyncFailureReporter(delegate, 4,
+                AsyncFailureReporter.OverflowPolicy.DROP);
+        try {
+            // Execute: the drainer takes the first failure and blocks, 4 more fill the buffer
+            reporter.report("first", new IllegalStateException());
+            assertTrue(delegate.entered.await(5, TimeUnit.SECONDS));
+            for (int i = 0; i < 10; i++) {
+                reporter.report("more", new IllegalStateException());
+            }
+
+            // Verify
+            assertEquals(6, reporter.getDroppedCount());
+            delegate.release.countDown();
+            assertTrue(reporter.flush(5, TimeUnit.SECONDS));
+            assertEquals(5, delegate.messages.size());
+        } finally {
+            delegate.release.countDown();
+            reporter.close();
+        }
+    }
+
+    @Test
+    @DisplayName("Test dropped failures are reported on close")
+    void testDroppedReportedOnClose() throws InterruptedException {
+        BlockingReporter delegate = new BlockingReporter();
+        AsyncFailureReporter reporter = new AsyncFailureReporter(delegate, 2,
+                AsyncFailureReporter.OverflowPolicy.DROP);
+        reporter.report("first", new IllegalStateException());
+        assertTrue(delegate.entered.await(5, TimeUnit.SECONDS));
+        for (int i = 0; i < 5; i++) {
+            reporter.report("more", new IllegalStateException());
+        }
+
+        // Execute
+        delegate.release.countDown();
+        reporter.close();
+
+        // Verify
+        assertEquals(4, delegate.messages.size());
+        assertTrue(delegate.messages.get(3).startsWith("3 failures were dropped"), delegate.messages.get(3));
+    }
+
+    @Test
+    @DisplayName("Test block policy waits for room")
+    void testBlockPolicy() throws InterruptedException {
+        RecordingReporter delegate = new RecordingReporter();
+        AsyncFailureReporter reporter = new AsyncFailureReporter(delegate, 2,
+                AsyncFailureReporter.OverflowPolicy.BLOCK);
+        try {
+            // Execute
+            for (int i = 0; i < 1000; i++) {
+                reporter.report("failure", new IllegalStateException());
+            }
+
+            // Verify
+            assertTrue(reporter.flush(5, TimeUnit.SECONDS));
+            assertEquals(1000, delegate.messages.size());
+            assertEquals(0, reporter.getDroppedCount());
+        } finally {
+            reporter.close();
+        }
+    }
+
+    @Test
+    @DisplayName("Test close drains buffered failures")
+    void testClose() throws InterruptedException {
+        BlockingReporter delegate = new BlockingReporter();
+        AsyncFailureReporter reporter = new AsyncFailureReporter(delegate, 16,
+                AsyncFailureReporter.OverflowPolicy.DROP);
+        reporter.report("first", new IllegalStateException());
+        assertTrue(delegate.entered.await(5, TimeUnit.SECONDS));
+        reporter.report("second", new IllegalStateException());
+        reporter.report("third", new IllegalStateException());
+
+        // Execute
+        delegate.release.countDown();
+        reporter.close();
+        reporter.report("after close", new IllegalStateException());
+
+        // Verify
+        assertTrue(reporter.isClosed());
+        assertEquals(4, delegate.messages.size());
+        assertEquals("after close", delegate.messages.get(3));
+        assertSame(Thread.currentThread(), delegate.threads.get(3));
+    }
+
+    @Test
+    @DisplayName("Test concurrent producers")
+    void testConcurrentProducers() throws InterruptedException {
+        RecordingReporter delegate = new RecordingReporter();
+        AsyncFailureReporter reporter = new AsyncFailureReporter(delegate, 64,
+                AsyncFailureReporter.OverflowPolicy.BLOCK);
+        Thread[] producers = new Thread[4];
+        for (int t = 0; t < producers.length; t++) {
+            producers[t] = new Thread(() -> {
+                for (int i = 0; i < 5000; i++) {
+                    reporter.report("failure", new IllegalStateException());
+                }
+            });
+            producers[t].start();
+        }
+        for (Thread producer : producers) {
+            producer.join();
+        }
+
+        // Verify
+        assertTrue(reporter.flush(5, TimeUnit.SECONDS));
+        assertEquals(20000, delegate.messages.size());
+        reporter.close();
+    }
+
+    @Test
+    @DisplayName("Test wrapException with failure reporter")
+    void testWrapException() {
+        RecordingReporter delegate = new RecordingReporter();
+        AsyncFailureReporter reporter = new AsyncFailureReporter(delegate);
+        ResultUtils.setFailureReporter(reporter);
+        try {
+            // Execute
+            Result<Void> result = ResultUtils.wrapException(new IllegalStateException("Database down"));
+
+            // Verify
+            assertEquals(IFailCode.SYSTEM_EXCEPTION_CODE, result.getCode());
+            assertTrue(reporter.flush(5, TimeUnit.SECONDS));
+            assertEquals(1, delegate.messages.size());
+        } finally {
+            ResultUtils.resetFailureReporter();
+            reporter.close();
+        }
+    }
+
+    @Test
+    @DisplayName("Test exceptions are logged on the calling thread by default")
+    void testDefaultReporter() {
+        ResultUtils.resetFailureReporter();
+
+        // Verify
+        assertTrue(ResultUtils.getFailureReporter() instanceof LoggingFailureReporter);
+        ResultUtils.setFailureReporter(null);
+        assertNull(ResultUtils.getFailureReporter());
+        ResultUtils.resetFailureReporter();
+    }
+
+    @Test
+    @DisplayName("Test exception log limiter applies to the reporter")
+    void testWrapExceptionWithLimiter() {
+        RecordingReporter delegate = new RecordingReporter();
+        ResultUtils.setFailureReporter(delegate);
+        ResultUtils.setExceptionLogLimiter(new ExceptionLogLimiter());
+        try {
+            // Execute
+            for (int i = 0; i < 3; i++) {
+                ResultUtils.wrapException(new IllegalStateException("Database down"));
+            }
+
+            // Verify
+            assertEquals(1, delegate.messages.size());
+        } finally {
+            ResultUtils.setExceptionLogLimiter(null);
+            ResultUtils.resetFailureReporter();
+        }
+    }
+
+    @Test
+    @DisplayName("Test concurrent close calls drain once and wait for it")
+    void testConcurrentClose() throws InterruptedException {
+        BlockingReporter delegate = new BlockingReporter();
+        AsyncFailureReporter reporter = new AsyncFailureReporter(delegate);
+        reporter.report("first", new IllegalStateException());
+        reporter.report("second", new IllegalStateException());
+        Thread[] closers = new Thread[2];
+        for (int i = 0; i < closers.length; i++) {
+            closers[i] = new Thread(reporter::close);
+            closers[i].start();
+        }
+
+        // Execute
+        delegate.release.countDown();
+        for (Thread closer : closers) {
+            closer.join(5000);
+        }
+
+        // Verify
+        assertFalse(closers[0].isAlive() || closers[1].isAlive());
+        assertEquals(2, delegate.messages.size());
+    }
+
+    @Test
+    @DisplayName("Test failures reported while closing are not lost")
+    void testReportWhileClosing() throws InterruptedException {
+        RecordingReporter delegate = new RecordingReporter();
+        AsyncFailureReporter reporter = new AsyncFailureReporter(delegate, 1 << 16,
+                AsyncFailureReporter.OverflowPolicy.DROP);
+        Thread[] producers = new Thread[4];
+        CountDownLatch started = new CountDownLatch(producers.length);
+        for (int t = 0; t < producers.length; t++) {
+            producers[t] = new Thread(() -> {
+                started.countDown();
+                for (int i = 0; i < 5000; i++) {
+                    reporter.report("failure", new IllegalStateException());
+                }
+            });
+            producers[t].start();
+        }
+
+        // Execute
+        started.await();
+        reporter.close();
+        for (Thread producer : producers) {
+            producer.join();
+        }
+
+        // Verify
+        assertEquals(0, reporter.getDroppedCount());
+        assertEquals(20000, delegate.messages.size());
+    }
+
+    @Test
+    @DisplayName("Test an error thrown by the delegate does not stop the drainer")
+    void testDelegateError() {
+        RecordingReporter delegate = new RecordingReporter() {
+            @Override
+            public void report(String message, Throwable e) {
+                if ("broken".equals(message)) {
+                    throw new AssertionError("delegate failed");
+                }
+                super.report(message, e);
+            }
+        };
+        AsyncFailureReporter reporter = new AsyncFailureReporter(delegate);
+
+        // Execute
+        reporter.report("broken", new IllegalStateException());
+        reporter.report("next", new IllegalStateException());
+
+        // Verify
+        assertTrue(reporter.flush(5, TimeUnit.SECONDS));
+        assertEquals(Collections.singletonList("next"), delegate.messages);
+        reporter.close();
+    }
+}
@@ -0,0 +1,112 @@
+package io.wangxin.result.utils;
+
+import io.wangxin.result.IFailCode;
+import io.wangxin.result.Result;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.helpers.NOPLogger;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * ExceptionLogLimiter test
+ * Tests fingerprinting, periodic summaries and bounded state
+ *
+ * @author Test
+ */
+@DisplayName("ExceptionLogLimiter Test")
+public class ExceptionLogLimiterTest {
+
+    private static RuntimeException failAt(int location) {
+        if (location == 0) {
+            return new IllegalStateException("Database down");
+        }
+        return new IllegalStateException("Database down at another location");
+    }
+
+    /**
+     * Helper method: same two top frames on every call
+     */
+    private static long admitSameLocation(ExceptionLogLimiter limiter) {
+        return limiter.admit(failAt(0));
+    }
+
+    @Test
+    @DisplayName("Test first occurrence full, then suppressed, then summarized")
+    void testSummary() throws InterruptedException {
+        ExceptionLogLimiter limiter = new ExceptionLogLimiter(50, TimeUnit.MILLISECONDS, 16, 2);
+
+        assertEquals(ExceptionLogLimiter.LOG_FULL, admitSameLocation(limiter));
+        assertEquals(ExceptionLogLimiter.SUPPRESS, admitSameLocation(limiter));
+        Thread.sleep(60);
+
+        assertEquals(2, admitSameLocation(limiter));
+        assertEquals(ExceptionLogLimiter.SUPPRESS, admitSameLocation(limiter));
+    }
+
+    @Test
+    @DisplayName("Test overdue summaries are reported by later exceptions")
+    void testOverdueSummary() throws InterruptedException {
+        ExceptionLogLimiter limiter = new ExceptionLogLimiter(50, TimeUnit.MILLISECONDS, 16, 2);
+        List<String> summaries = new ArrayList<>();
+        FailureReporter reporter = (message, e) -> {
+            if (e == null) {
+                summaries.add(message);
+            }
+        };
+
+        for (int i = 0; i < 3; i++) {
+            limiter.report(reporter, "Failed:", failAt(0));
+        }
+        Thread.sleep(60);
+        limiter.report(reporter, "Failed:", new IllegalArgumentException());
+
+        assertEquals(1, summaries.size());
+        assertTrue(summaries.get(0).contains("occurred 2 more times"), summaries.get(0));
+        limiter.flush(reporter, "Failed:");
+        assertEquals(1, summaries.size());
+    }
+
+    @Test
+    @DisplayName("Test different locations are different fingerprints")
+    void testFingerprints() {
+        ExceptionLogLimiter limiter = new ExceptionLogLimiter(1, TimeUnit.MINUTES, 16, 3);
+
+        assertEquals(ExceptionLogLimiter.LOG_FULL, limiter.admit(failAt(0)));
+        assertEquals(ExceptionLogLimiter.LOG_FULL, limiter.admit(failAt(1)));
+        assertEquals(ExceptionLogLimiter.LOG_FULL, limiter.admit(new IllegalArgumentException()));
+        assertEquals(3, limiter.size());
+    }
+
+    @Test
+    @DisplayName("Test state stays bounded")
+    void testBounded() {
+        ExceptionLogLimiter limiter = new ExceptionLogLimiter(1, TimeUnit.MINUTES, 2, 0);
+
+        limiter.log(NOPLogger.NOP_LOGGER, "Failed:", new IllegalStateException());
+        limiter.log(NOPLogger.NOP_LOGGER, "Failed:", new IllegalArgumentException());
+        limiter.log(NOPLogger.NOP_LOGGER, "Failed:", new UnsupportedOperationException());
+        limiter.log(NOPLogger.NOP_LOGGER, "Failed:", new ArithmeticException());
+
+        assertTrue(limiter.size() <= 2);
+    }
+
+    @Test
+    @DisplayName("Test wrapException with limiter")
+    void testWrapException() {
+        ResultUtils.setExceptionLogLimiter(new ExceptionLogLimiter());
+        try {
+            Result<Void> first = ResultUtils.wrapException(failAt(0));
+            Result<Void> second = ResultUtils.wrapException(failAt(0));
+
+            assertEquals(IFailCode.SYSTEM_EXCEPTION_CODE, first.getCode());
+            assertEquals(IFailCode.SYSTEM_EXCEPTION_CODE, second.getCode());
+        } finally {
+            ResultUtils.setExceptionLogLimiter(null);
+        }
+    }
+}
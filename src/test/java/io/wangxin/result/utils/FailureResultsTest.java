@@ -0,0 +1,128 @@
+package io.wangxin.result.utils;
+
+import io.wangxin.result.IFailCode;
+import io.wangxin.result.ImmutableResult;
+import io.wangxin.result.MyFailCode;
+import io.wangxin.result.Result;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * FailureResults test
+ * Tests sharing and immutability of cached failure results
+ *
+ * @author Test
+ */
+@DisplayName("FailureResults Test")
+public class FailureResultsTest {
+
+    @Test
+    @DisplayName("Test enum fail code returns shared instance")
+    void testEnumFailCodeShared() {
+        // Execute
+        Result<Void> first = ResultUtils.wrapImmutableFailure(MyFailCode.SYSTEM_OVERLOAD);
+        Result<Void> second = ResultUtils.wrapImmutableFailure(MyFailCode.SYSTEM_OVERLOAD);
+
+        // Verify
+        assertSame(first, second);
+        assertFalse(first.isSuccess());
+        assertEquals(MyFailCode.SYSTEM_OVERLOAD.getValue(), first.getCode());
+        assertEquals(MyFailCode.SYSTEM_OVERLOAD.getDesc(), first.getMessage());
+        assertNull(first.getData());
+    }
+
+    @Test
+    @DisplayName("Test retyped failures drop their data")
+    void testRetype() {
+        Result<Void> plain = ResultUtils.wrapImmutableFailure(MyFailCode.ORDER_NOT_FOUND);
+        Result<String> withData = new ImmutableResult<>(500, "Partial", "partial data");
+
+        // Execute
+        Result<Integer> same = FailureResults.retype(plain);
+        Result<Integer> rewrapped = FailureResults.retype(withData);
+
+        // Verify
+        assertSame(plain, same);
+        assertEquals(500, rewrapped.getCode());
+        assertEquals("Partial", rewrapped.getMessage());
+        assertNull(rewrapped.getData());
+    }
+
+    @Test
+    @DisplayName("Test different enum constants do not collide")
+    void testDifferentEnumConstants() {
+        Result<Void> notFound = ResultUtils.wrapImmutableFailure(MyFailCode.USER_NOT_FOUND);
+        Result<Void> overload = ResultUtils.wrapImmutableFailure(MyFailCode.SYSTEM_OVERLOAD);
+
+        assertNotSame(notFound, overload);
+        assertEquals(MyFailCode.USER_NOT_FOUND.getValue(), notFound.getCode());
+        assertEquals(MyFailCode.SYSTEM_OVERLOAD.getValue(), overload.getCode());
+    }
+
+    @Test
+    @DisplayName("Test code and message pair returns shared instance")
+    void testCodeAndMessageShared() {
+        Result<Void> first = ResultUtils.wrapImmutableFailure(404, "Object Not Found");
+        Result<Void> second = ResultUtils.wrapImmutableFailure(404, "Object Not Found");
+        Result<Void> other = ResultUtils.wrapImmutableFailure(404, "Other message");
+
+        assertSame(first, second);
+        assertEquals("Other message", other.getMessage());
+        assertEquals("Object Not Found", first.getMessage());
+    }
+
+    @Test
+    @DisplayName("Test null message is cached")
+    void testNullMessage() {
+        Result<Void> first = FailureResults.of(1000, null);
+        Result<Void> second = FailureResults.of(1000, null);
+
+        assertSame(first, second);
+        assertNull(first.getMessage());
+    }
+
+    @Test
+    @DisplayName("Test non enum fail code")
+    void testNonEnumFailCode() {
+        IFailCode failCode = new IFailCode() {
+            @Override
+            public int getValue() {
+                return 7001;
+            }
+
+            @Override
+            public String getDesc() {
+                return "Custom failure";
+            }
+        };
+
+        Result<Void> result = ResultUtils.wrapImmutableFailure(failCode);
+
+        assertEquals(7001, result.getCode());
+        assertEquals("Custom failure", result.getMessage());
+    }
+
+    @Test
+    @DisplayName("Test wrap exception returns shared instance")
+    void testWrapExceptionShared() {
+        Result<Void> first = ResultUtils.wrapImmutableException();
+        Result<Void> second = ResultUtils.wrapImmutableException(new RuntimeException("Test exception"));
+
+        assertSame(first, second);
+        assertEquals(IFailCode.SYSTEM_EXCEPTION_CODE, first.getCode());
+    }
+
+    @Test
+    @DisplayName("Test cached result can not be modified")
+    void testImmutable() {
+        Result<String> result = ResultUtils.wrapImmutableFailure(MyFailCode.USER_ACCOUNT_LOCKED);
+
+        assertTrue(result instanceof ImmutableResult);
+        assertThrows(UnsupportedOperationException.class, () -> result.setCode(0));
+        assertThrows(UnsupportedOperationException.class, () -> result.setMessage("changed"));
+        assertThrows(UnsupportedOperationException.class, () -> result.setData("changed"));
+        assertEquals(MyFailCode.USER_ACCOUNT_LOCKED.getValue(), result.getCode());
+    }
+}
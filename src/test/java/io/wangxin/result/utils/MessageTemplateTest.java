@@ -0,0 +1,80 @@
+package io.wangxin.result.utils;
+
+import io.wangxin.result.MyFailCode;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.IllegalFormatException;
+import java.util.MissingFormatArgumentException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * MessageTemplate test
+ * Tests output compatibility of precompiled templates with String.format
+ *
+ * @author Test
+ */
+@DisplayName("MessageTemplate Test")
+public class MessageTemplateTest {
+
+    @Test
+    @DisplayName("Test output matches String.format for all MyFailCode patterns")
+    void testMatchesStringFormat() {
+        for (MyFailCode failCode : MyFailCode.values()) {
+            String expected = String.format(failCode.getDesc(), 42);
+            assertEquals(expected, MessageTemplate.of(failCode).render(42), failCode.name());
+        }
+    }
+
+    @Test
+    @DisplayName("Test %d accepts String arguments")
+    void testDecimalWithString() {
+        String message = MessageTemplate.of(MyFailCode.USER_PASSWORD_TOO_SHORT).render("8");
+
+        assertEquals("Password too short, minimum 8 characters required", message);
+    }
+
+    @Test
+    @DisplayName("Test indexed, escaped and null arguments")
+    void testIndexedEscapedAndNull() {
+        MessageTemplate template = MessageTemplate.compile("%2$s before %1$s, 100%% %s");
+
+        assertEquals(String.format("%2$s before %1$s, 100%% %s", "a", "b"), template.render("a", "b"));
+        assertEquals("null", MessageTemplate.compile("%s").render((Object) null));
+    }
+
+    @Test
+    @DisplayName("Test unsupported specifiers fall back to String.format")
+    void testFallback() {
+        String pattern = "Amount %.2f exceeds %5s";
+
+        assertEquals(String.format(pattern, 1.5, "x"), MessageTemplate.compile(pattern).render(1.5, "x"));
+    }
+
+    @Test
+    @DisplayName("Test missing argument")
+    void testMissingArgument() {
+        MessageTemplate template = MessageTemplate.of(MyFailCode.USER_NOT_FOUND);
+
+        assertThrows(MissingFormatArgumentException.class, () -> template.render());
+    }
+
+    @Test
+    @DisplayName("Test argument check without rendering")
+    void testCheckArguments() {
+        MessageTemplate template = MessageTemplate.compile("Copy %2$s to %1$s");
+
+        template.checkArguments("a", "b");
+        assertThrows(MissingFormatArgumentException.class, () -> template.checkArguments("a"));
+        assertThrows(IllegalFormatException.class, () -> MessageTemplate.compile("Bad %q").checkArguments("a"));
+    }
+
+    @Test
+    @DisplayName("Test templates are cached per fail code and pattern")
+    void testCached() {
+        assertSame(MessageTemplate.of(MyFailCode.ORDER_NOT_FOUND), MessageTemplate.of(MyFailCode.ORDER_NOT_FOUND));
+        assertSame(MessageTemplate.of("Cached: %s"), MessageTemplate.of("Cached: %s"));
+        assertEquals(MyFailCode.ORDER_NOT_FOUND.getDesc(), MessageTemplate.of(MyFailCode.ORDER_NOT_FOUND).getPattern());
+    }
+}
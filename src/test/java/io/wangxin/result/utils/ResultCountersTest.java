@@ -0,0 +1,192 @@
+package io.wangxin.result.utils;
+
+import io.wangxin.result.MyFailCode;
+import io.wangxin.result.Result;
+import io.wangxin.result.ResultPipeline;
+import io.wangxin.result.SmartException;
+import io.wangxin.result.concurrent.AsyncResult;
+import io.wangxin.result.concurrent.FanOut;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * ResultCounters test
+ * Tests per code counting of ResultUtils factory methods
+ *
+ * @author Test
+ */
+@DisplayName("ResultCounters Test")
+public class ResultCountersTest {
+
+    @AfterEach
+    void tearDown() {
+        ResultUtils.disableCounters();
+    }
+
+    @Test
+    @DisplayName("Test disabled by default")
+    void testDisabled() {
+        ResultUtils.wrapFailure(MyFailCode.SYSTEM_OVERLOAD);
+
+        assertNull(ResultUtils.getCounters());
+    }
+
+    @Test
+    @DisplayName("Test every factory method is counted")
+    void testCounting() {
+        // Prepare
+        ResultCounters counters = ResultUtils.enableCounters();
+        assertSame(counters, ResultUtils.enableCounters());
+
+        // Execute
+        ResultUtils.wrapSuccess("data");
+        ResultUtils.wrapSuccess();
+        ResultUtils.wrapIntSuccess(1);
+        ResultUtils.wrapFailure(MyFailCode.PRODUCT_OUT_OF_STOCK);
+        ResultUtils.wrapFailure(MyFailCode.PRODUCT_OUT_OF_STOCK, "PROD-001");
+        ResultUtils.wrapLazyFailure(MyFailCode.PRODUCT_OUT_OF_STOCK, "PROD-002");
+        ResultUtils.wrapFailure(new SmartException(MyFailCode.USER_NOT_FOUND));
+        ResultUtils.wrapFailure(400, "Bad Request");
+        ResultUtils.wrapException(new RuntimeException("Test exception"));
+        ResultUtils.wrapException();
+
+        // Verify
+        ResultCounters.Snapshot snapshot = counters.snapshot();
+        assertEquals(3, snapshot.getSuccessCount());
+        assertEquals(3, snapshot.getCount(2004));
+        assertEquals(1, snapshot.getCount(MyFailCode.USER_NOT_FOUND.getValue()));
+        assertEquals(1, snapshot.getCount(400));
+        assertEquals(2, snapshot.getCount(500));
+        assertEquals(7, snapshot.getFailureCount());
+        assertEquals(3, counters.getCount(2004));
+        assertEquals(0, snapshot.getOverflowCount());
+    }
+
+    @Test
+    @DisplayName("Test results built inside the library are not counted again")
+    void testInternalResultsNotCounted() {
+        // Prepare
+        Result<String> input = ResultUtils.wrapSuccess("abc");
+        Callable<Result<String>> call = () -> input;
+        ResultPipeline<String, Integer> pipeline = ResultPipeline.<String>start()
+                .map(String::length)
+                .filter(length -> length > 5, MyFailCode.STRING_TOO_LONG);
+        ResultCounters counters = ResultUtils.enableCounters();
+
+        // Execute
+        pipeline.apply(input);
+        ResultTraversal.sequence(Arrays.asList(input, input));
+        AsyncResult.completed(input).map(String::length).join();
+        FanOut.invokeAll(Arrays.asList(call, call), Runnable::run);
+
+        // Verify
+        ResultCounters.Snapshot snapshot = counters.snapshot();
+        assertEquals(0, snapshot.getSuccessCount());
+        assertEquals(0, snapshot.getFailureCount());
+    }
+
+    @Test
+    @DisplayName("Test delta between snapshots")
+    void testDelta() {
+        ResultCounters counters = ResultUtils.enableCounters();
+        ResultUtils.wrapFailure(MyFailCode.SYSTEM_OVERLOAD);
+        ResultCounters.Snapshot first = counters.snapshot();
+
+        ResultUtils.wrapFailure(MyFailCode.SYSTEM_OVERLOAD);
+        ResultUtils.wrapFailure(MyFailCode.SYSTEM_OVERLOAD);
+        ResultCounters.Snapshot delta = counters.snapshot().minus(first);
+
+        assertEquals(2, delta.getCount(MyFailCode.SYSTEM_OVERLOAD.getValue()));
+        assertEquals(0, delta.getSuccessCount());
+    }
+
+    @Test
+    @DisplayName("Test concurrent counting")
+    void testConcurrent() throws InterruptedException {
+        ResultCounters counters = ResultUtils.enableCounters();
+        Thread[] threads = new Thread[8];
+        for (int i = 0; i < threads.length; i++) {
+            final int offset = i;
+            threads[i] = new Thread(() -> {
+                for (int j = 0; j < 10000; j++) {
+                    counters.record(1 + (j + offset) % 50);
+                }
+            });
+        }
+
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        ResultCounters.Snapshot snapshot = counters.snapshot();
+        assertEquals(80000, snapshot.getFailureCount());
+        assertEquals(50, snapshot.getFailureCounts().size());
+    }
+
+    @Test
+    @DisplayName("Test snapshots taken while counting are consistent")
+    void testConsistentSnapshot() throws InterruptedException {
+        ResultCounters counters = new ResultCounters();
+        AtomicBoolean running = new AtomicBoolean(true);
+        Thread[] threads = new Thread[4];
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] = new Thread(() -> {
+                while (running.get()) {
+                    counters.record(1001);
+                    counters.record(1002);
+                }
+            });
+            threads[i].start();
+        }
+
+        // Execute: every thread records 1001 before 1002, so a consistent snapshot never has
+        // more 1002s, and at most one missing 1002 per thread
+        ResultCounters.Snapshot previous = counters.snapshot();
+        try {
+            while (counters.getCount(1002) < 100000) {
+                Thread.yield();
+            }
+            for (int i = 0; i < 200; i++) {
+                ResultCounters.Snapshot snapshot = counters.snapshot();
+                long first = snapshot.getCount(1001);
+                long second = snapshot.getCount(1002);
+
+                // Verify
+                assertTrue(first >= second && first - second <= threads.length, first + " / " + second);
+                assertTrue(first >= previous.getCount(1001));
+                previous = snapshot;
+            }
+        } finally {
+            running.set(false);
+            for (Thread thread : threads) {
+                thread.join();
+            }
+        }
+        ResultCounters.Snapshot last = counters.snapshot();
+        assertEquals(last.getCount(1001), last.getCount(1002));
+        assertEquals(last.getCount(1001), counters.getCount(1001));
+    }
+
+    @Test
+    @DisplayName("Test codes beyond the table capacity overflow")
+    void testOverflow() {
+        ResultCounters counters = new ResultCounters();
+        for (int code = 1; code <= 5000; code++) {
+            counters.record(code);
+        }
+
+        ResultCounters.Snapshot snapshot = counters.snapshot();
+        assertEquals(5000, snapshot.getFailureCount());
+        assertTrue(snapshot.getOverflowCount() > 0);
+    }
+}
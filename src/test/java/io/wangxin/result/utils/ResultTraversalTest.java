@@ -0,0 +1,166 @@
+package io.wangxin.result.utils;
+
+import io.wangxin.result.CompositeFailureResult;
+import io.wangxin.result.ImmutableResult;
+import io.wangxin.result.MyFailCode;
+import io.wangxin.result.Result;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * ResultTraversal test
+ * Tests sequential and parallel traversal with both failure policies
+ *
+ * @author Test
+ */
+@DisplayName("ResultTraversal Test")
+public class ResultTraversalTest {
+
+    private static final Function<String, Result<Integer>> PARSE = s -> s.isEmpty()
+            ? ResultUtils.wrapImmutableFailure(MyFailCode.REQUIRED_FIELD_MISSING)
+            : s.startsWith("-") ? ResultUtils.wrapImmutableFailure(MyFailCode.NUMBER_OUT_OF_RANGE)
+            : ResultUtils.wrapSuccess(Integer.parseInt(s));
+
+    /**
+     * Helper method: numbers 0..size-1 as strings
+     */
+    private static List<String> numbers(int size) {
+        List<String> numbers = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            numbers.add(String.valueOf(i));
+        }
+        return numbers;
+    }
+
+    @Test
+    @DisplayName("Test traverse collects data in order")
+    void testTraverse() {
+        // Execute
+        Result<List<Integer>> result = ResultTraversal.traverse(Arrays.asList("1", "2", "3"), PARSE);
+
+        // Verify
+        assertTrue(result.isSuccess());
+        assertEquals(Arrays.asList(1, 2, 3), result.getData());
+        assertTrue(ResultTraversal.traverse(Collections.<String>emptyList(), PARSE).getData().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Test fail fast stops at the first failure")
+    void testFailFast() {
+        AtomicInteger calls = new AtomicInteger();
+
+        // Execute
+        Result<List<Integer>> result = ResultTraversal.traverse(Arrays.asList("1", "", "-1", "4"), s -> {
+            calls.incrementAndGet();
+            return PARSE.apply(s);
+        });
+
+        // Verify
+        assertSame(ResultUtils.wrapImmutableFailure(MyFailCode.REQUIRED_FIELD_MISSING), result);
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    @DisplayName("Test collect all returns every failure")
+    void testCollectAll() {
+        // Execute
+        Result<List<Integer>> result = ResultTraversal.traverse(Arrays.asList("1", "", "-1", "4"), PARSE,
+                ResultTraversal.FailurePolicy.COLLECT_ALL);
+
+        // Verify
+        assertFalse(result.isSuccess());
+        assertEquals(MyFailCode.REQUIRED_FIELD_MISSING.getValue(), result.getCode());
+        CompositeFailureResult<List<Integer>> failures = (CompositeFailureResult<List<Integer>>) result;
+        assertEquals(2, failures.getFailureCount());
+        assertArrayEquals(new int[]{1, 2}, failures.getFailedIndexes());
+        assertSame(ResultUtils.wrapImmutableFailure(MyFailCode.NUMBER_OUT_OF_RANGE), failures.getFailures().get(1));
+    }
+
+    @Test
+    @DisplayName("Test sequence of computed results")
+    void testSequence() {
+        List<Result<Integer>> results = Arrays.asList(ResultUtils.wrapSuccess(1), ResultUtils.wrapSuccess(2));
+        Result<Integer> failure = ResultUtils.wrapImmutableFailure(MyFailCode.USER_NOT_FOUND);
+
+        // Execute & Verify
+        assertEquals(Arrays.asList(1, 2), ResultTraversal.sequence(results).getData());
+        assertSame(failure, ResultTraversal.sequence(Arrays.asList(ResultUtils.wrapSuccess(1), failure)));
+    }
+
+    @Test
+    @DisplayName("Test fail-fast failure with data is returned without its data")
+    void testFailureWithData() {
+        List<Result<String>> results = Arrays.asList(ResultUtils.wrapSuccess("a"),
+                new ImmutableResult<>(500, "Partial", "partial data"));
+
+        // Execute
+        Result<List<String>> result = ResultTraversal.sequence(results);
+
+        // Verify
+        assertEquals(500, result.getCode());
+        assertEquals("Partial", result.getMessage());
+        assertNull(result.getData());
+    }
+
+    @Test
+    @DisplayName("Test parallel traverse keeps input order")
+    void testParallelTraverse() {
+        List<String> inputs = numbers(10000);
+
+        // Execute
+        Result<List<Integer>> result = ResultTraversal.parallelTraverse(inputs, PARSE,
+                ResultTraversal.FailurePolicy.FAIL_FAST, new ForkJoinPool(4));
+
+        // Verify
+        assertTrue(result.isSuccess());
+        assertEquals(10000, result.getData().size());
+        for (int i = 0; i < 10000; i++) {
+            assertEquals(i, result.getData().get(i).intValue());
+        }
+    }
+
+    @Test
+    @DisplayName("Test parallel fail fast skips remaining inputs")
+    void testParallelFailFast() {
+        List<String> inputs = numbers(100000);
+        inputs.set(10, "");
+        AtomicInteger calls = new AtomicInteger();
+
+        // Execute
+        Result<List<Integer>> result = ResultTraversal.parallelTraverse(inputs, s -> {
+            calls.incrementAndGet();
+            return PARSE.apply(s);
+        }, ResultTraversal.FailurePolicy.FAIL_FAST, new ForkJoinPool(2));
+
+        // Verify
+        assertSame(ResultUtils.wrapImmutableFailure(MyFailCode.REQUIRED_FIELD_MISSING), result);
+        assertTrue(calls.get() < 100000);
+    }
+
+    @Test
+    @DisplayName("Test parallel collect all")
+    void testParallelCollectAll() {
+        List<String> inputs = numbers(1000);
+        inputs.set(999, "-1");
+        inputs.set(3, "");
+
+        // Execute
+        Result<List<Integer>> result = ResultTraversal.parallelTraverse(inputs, PARSE,
+                ResultTraversal.FailurePolicy.COLLECT_ALL);
+
+        // Verify
+        CompositeFailureResult<List<Integer>> failures = (CompositeFailureResult<List<Integer>>) result;
+        assertEquals(MyFailCode.REQUIRED_FIELD_MISSING.getValue(), failures.getCode());
+        assertArrayEquals(new int[]{3, 999}, failures.getFailedIndexes());
+    }
+}
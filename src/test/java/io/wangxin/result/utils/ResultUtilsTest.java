@@ -1,8 +1,10 @@
 package io.wangxin.result.utils;
 
 import io.wangxin.result.IFailCode;
+import io.wangxin.result.ImmutableResult;
 import io.wangxin.result.MyFailCode;
 import io.wangxin.result.Result;
+import io.wangxin.result.SmartException;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.BeforeEach;
@@ -221,6 +223,77 @@ public class ResultUtilsTest {
         assertNull(result.getMessage());
     }
 
+    @Test
+    @DisplayName("Test wrap failure response - using SmartException")
+    void testWrapFailureWithSmartException() {
+        // Execute
+        Result<Void> cached = ResultUtils.wrapFailure(new SmartException(MyFailCode.ORDER_NOT_FOUND));
+        Result<Void> custom = ResultUtils.wrapFailure(new SmartException(MyFailCode.ORDER_NOT_FOUND, "ORDER-001"));
+
+        // Verify
+        assertEquals(MyFailCode.ORDER_NOT_FOUND.getValue(), cached.getCode());
+        assertEquals(MyFailCode.ORDER_NOT_FOUND.getDesc(), cached.getMessage());
+        assertEquals(MyFailCode.ORDER_NOT_FOUND.getValue(), custom.getCode());
+        assertEquals("Order not found: ORDER-001", custom.getMessage());
+    }
+
+    @Test
+    @DisplayName("Test wrap factories return mutable results")
+    void testWrapFactoriesMutable() {
+        // Execute
+        Result<String> success = ResultUtils.wrapSuccess();
+        Result<String> failure = ResultUtils.wrapFailure(MyFailCode.ORDER_NOT_FOUND);
+        Result<String> exception = ResultUtils.wrapException();
+        success.setData("Test data");
+        failure.setMessage("changed");
+        exception.setCode(501);
+
+        // Verify
+        assertEquals("Test data", success.getData());
+        assertEquals("changed", failure.getMessage());
+        assertEquals(501, exception.getCode());
+        assertNotSame(success, ResultUtils.wrapSuccess());
+        assertEquals(MyFailCode.ORDER_NOT_FOUND.getDesc(), ResultUtils.wrapFailure(MyFailCode.ORDER_NOT_FOUND).getMessage());
+        assertEquals(IFailCode.SYSTEM_EXCEPTION_CODE, ResultUtils.wrapException().getCode());
+    }
+
+    @Test
+    @DisplayName("Test wrap immutable factories return shared results")
+    void testWrapImmutableFactories() {
+        // Execute
+        Result<String> failure = ResultUtils.wrapImmutableFailure(MyFailCode.ORDER_NOT_FOUND);
+
+        // Verify
+        assertSame(ImmutableResult.success(), ResultUtils.wrapImmutableSuccess());
+        assertSame(failure, ResultUtils.wrapImmutableFailure(new SmartException(MyFailCode.ORDER_NOT_FOUND)));
+        assertSame(failure, ResultUtils.wrapImmutableFailure(MyFailCode.ORDER_NOT_FOUND, new String[0]));
+        assertSame(ResultUtils.wrapImmutableFailure(404, "Not Found"), ResultUtils.wrapImmutableFailure(404, "Not Found"));
+        assertSame(ResultUtils.wrapImmutableException(), ResultUtils.wrapImmutableException(new RuntimeException("Test exception")));
+        assertThrows(UnsupportedOperationException.class, () -> failure.setMessage("changed"));
+        assertEquals("Order not found: ORDER-001",
+                ResultUtils.wrapImmutableFailure(MyFailCode.ORDER_NOT_FOUND, "ORDER-001").getMessage());
+    }
+
+    @Test
+    @DisplayName("Test wrap throwable - unwraps futures and keeps business codes")
+    void testWrapThrowable() {
+        // Execute
+        Result<Void> business = ResultUtils.wrapThrowable(new java.util.concurrent.CompletionException(
+                new SmartException(MyFailCode.ORDER_NOT_FOUND)));
+        Result<Void> system = ResultUtils.wrapThrowable(new java.util.concurrent.ExecutionException(
+                new IllegalStateException("Database down")));
+
+        // Verify
+        assertEquals(MyFailCode.ORDER_NOT_FOUND.getValue(), business.getCode());
+        assertEquals(MyFailCode.ORDER_NOT_FOUND.getDesc(), business.getMessage());
+        assertEquals(IFailCode.SYSTEM_EXCEPTION_CODE, system.getCode());
+        assertSame(ResultUtils.wrapImmutableFailure(MyFailCode.ORDER_NOT_FOUND), ResultUtils.wrapImmutableThrowable(
+                new java.util.concurrent.CompletionException(new SmartException(MyFailCode.ORDER_NOT_FOUND))));
+        assertSame(ResultUtils.wrapImmutableException(), ResultUtils.wrapImmutableThrowable(
+                new java.util.concurrent.ExecutionException(new IllegalStateException("Database down"))));
+        assertThrows(StackOverflowError.class, () -> ResultUtils.wrapThrowable(new StackOverflowError()));
+    }
+
     /**
      * Helper method: Test error code wrapping
      */